@@ -0,0 +1,67 @@
+package org.elastos.hive.connection;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.*;
+import retrofit2.Converter;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode the large results of the database find and query APIs by the converter modes.
+ *
+ * <p>Run with '-prof gc' to compare the allocation rate of the modes.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+	private static final MediaType MEDIA_TYPE = MediaType.parse("application/json");
+
+	@Param({"GSON", "JACKSON"})
+	private ConverterMode mode;
+
+	@Param({"5000"})
+	private int documents;
+
+	private byte[] payload;
+	private Converter<ResponseBody, ?> findConverter;
+	private Converter<ResponseBody, ?> queryConverter;
+
+	@Setup
+	public void setup() throws ClassNotFoundException {
+		StringBuilder builder = new StringBuilder("{\"items\":[");
+		for (int i = 0; i < documents; i++) {
+			if (i > 0)
+				builder.append(',');
+			builder.append("{\"_id\":{\"$oid\":\"5f8d0d55b54764421b7156c").append(i % 10).append("\"},")
+					.append("\"author\":\"john doe ").append(i).append("\",")
+					.append("\"title\":\"The title of the document\",")
+					.append("\"tags\":[\"hive\",\"vault\",\"database\"],")
+					.append("\"stats\":{\"views\":").append(i * 7).append(",\"likes\":").append(i % 100).append("},")
+					.append("\"created\":{\"$date\":1602000000000}}");
+		}
+		payload = builder.append("]}").toString().getBytes();
+
+		JsonConverterFactory factory = new JsonConverterFactory(() -> mode);
+		findConverter = factory.responseBodyConverter(
+				Class.forName("org.elastos.hive.vault.database.FindResult"), new Annotation[0], null);
+		queryConverter = factory.responseBodyConverter(
+				Class.forName("org.elastos.hive.vault.database.QueryResult"), new Annotation[0], null);
+	}
+
+	@Benchmark
+	public Object decodeFindResult() throws IOException {
+		return findConverter.convert(ResponseBody.create(MEDIA_TYPE, payload));
+	}
+
+	@Benchmark
+	public Object decodeQueryResult() throws IOException {
+		return queryConverter.convert(ResponseBody.create(MEDIA_TYPE, payload));
+	}
+}
@@ -0,0 +1,62 @@
+package org.elastos.hive.connection;
+
+import org.elastos.hive.connection.auth.AccessToken;
+import org.elastos.hive.endpoint.AboutController;
+import org.elastos.hive.vault.database.DatabaseController;
+import org.elastos.hive.vault.files.FilesController;
+import org.elastos.hive.vault.scripting.ScriptingController;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost to create the controllers, which happens on the hot paths such as
+ * {@link ScriptingController#downloadFileByHiveUrl(String, Class, org.elastos.hive.AppContext)}.
+ *
+ * <p>The 'sharedConnection' reuses the cached services of the connection,
+ * 		the 'newConnection' builds the retrofit and the services every time like before.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceCacheBenchmark {
+	private NodeRPCConnection connection;
+
+	@Setup
+	public void setup() {
+		connection = new LocalConnection();
+	}
+
+	@Benchmark
+	public void sharedConnection(Blackhole blackhole) {
+		createControllers(connection, blackhole);
+	}
+
+	@Benchmark
+	public void newConnection(Blackhole blackhole) {
+		createControllers(new LocalConnection(), blackhole);
+	}
+
+	private static void createControllers(NodeRPCConnection connection, Blackhole blackhole) {
+		blackhole.consume(new FilesController(connection));
+		blackhole.consume(new DatabaseController(connection));
+		blackhole.consume(new ScriptingController(connection, false));
+		blackhole.consume(new AboutController(connection));
+	}
+
+	private static class LocalConnection extends NodeRPCConnection {
+		@Override
+		protected String getProviderAddress() {
+			return "http://localhost:5000";
+		}
+
+		@Override
+		protected AccessToken getAccessToken() {
+			return null;
+		}
+	}
+}
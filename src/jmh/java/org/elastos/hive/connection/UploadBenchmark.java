@@ -0,0 +1,118 @@
+package org.elastos.hive.connection;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained uploading to a local mock node, by the streaming upload on the shared client
+ * 		and by the HttpURLConnection which was used before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UploadBenchmark {
+	private static final String UPLOAD_PATH = "/api/v2/vault/files/benchmark";
+
+	@Param({"16777216"})
+	private int fileSize;
+
+	@Param({"65536"})
+	private int writeSize;
+
+	@Param({"65536", "1048576"})
+	private int uploadChunkSize;
+
+	@Param({"false", "true"})
+	private boolean verifyHash;
+
+	private HttpServer server;
+	private ExecutorService executor;
+	private String providerAddress;
+	private HttpClientConfig config;
+	private byte[] chunk;
+
+	@Setup
+	public void setup() throws IOException {
+		executor = Executors.newFixedThreadPool(4);
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/api/v2/vault/files/", exchange -> {
+			byte[] buffer = new byte[64 * 1024];
+			try (InputStream in = exchange.getRequestBody()) {
+				while (in.read(buffer) != -1) ;
+			}
+			byte[] result = "{\"cid\":\"QmBenchmark\"}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, result.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(result);
+			}
+		});
+		server.setExecutor(executor);
+		server.start();
+
+		providerAddress = "http://127.0.0.1:" + server.getAddress().getPort();
+		config = new HttpClientConfig().setUploadChunkSize(uploadChunkSize).setVerifyHash(verifyHash);
+		chunk = new byte[writeSize];
+	}
+
+	@TearDown
+	public void tearDown() {
+		server.stop(0);
+		executor.shutdownNow();
+		HttpClientRegistry.getInstance().release(providerAddress);
+	}
+
+	@Benchmark
+	public String streamingUpload() throws IOException {
+		StreamingUpload upload = new StreamingUpload(HttpClientRegistry.getInstance().getClient(providerAddress),
+				config, providerAddress + UPLOAD_PATH, "token");
+		UploadStream out = new UploadStream(upload);
+		try {
+			for (int written = 0; written < fileSize; written += writeSize)
+				out.write(chunk);
+		} finally {
+			out.close();
+		}
+		return out.getCid();
+	}
+
+	@Benchmark
+	public int urlConnectionUpload() throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(providerAddress + UPLOAD_PATH).openConnection();
+		connection.setRequestMethod("PUT");
+		connection.setConnectTimeout(5000);
+		connection.setReadTimeout(5000);
+		connection.setDoOutput(true);
+		connection.setDoInput(true);
+		connection.setUseCaches(false);
+		connection.setRequestProperty("Transfer-Encoding", "chunked");
+		connection.setRequestProperty("Connection", "Keep-Alive");
+		connection.setRequestProperty("Authorization", "token token");
+		connection.setChunkedStreamingMode(0);
+
+		try (OutputStream out = connection.getOutputStream()) {
+			for (int written = 0; written < fileSize; written += writeSize)
+				out.write(chunk);
+		}
+
+		int code = connection.getResponseCode();
+		try (InputStream in = connection.getInputStream()) {
+			while (in.read() != -1) ;
+		}
+		return code;
+	}
+}
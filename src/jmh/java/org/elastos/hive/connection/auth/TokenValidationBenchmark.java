@@ -0,0 +1,114 @@
+package org.elastos.hive.connection.auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.elastos.did.DIDAdapter;
+import org.elastos.did.DIDBackend;
+import org.elastos.did.DIDDocument;
+import org.elastos.did.DIDStore;
+import org.elastos.did.Mnemonic;
+import org.elastos.did.RootIdentity;
+import org.elastos.did.jwt.Claims;
+import org.elastos.did.jwt.JwtParserBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The cost to check an access token by one request, such as the validity checking when signing in,
+ * 		the expiration checking when restoring and the DID flushing.
+ *
+ * <p>The 'parseEveryTime' parses and verifies the JWS for each checking like before,
+ * 		the 'parsedToken' shares the {@link ParsedToken} of the JWT string.</p>
+ *
+ * <p>The issuer DID is resolved locally, so the cost does not include the DID resolving from the chain.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenValidationBenchmark {
+	private static final String STORE_PASSWORD = "benchmark";
+	private static final String AUDIENCE = "did:elastos:iXbenchmarkAppInstance";
+
+	private File storeDir;
+	private String jwtCode;
+
+	@Setup
+	public void setup() throws Exception {
+		DIDBackend.initialize(new LocalAdapter());
+		storeDir = Files.createTempDirectory("benchmark-store").toFile();
+		DIDStore store = DIDStore.open(storeDir);
+		String mnemonic = Mnemonic.getInstance().generate();
+		RootIdentity identity = RootIdentity.create(mnemonic, "", store, STORE_PASSWORD);
+		DIDDocument nodeDoc = identity.newDid(STORE_PASSWORD);
+
+		DIDBackend.getInstance().setResolveHandle(did -> did.equals(nodeDoc.getSubject()) ? nodeDoc : null);
+
+		jwtCode = nodeDoc.jwtBuilder()
+				.setIssuer(nodeDoc.getSubject().toString())
+				.setAudience(AUDIENCE)
+				.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(7)))
+				.claim("props", "{\"appDid\":\"did:elastos:iXbenchmarkApp\"}")
+				.sign(STORE_PASSWORD)
+				.compact();
+
+		if (!ParsedToken.parse(jwtCode).isValid(AUDIENCE))
+			throw new IllegalStateException("Invalid benchmark token");
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		try (Stream<Path> files = Files.walk(storeDir.toPath())) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@Benchmark
+	public void parseEveryTime(Blackhole blackhole) throws Exception {
+		for (int i = 0; i < 3; i++) {
+			Claims claims = new JwtParserBuilder().setAllowedClockSkewSeconds(300).build().parseClaimsJws(jwtCode).getBody();
+			blackhole.consume(claims.getExpiration().getTime() > System.currentTimeMillis()
+					&& claims.getAudience().equals(AUDIENCE));
+		}
+	}
+
+	@Benchmark
+	public void parsedToken(Blackhole blackhole) {
+		for (int i = 0; i < 3; i++)
+			blackhole.consume(ParsedToken.parse(jwtCode).isValid(AUDIENCE));
+	}
+
+	private static class LocalAdapter implements DIDAdapter {
+		@Override
+		public InputStream resolve(String request) {
+			// INFO: The new DID is checked as not published when creating, answer it as not found.
+			try {
+				JsonNode node = new ObjectMapper().readTree(request);
+				String response = String.format("{\"id\":\"%s\",\"jsonrpc\":\"2.0\",\"result\":{\"did\":\"%s\",\"status\":3}}",
+						node.get("id").asText(), node.get("params").get(0).get("did").asText());
+				return new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8));
+			} catch (IOException e) {
+				throw new IllegalArgumentException(e);
+			}
+		}
+
+		@Override
+		public void createIdTransaction(String payload, String memo) {
+			throw new UnsupportedOperationException("Not published");
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package org.elastos.hive.vault.database;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import retrofit2.Converter;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Handle the documents of the large query result by decoding the whole result with the converter modes,
+ * 		or by reading the documents one by one from the body.
+ *
+ * <p>Run with '-prof gc' to compare the allocation rate.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentReaderBenchmark {
+	private static final MediaType MEDIA_TYPE = MediaType.parse("application/json");
+
+	@Param({"5000"})
+	private int documents;
+
+	private byte[] payload;
+	private Converter<ResponseBody, ?> gsonConverter;
+	private Converter<ResponseBody, ?> jacksonConverter;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		StringBuilder builder = new StringBuilder("{\"items\":[");
+		for (int i = 0; i < documents; i++) {
+			if (i > 0)
+				builder.append(',');
+			builder.append("{\"_id\":{\"$oid\":\"5f8d0d55b54764421b7156c").append(i % 10).append("\"},")
+					.append("\"author\":\"john doe ").append(i).append("\",")
+					.append("\"title\":\"The title of the document\",")
+					.append("\"tags\":[\"hive\",\"vault\",\"database\"],")
+					.append("\"stats\":{\"views\":").append(i * 7).append(",\"likes\":").append(i % 100).append("},")
+					.append("\"created\":{\"$date\":1602000000000}}");
+		}
+		payload = builder.append("]}").toString().getBytes();
+
+		gsonConverter = createConverter("GSON");
+		jacksonConverter = createConverter("JACKSON");
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Converter<ResponseBody, ?> createConverter(String mode) throws ReflectiveOperationException {
+		Class<? extends Enum> modeClass = (Class<? extends Enum>) Class.forName("org.elastos.hive.connection.ConverterMode");
+		Enum value = Enum.valueOf(modeClass, mode);
+		Constructor<?> constructor = Class.forName("org.elastos.hive.connection.JsonConverterFactory")
+				.getDeclaredConstructor(Supplier.class);
+		constructor.setAccessible(true);
+		Converter.Factory factory = (Converter.Factory) constructor.newInstance((Supplier<Object>) () -> value);
+		return factory.responseBodyConverter(QueryResult.class, new Annotation[0], null);
+	}
+
+	@Benchmark
+	public void decodeGson(Blackhole blackhole) throws IOException {
+		QueryResult result = (QueryResult) gsonConverter.convert(ResponseBody.create(MEDIA_TYPE, payload));
+		result.getDocuments().forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public void decodeJackson(Blackhole blackhole) throws IOException {
+		QueryResult result = (QueryResult) jacksonConverter.convert(ResponseBody.create(MEDIA_TYPE, payload));
+		result.getDocuments().forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public void readDocuments(Blackhole blackhole) throws IOException {
+		try (DocumentReader reader = new DocumentReader(ResponseBody.create(MEDIA_TYPE, payload))) {
+			JsonNode document;
+			while ((document = reader.read()) != null)
+				blackhole.consume(document);
+		}
+	}
+}
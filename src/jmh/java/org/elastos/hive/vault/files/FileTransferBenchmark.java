@@ -0,0 +1,146 @@
+package org.elastos.hive.vault.files;
+
+import com.google.common.hash.Hashing;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import org.elastos.hive.connection.NodeRPCConnection;
+import org.elastos.hive.connection.auth.AccessToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move a large file between a local mock node and the disk, by the heap buffers of the caller,
+ * 		and by {@link FilesController#downloadTo(String, Path)} and {@link FilesController#uploadFrom(String, Path, boolean)}.
+ *
+ * <p>Run with '-prof gc' to compare the allocation rate.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileTransferBenchmark {
+	private static final String REMOTE_PATH = "benchmark.bin";
+	private static final MediaType MEDIA_TYPE = MediaType.parse("application/octet-stream");
+
+	@Param({"67108864"})
+	private int fileSize;
+
+	private HttpServer server;
+	private ExecutorService executor;
+	private FilesController controller;
+	private FilesAPI filesAPI;
+	private byte[] content;
+	private String hash;
+	private Path localFile;
+	private Path downloadFile;
+
+	@Setup
+	public void setup() throws IOException {
+		content = new byte[fileSize];
+		new Random(1).nextBytes(content);
+		hash = Hashing.sha256().hashBytes(content).toString();
+		localFile = Files.createTempFile("benchmark", ".bin");
+		Files.write(localFile, content);
+		downloadFile = Files.createTempFile("benchmark", ".download");
+
+		executor = Executors.newFixedThreadPool(4);
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/api/v2/vault/files/", this::handle);
+		server.setExecutor(executor);
+		server.start();
+
+		String address = "http://127.0.0.1:" + server.getAddress().getPort();
+		NodeRPCConnection connection = new NodeRPCConnection() {
+			@Override
+			protected String getProviderAddress() {
+				return address;
+			}
+
+			@Override
+			protected AccessToken getAccessToken() {
+				return null;
+			}
+
+			@Override
+			public <S> S createService(Class<S> serviceClass, boolean requiredAuthorization) {
+				return super.createService(serviceClass, false);
+			}
+		};
+		controller = new FilesController(connection);
+		filesAPI = connection.createService(FilesAPI.class, false);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		server.stop(0);
+		executor.shutdownNow();
+		Files.deleteIfExists(localFile);
+		Files.deleteIfExists(downloadFile);
+	}
+
+	@Benchmark
+	public long downloadByStream() throws Exception {
+		try (InputStream in = controller.getDownloadStream(REMOTE_PATH)) {
+			return Files.copy(in, downloadFile, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	@Benchmark
+	public long downloadTo() throws Exception {
+		return controller.downloadTo(REMOTE_PATH, downloadFile);
+	}
+
+	@Benchmark
+	public void uploadByHeap() throws Exception {
+		filesAPI.upload(REMOTE_PATH, null, RequestBody.create(MEDIA_TYPE, Files.readAllBytes(localFile))).execute();
+	}
+
+	@Benchmark
+	public void uploadFrom() throws Exception {
+		controller.uploadFrom(REMOTE_PATH, localFile, false);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		byte[] buffer = new byte[64 * 1024];
+		try (InputStream in = exchange.getRequestBody()) {
+			while (in.read(buffer) != -1) ;
+		}
+
+		String query = exchange.getRequestURI().getQuery();
+		if ("PUT".equals(exchange.getRequestMethod()))
+			sendJson(exchange, "{\"cid\":\"QmBenchmark\"}");
+		else if ("comp=hash".equals(query))
+			sendJson(exchange, "{\"name\":\"" + REMOTE_PATH + "\",\"algorithm\":\"SHA256\",\"hash\":\"" + hash + "\"}");
+		else {
+			exchange.sendResponseHeaders(200, content.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(content);
+			}
+		}
+	}
+
+	private static void sendJson(HttpExchange exchange, String json) throws IOException {
+		byte[] result = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, result.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(result);
+		}
+	}
+}
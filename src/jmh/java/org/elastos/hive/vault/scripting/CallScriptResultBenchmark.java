@@ -0,0 +1,81 @@
+package org.elastos.hive.vault.scripting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode the result of calling a script which finds the documents, by the result types of the caller.
+ *
+ * <p>The 'newMapper' reads the body to the string and creates the mapper for each result like before,
+ * 		the 'sharedCodec' decodes the body stream by the cached reader of the shared codec.</p>
+ *
+ * <p>Run with '-prof gc' to compare the allocation rate.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallScriptResultBenchmark {
+	private static final MediaType MEDIA_TYPE = MediaType.parse("application/json");
+
+	@Param({"JsonNode", "POJO"})
+	private String resultType;
+
+	@Param({"10", "1000"})
+	private int documents;
+
+	private byte[] payload;
+	private Class<?> type;
+
+	@Setup
+	public void setup() {
+		StringBuilder builder = new StringBuilder("{\"get_groups\":{\"items\":[");
+		for (int i = 0; i < documents; i++) {
+			if (i > 0)
+				builder.append(',');
+			builder.append("{\"author\":\"john doe ").append(i).append("\",")
+					.append("\"title\":\"The title of the document\",")
+					.append("\"tags\":[\"hive\",\"vault\",\"script\"],")
+					.append("\"views\":").append(i * 7).append('}');
+		}
+		payload = builder.append("]}}").toString().getBytes();
+		type = "JsonNode".equals(resultType) ? JsonNode.class : ScriptResult.class;
+	}
+
+	@Benchmark
+	public Object newMapper() throws IOException {
+		String json = ResponseBody.create(MEDIA_TYPE, payload).string();
+		if (type == JsonNode.class)
+			return new ObjectMapper().readTree(json);
+		return new ObjectMapper().readValue(json, type);
+	}
+
+	@Benchmark
+	public Object sharedCodec() throws IOException {
+		return ScriptingController.toResult(ResponseBody.create(MEDIA_TYPE, payload), type);
+	}
+
+	public static class ScriptResult {
+		public Items get_groups;
+	}
+
+	public static class Items {
+		public List<Document> items;
+	}
+
+	public static class Document {
+		public String author;
+		public String title;
+		public List<String> tags;
+		public long views;
+	}
+}
@@ -1,21 +1,22 @@
 package org.elastos.hive;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
-import org.elastos.did.DID;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.elastos.did.DIDBackend;
-import org.elastos.did.DIDDocument;
 import org.elastos.did.DefaultDIDAdapter;
-import org.elastos.did.exception.DIDResolveException;
-import org.elastos.did.exception.MalformedDIDException;
 import org.elastos.hive.exception.HiveException;
-import org.elastos.hive.exception.ProviderNotSetException;
+import org.elastos.hive.vault.files.FileCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.elastos.hive.exception.BadContextProviderException;
-import org.elastos.hive.exception.DIDNotPublishedException;
 import org.elastos.hive.exception.NetworkException;
 import org.elastos.hive.exception.DIDResolverNotSetupException;
 import org.elastos.hive.exception.DIDResoverAlreadySetupException;
@@ -33,10 +34,20 @@ import org.elastos.hive.exception.DIDResoverAlreadySetupException;
 public class AppContext {
 	private static final Logger log = LoggerFactory.getLogger(AppContext.class);
 	private static boolean resolverHasSetup = false;
+	private static final String FILE_CACHE_DIR = "files-cache";
+	private static final long DEFAULT_FILE_CACHE_SIZE = 128 * 1024 * 1024;
+	private static final int MAX_SCRIPT_RUNNERS = 64;
+	private static volatile Executor defaultExecutor;
 
 	private AppContextProvider contextProvider;
 	private String userDid;
 	private boolean forceResolve;
+	private boolean journalStorageEnabled;
+	private final Cache<String, ScriptRunner> scriptRunners = CacheBuilder.newBuilder()
+			.maximumSize(MAX_SCRIPT_RUNNERS)
+			.build();
+	private FileCache fileCache;
+	private volatile Executor executor;
 
 	private AppContext(AppContextProvider provider, String userDid) {
 		this.userDid = userDid;
@@ -62,6 +73,64 @@ public class AppContext {
 		return userDid;
 	}
 
+	/**
+	 * Get the executor which runs the asynchronous APIs of this context, such as the methods of the services.
+	 *
+	 * <p>The executor of this context is used first, then the one of the context provider,
+	 * 		and {@link #getDefaultExecutor()} at last.</p>
+	 *
+	 * @return The executor.
+	 */
+	public Executor getExecutor() {
+		Executor current = this.executor;
+		if (current == null)
+			current = contextProvider.getExecutor();
+		return current != null ? current : getDefaultExecutor();
+	}
+
+	/**
+	 * Set the executor which runs the asynchronous APIs of this context.
+	 *
+	 * @param executor The executor, null to use the one of the context provider or the default one.
+	 * @return app context
+	 */
+	public AppContext setExecutor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Get the executor which is shared by the asynchronous APIs without the specific one.
+	 *
+	 * <p>The blocking network requests of the SDK do not run on {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+	 * 		The virtual threads are used on JDK 21+, otherwise a bounded thread pool sized for I/O.</p>
+	 *
+	 * @return The executor.
+	 */
+	public static Executor getDefaultExecutor() {
+		Executor current = defaultExecutor;
+		if (current == null) {
+			synchronized (AppContext.class) {
+				if (defaultExecutor == null)
+					defaultExecutor = IoExecutors.createDefault();
+				current = defaultExecutor;
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Set the executor which is shared by the asynchronous APIs without the specific one.
+	 *
+	 * @param executor The executor.
+	 */
+	public static void setDefaultExecutor(Executor executor) {
+		if (executor == null)
+			throw new IllegalArgumentException("Empty executor");
+
+		defaultExecutor = executor;
+	}
+
 	/**
 	 * Get the provider address from user DID document.
 	 * @return The provider address.
@@ -70,6 +139,53 @@ public class AppContext {
 		return this.getProviderAddress(this.userDid);
 	}
 
+	/**
+	 * Get the script runner of the provider address which is shared by the calls of this context.
+	 *
+	 * <p>The runner keeps the access token and the services for the hive node,
+	 * 		so the calls such as downloading by the hive url do not need rebuild them.
+	 * 		The runners of the least recently used providers are dropped when there are too many.</p>
+	 *
+	 * @param providerAddress The address of the provider.
+	 * @return The script runner.
+	 */
+	public ScriptRunner getScriptRunner(String providerAddress) {
+		if (providerAddress == null)
+			throw new IllegalArgumentException("Empty provider address");
+
+		return scriptRunners.asMap().computeIfAbsent(providerAddress, address -> new ScriptRunner(this, address));
+	}
+
+	/**
+	 * Get the local cache of the vault files, which is opened in the local data directory
+	 * 		with the default size if not set, and shared by the contexts of the same directory.
+	 *
+	 * @return The file cache.
+	 * @throws HiveException Failed to create the cache directory.
+	 */
+	public synchronized FileCache getFileCache() throws HiveException {
+		if (fileCache == null) {
+			try {
+				fileCache = FileCache.open(Paths.get(contextProvider.getLocalDataDir(), FILE_CACHE_DIR), DEFAULT_FILE_CACHE_SIZE);
+			} catch (IOException e) {
+				throw new HiveException("Failed to create the file cache: " + e.getMessage(), e);
+			}
+		}
+		return fileCache;
+	}
+
+	/**
+	 * Set the local cache of the vault files, the cache can be shared by the application contexts.
+	 *
+	 * @param fileCache The file cache.
+	 */
+	public synchronized void setFileCache(FileCache fileCache) {
+		if (fileCache == null)
+			throw new IllegalArgumentException("Empty file cache");
+
+		this.fileCache = fileCache;
+	}
+
 	/**
 	 * Setup the resolver for the DID verification.
 	 *
@@ -122,6 +238,23 @@ public class AppContext {
 		return this;
 	}
 
+	/**
+	 * Set whether the service end-points keep the access tokens and the credentials by the journal storage
+	 * 		instead of one file per value. One journal under the local data directory keeps all users,
+	 * 		it is used by one process only, the other processes keep using the files. The default is false.
+	 *
+	 * @param enabled enabled or not.
+	 * @return app context
+	 */
+	public AppContext setJournalStorageEnabled(boolean enabled) {
+		this.journalStorageEnabled = enabled;
+		return this;
+	}
+
+	boolean isJournalStorageEnabled() {
+		return journalStorageEnabled;
+	}
+
 	/**
 	 * Get the URL address of the provider throw the document of the user DID.
 	 * The will access the property of the document of the user DID.
@@ -133,10 +266,23 @@ public class AppContext {
 		return getProviderAddress(targetDid, null, this.forceResolve);
 	}
 
+	/**
+	 * Get the URL addresses of the providers of the DIDs at once,
+	 * 		see {@link ProviderResolver#resolveAll(Collection)}.
+	 *
+	 * @param targetDids The user DIDs.
+	 * @return The URL addresses of the providers and the errors of the DIDs.
+	 */
+	public static CompletableFuture<ProviderAddresses> getProviderAddresses(Collection<String> targetDids) {
+		return CompletableFuture.supplyAsync(() -> ProviderResolver.getInstance().resolveAll(targetDids), getDefaultExecutor());
+	}
+
 	/**
 	 * Get the URL address of the provider by the user DID.
 	 * The will access the property of the user DID.
 	 *
+	 * <p>The address is cached by {@link ProviderResolver}, see {@link ProviderResolver#setTtl(long, TimeUnit)}.</p>
+	 *
 	 * @param targetDid The user DID.
 	 * @param preferredProviderAddress The preferred URL address of the provider.
 	 * @param isForce Whether forcing resolve provider url from chain.
@@ -152,34 +298,24 @@ public class AppContext {
 				return preferredProviderAddress;
 
 			try {
-				List<DIDDocument.Service> services = null;
-				DID did = new DID(targetDid);
-				DIDDocument doc;
-
-				doc = did.resolve(isForce);
-				if (doc == null)
-					throw new DIDNotPublishedException(
-							String.format("The DID %s has not published onto sideChain", targetDid));
-
-				services = doc.selectServices((String) null, "HiveVault");
-				if (services == null || services.size() == 0)
-					throw new ProviderNotSetException(
-							String.format("No 'HiveVault' services declared on DID document %s", targetDid));
-
-				/*
-				 * Should we throw special exception when it has more than one end-point
-				 * of service "HiveVault";
-				 */
-				return services.get(0).getServiceEndpoint();
-
-			} catch (MalformedDIDException e) {
-				log.error("Malformed target did {} with error: {}", targetDid, e.getMessage());
-				throw new IllegalArgumentException("Malformed did string: " + targetDid);
-
-			} catch (DIDResolveException e) {
-				log.error("Resolving the target DID {} failed: {}", targetDid, e.getMessage());
-				throw new CompletionException(new NetworkException("Resolving DID failed: " + e.getMessage()));
+				return ProviderResolver.getInstance().resolve(targetDid, isForce);
+			} catch (NetworkException e) {
+				throw new CompletionException(e);
 			}
-		});
+		}, getDefaultExecutor());
+	}
+
+	/**
+	 * Resolve the URL address of the provider on the calling thread.
+	 *
+	 * <p>INFO: For the callers which already run on the executor, they must not wait for
+	 * 		the task of {@link #getProviderAddress(String)} on the same bounded executor.</p>
+	 *
+	 * @param targetDid The user DID.
+	 * @return The URL address of the provider.
+	 * @throws NetworkException Failed to resolve the DID.
+	 */
+	String resolveProviderAddress(String targetDid) throws NetworkException {
+		return ProviderResolver.getInstance().resolve(targetDid, this.forceResolve);
 	}
 }
@@ -1,6 +1,7 @@
 package org.elastos.hive;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.elastos.did.DIDDocument;
 
 /**
@@ -31,4 +32,14 @@ public interface AppContextProvider {
 	 * @return The credential issued by user.
 	 */
 	CompletableFuture<String> getAuthorization(String authenticationChallengeJWtCode);
+
+	/**
+	 * The method for upper Application to provide the executor which runs
+	 * the asynchronous APIs of the application context.
+	 *
+	 * @return The executor, null to use {@link AppContext#getDefaultExecutor()}.
+	 */
+	default Executor getExecutor() {
+		return null;
+	}
 }
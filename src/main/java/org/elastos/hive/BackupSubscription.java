@@ -59,7 +59,7 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (RuntimeException | HiveException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -73,7 +73,7 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (RuntimeException | HiveException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -84,7 +84,7 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -110,7 +110,7 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -121,7 +121,7 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -137,7 +137,7 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -148,7 +148,7 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -159,7 +159,7 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -170,7 +170,7 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -181,7 +181,7 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -192,7 +192,7 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -203,6 +203,6 @@ public class BackupSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 }
@@ -0,0 +1,73 @@
+package org.elastos.hive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executors for the asynchronous APIs of the SDK, which mostly block on the network I/O.
+ *
+ * <p>The virtual thread executor is used when running on JDK 21+,
+ * 		otherwise the bounded thread pool which is sized for the I/O rather than the CPU count.</p>
+ */
+class IoExecutors {
+	private static final Logger log = LoggerFactory.getLogger(IoExecutors.class);
+	private static final int MIN_THREADS = 16;
+	private static final int MAX_THREADS = 64;
+	private static final long KEEP_ALIVE = 60;
+
+	private IoExecutors() {}
+
+	/**
+	 * Create the default executor, see {@link AppContext#getDefaultExecutor()}.
+	 *
+	 * @return The executor.
+	 */
+	static ExecutorService createDefault() {
+		ExecutorService executor = createVirtualThreadExecutor();
+		if (executor != null)
+			return executor;
+
+		int threads = Math.min(MAX_THREADS, Math.max(MIN_THREADS, Runtime.getRuntime().availableProcessors() * 4));
+		return createThreadPool(threads);
+	}
+
+	/**
+	 * Create the bounded thread pool with the daemon threads, the idle threads are released.
+	 *
+	 * @param threads The maximum count of the threads.
+	 * @return The executor.
+	 */
+	static ExecutorService createThreadPool(int threads) {
+		AtomicInteger index = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+				KEEP_ALIVE, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "hive-io-" + index.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Create the executor which starts a virtual thread for each task.
+	 *
+	 * @return The executor, null if the virtual thread is not supported by the running JDK.
+	 */
+	static ExecutorService createVirtualThreadExecutor() {
+		// INFO: The SDK is built for Java 8, so find the API of JDK 21+ by reflection.
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (NoSuchMethodException e) {
+			return null;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			log.warn("Failed to create the virtual thread executor: {}", e.getMessage());
+			return null;
+		}
+	}
+}
@@ -5,16 +5,32 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 public class IpfsRunner {
     private String ipfsGatewayUrl;
+    private Executor executor;
 
     public IpfsRunner() {
         this(null);
     }
 
     public IpfsRunner(String ipfsGatewayUrl) {
+        this(ipfsGatewayUrl, AppContext.getDefaultExecutor());
+    }
+
+    /**
+     * Create by the gateway URL and the executor which runs the downloading.
+     *
+     * @param ipfsGatewayUrl The URL of the IPFS gateway, null for the default one.
+     * @param executor The executor, such as {@link AppContext#getExecutor()}.
+     */
+    public IpfsRunner(String ipfsGatewayUrl, Executor executor) {
+        if (executor == null)
+            throw new IllegalArgumentException("Empty executor");
+
         this.ipfsGatewayUrl = ipfsGatewayUrl == null ? "https://ipfs.trinity-tech.io" : ipfsGatewayUrl;
+        this.executor = executor;
     }
 
     public CompletableFuture<InputStream> getFileStream(String cid) {
@@ -27,7 +43,7 @@ public class IpfsRunner {
             } catch (IOException e) {
                 throw new CompletionException(e);
             }
-        });
+        }, executor);
     }
 
     private InputStream getFileInputStream(String url) throws IOException {
@@ -48,7 +64,7 @@ public class IpfsRunner {
             } catch (IOException e) {
                 throw new CompletionException(e);
             }
-        });
+        }, executor);
     }
 
 }
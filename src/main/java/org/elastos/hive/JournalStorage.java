@@ -0,0 +1,359 @@
+package org.elastos.hive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.elastos.hive.connection.JsonCodec;
+import org.elastos.hive.connection.SHA256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Storage with the memory and an append-only journal file.
+ *
+ * <p>The values are served from the memory. The changes are appended to the journal in batches
+ * 		by the background flusher, and the journal is compacted to a snapshot by the atomic rename
+ * 		when it grows much bigger than the live entries.</p>
+ *
+ * <p>One journal is kept under the root path of the local data, and the entries are keyed by the user DID,
+ * 		so the files and the lock are shared by all users of the process. The storage of the user is a view
+ * 		of the journal. The files of {@link FileStorage} are imported when the user is opened the first time.</p>
+ *
+ * <p>The journal is rebuilt from the memory of one process, so the root path is locked by the process
+ * 		which opens the journal first, and the other processes use the {@link FileStorage} instead.</p>
+ */
+class JournalStorage implements DataStorage {
+	private static final Logger log = LoggerFactory.getLogger(JournalStorage.class);
+
+	private static final String BACKUP = "credential-backup";
+	private static final String TOKENS = "tokens";
+	private static final String IMPORTED = "imported";
+	private static final String JOURNAL = "storage.journal";
+	private static final String LOCK = "storage.lock";
+	private static final String KEY = "k";
+	private static final String VALUE = "v";
+
+	private static final long FLUSH_DELAY = 200;
+	private static final int COMPACT_THRESHOLD = 1024;
+
+	private static final Map<Path, Journal> journals = new ConcurrentHashMap<>();
+	private static final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "hive-storage-flusher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		// INFO: The flusher is a daemon thread, flush the pending changes when the application exits.
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> journals.values().forEach(Journal::flush)));
+	}
+
+	private final Journal journal;
+	private final String user;
+
+	private JournalStorage(Journal journal, String user) {
+		this.journal = journal;
+		this.user = user;
+	}
+
+	/**
+	 * Open the storage of the user by the journal under the root path, the journal is shared by all users.
+	 *
+	 * @param rootPath The root path of the local data.
+	 * @param userDid The user DID.
+	 * @return The journal storage, or the file storage if the root path is locked by another process.
+	 */
+	static DataStorage open(String rootPath, String userDid) {
+		Path root = Paths.get(rootPath).toAbsolutePath().normalize();
+		// INFO: Not kept when locked by another process, so the later opening tries again.
+		Journal journal = journals.computeIfAbsent(root, Journal::open);
+		if (journal == null) {
+			log.info("The storage {} is used by another process, use the files instead", root);
+			return new FileStorage(rootPath, userDid);
+		}
+
+		String user = compatDid(userDid);
+		journal.importUser(user, root.resolve(user));
+		return new JournalStorage(journal, user);
+	}
+
+	/**
+	 * Flush and release the journal, then it can be opened by the other processes.
+	 *
+	 * <p>The journal is shared by the users of the root path, so the storages of all of them are closed.</p>
+	 */
+	void close() {
+		journal.close();
+	}
+
+	/**
+	 * Write the pending changes to the journal file.
+	 */
+	void flush() {
+		journal.flush();
+	}
+
+	@Override
+	public String loadBackupCredential(String serviceDid) {
+		return journal.get(makeKey(BACKUP, compatDid(serviceDid)));
+	}
+
+	@Override
+	public String loadAccessToken(String serviceDid) {
+		return journal.get(makeKey(TOKENS, compatDid(serviceDid)));
+	}
+
+	@Override
+	public String loadAccessTokenByAddress(String providerAddress) {
+		return journal.get(makeKey(TOKENS, SHA256.generate(providerAddress)));
+	}
+
+	@Override
+	public void storeBackupCredential(String serviceDid, String credential) {
+		journal.write(makeKey(BACKUP, compatDid(serviceDid)), credential);
+	}
+
+	@Override
+	public void storeAccessToken(String serviceDid, String accessToken) {
+		journal.write(makeKey(TOKENS, compatDid(serviceDid)), accessToken);
+	}
+
+	@Override
+	public void storeAccessTokenByAddress(String providerAddress, String accessToken) {
+		journal.write(makeKey(TOKENS, SHA256.generate(providerAddress)), accessToken);
+	}
+
+	@Override
+	public void clearBackupCredential(String serviceDid) {
+		journal.write(makeKey(BACKUP, compatDid(serviceDid)), null);
+	}
+
+	@Override
+	public void clearAccessToken(String serviceDid) {
+		journal.write(makeKey(TOKENS, compatDid(serviceDid)), null);
+	}
+
+	@Override
+	public void clearAccessTokenByAddress(String providerAddress) {
+		journal.write(makeKey(TOKENS, SHA256.generate(providerAddress)), null);
+	}
+
+	private String makeKey(String segPath, String name) {
+		return user + "/" + segPath + "/" + name;
+	}
+
+	/**
+	 * The journal under the root path, which keeps the entries of all users.
+	 */
+	private static class Journal {
+		private final Path root;
+		private final Path file;
+		private final FileChannel lockChannel;
+		private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+		// The pending changes in order, null value for the removing.
+		private final Object pendingLock = new Object();
+		private List<String[]> pending = new ArrayList<>();
+		private boolean flushScheduled;
+
+		// The records in the journal file, guarded by the journal lock.
+		private final Object journalLock = new Object();
+		private int records;
+		private boolean compactRequired;
+
+		private Journal(Path root, FileChannel lockChannel) {
+			this.root = root;
+			this.file = root.resolve(JOURNAL);
+			this.lockChannel = lockChannel;
+
+			try {
+				if (Files.exists(file))
+					load();
+			} catch (IOException e) {
+				log.error("Failed to load the storage {}: {}", file, e.getMessage());
+			}
+		}
+
+		static Journal open(Path root) {
+			FileChannel channel = null;
+			try {
+				Files.createDirectories(root);
+				channel = FileChannel.open(root.resolve(LOCK), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+				FileLock lock = channel.tryLock();
+				if (lock != null)
+					return new Journal(root, channel);
+			} catch (OverlappingFileLockException e) {
+				// INFO: Locked by another class loader of this process.
+			} catch (IOException e) {
+				log.warn("Failed to lock the storage {}: {}", root, e.getMessage());
+			}
+
+			closeQuietly(channel);
+			return null;
+		}
+
+		String get(String key) {
+			return entries.get(key);
+		}
+
+		synchronized void importUser(String user, Path directory) {
+			String imported = user + "/" + IMPORTED;
+			if (entries.containsKey(imported))
+				return;
+
+			try {
+				importFiles(user, directory, TOKENS);
+				importFiles(user, directory, BACKUP);
+				write(imported, "true");
+			} catch (IOException e) {
+				log.error("Failed to import the storage {}: {}", directory, e.getMessage());
+			}
+		}
+
+		private void importFiles(String user, Path directory, String segPath) throws IOException {
+			Path dir = directory.resolve(segPath);
+			if (!Files.isDirectory(dir))
+				return;
+
+			try (Stream<Path> files = Files.list(dir)) {
+				for (Path path : (Iterable<Path>) files::iterator) {
+					if (Files.isRegularFile(path))
+						write(user + "/" + segPath + "/" + path.getFileName().toString(),
+								new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+				}
+			}
+		}
+
+		void write(String key, String value) {
+			synchronized (pendingLock) {
+				// INFO: Keep the memory and the pending changes in the same order.
+				if (value != null)
+					entries.put(key, value);
+				else if (entries.remove(key) == null)
+					return;
+
+				pending.add(new String[]{key, value});
+				if (!flushScheduled) {
+					flushScheduled = true;
+					flusher.schedule(this::flush, FLUSH_DELAY, TimeUnit.MILLISECONDS);
+				}
+			}
+		}
+
+		void flush() {
+			synchronized (journalLock) {
+				List<String[]> changes;
+				synchronized (pendingLock) {
+					changes = pending;
+					pending = new ArrayList<>();
+					flushScheduled = false;
+				}
+
+				try {
+					if (!changes.isEmpty() && !compactRequired)
+						append(changes);
+
+					if (compactRequired || (records > COMPACT_THRESHOLD && records > entries.size() * 2))
+						compact();
+				} catch (IOException e) {
+					// INFO: The values are still in the memory, the next flushing writes all of them.
+					log.error("Failed to write the storage {}: {}", file, e.getMessage());
+					compactRequired = true;
+				}
+			}
+		}
+
+		void close() {
+			flush();
+			journals.remove(root, this);
+			closeQuietly(lockChannel);
+		}
+
+		private void append(List<String[]> changes) throws IOException {
+			try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+				for (String[] change : changes)
+					writeRecord(writer, change[0], change[1]);
+			}
+			records += changes.size();
+		}
+
+		private void compact() throws IOException {
+			Path temp = root.resolve(JOURNAL + ".tmp");
+			int count = 0;
+			try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				for (Map.Entry<String, String> entry : entries.entrySet()) {
+					writeRecord(writer, entry.getKey(), entry.getValue());
+					count++;
+				}
+			}
+
+			try {
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			records = count;
+			compactRequired = false;
+		}
+
+		private static void writeRecord(BufferedWriter writer, String key, String value) throws IOException {
+			ObjectNode record = JsonCodec.getMapper().createObjectNode();
+			record.put(KEY, key);
+			if (value != null)
+				record.put(VALUE, value);
+			writer.write(JsonCodec.getWriter().writeValueAsString(record));
+			writer.newLine();
+		}
+
+		private void load() throws IOException {
+			try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					records++;
+					try {
+						JsonNode record = JsonCodec.readTree(line);
+						if (record.hasNonNull(VALUE))
+							entries.put(record.get(KEY).asText(), record.get(VALUE).asText());
+						else
+							entries.remove(record.get(KEY).asText());
+					} catch (IOException | NullPointerException e) {
+						// INFO: The last record may be partially written when the application exits.
+						log.warn("Skip the invalid record of the storage {}", file);
+						compactRequired = true;
+					}
+				}
+			}
+		}
+	}
+
+	private static void closeQuietly(FileChannel channel) {
+		try {
+			if (channel != null)
+				channel.close();
+		} catch (IOException e) {
+			log.warn("Failed to close the lock of the storage: {}", e.getMessage());
+		}
+	}
+
+	private static String compatDid(String did) {
+		String[] parts = did.split(":");
+		return parts.length >= 3 ? parts[2] : did;
+	}
+}
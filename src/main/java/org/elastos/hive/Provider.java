@@ -52,7 +52,7 @@ public class Provider extends ServiceEndpoint {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	/**
@@ -67,7 +67,7 @@ public class Provider extends ServiceEndpoint {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	/**
@@ -82,7 +82,7 @@ public class Provider extends ServiceEndpoint {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 }
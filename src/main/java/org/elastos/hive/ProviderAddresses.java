@@ -0,0 +1,54 @@
+package org.elastos.hive;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The result of resolving the provider addresses of the DIDs at once.
+ *
+ * <p>Every DID is either resolved to the provider address or failed with the error,
+ * 		the failed ones can be resolved again without the resolved ones.</p>
+ *
+ * <pre>
+ *     ProviderAddresses result = AppContext.getProviderAddresses(targetDids).get();
+ *     result.getAddresses().forEach((did, address) -&gt; callScript(did, address));
+ *     if (!result.isSucceeded())
+ *         retry(result.getErrors().keySet());
+ * </pre>
+ */
+public class ProviderAddresses {
+	private final Map<String, String> addresses;
+	private final Map<String, Exception> errors;
+
+	ProviderAddresses(Map<String, String> addresses, Map<String, Exception> errors) {
+		this.addresses = Collections.unmodifiableMap(addresses);
+		this.errors = Collections.unmodifiableMap(errors);
+	}
+
+	/**
+	 * Get the provider addresses of the resolved DIDs.
+	 *
+	 * @return The map of the DID to the provider address.
+	 */
+	public Map<String, String> getAddresses() {
+		return addresses;
+	}
+
+	/**
+	 * Get the errors of the failed DIDs, such as {@link org.elastos.hive.exception.DIDNotPublishedException},
+	 * 		{@link org.elastos.hive.exception.ProviderNotSetException} and {@link org.elastos.hive.exception.NetworkException}.
+	 *
+	 * @return The map of the DID to the error.
+	 */
+	public Map<String, Exception> getErrors() {
+		return errors;
+	}
+
+	public String getAddress(String targetDid) {
+		return addresses.get(targetDid);
+	}
+
+	public boolean isSucceeded() {
+		return errors.isEmpty();
+	}
+}
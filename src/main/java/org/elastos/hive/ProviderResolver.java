@@ -0,0 +1,354 @@
+package org.elastos.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.elastos.did.DID;
+import org.elastos.did.DIDDocument;
+import org.elastos.did.exception.DIDResolveException;
+import org.elastos.did.exception.MalformedDIDException;
+import org.elastos.hive.connection.SingleFlight;
+import org.elastos.hive.exception.DIDNotPublishedException;
+import org.elastos.hive.exception.NetworkException;
+import org.elastos.hive.exception.ProviderNotSetException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The resolver gets the provider address of the 'HiveVault' service from the DID document,
+ * 		and caches it by the DID.
+ *
+ * <p>The DID which is not published or has no 'HiveVault' service is cached too with a shorter time,
+ * 		the resolving errors such as the network ones are not cached.
+ * 		The concurrent resolving of the same DID waits for one in-flight resolving,
+ * 		and the forced resolving only waits for the forced one.</p>
+ *
+ * <p>The DIDs of the fan-out operations can be resolved at once by {@link #resolveAll(Collection)}
+ * 		with the bounded parallelism.</p>
+ *
+ * <pre>
+ *     ProviderResolver.getInstance().setTtl(5, TimeUnit.MINUTES);
+ *     String address = ProviderResolver.getInstance().resolve(targetDid, false);
+ * </pre>
+ */
+public class ProviderResolver {
+	private static final Logger log = LoggerFactory.getLogger(ProviderResolver.class);
+	private static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(10);
+	private static final long DEFAULT_NEGATIVE_TTL = TimeUnit.MINUTES.toMillis(1);
+	private static final int MAX_ENTRIES = 10000;
+	private static final int DEFAULT_PARALLELISM = 8;
+
+	// INFO: Created after the default values.
+	private static final ProviderResolver instance = new ProviderResolver(ProviderResolver::resolveFromChain);
+
+	private final Cache<String, Entry> entries = CacheBuilder.newBuilder()
+			.maximumSize(MAX_ENTRIES)
+			.build();
+	private final SingleFlight<String, Entry> resolvings = new SingleFlight<>();
+	private final SingleFlight<String, Entry> forcedResolvings = new SingleFlight<>();
+	private final ChainLookup chainLookup;
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private volatile long ttl = DEFAULT_TTL;
+	private volatile long negativeTtl = DEFAULT_NEGATIVE_TTL;
+	private final ThreadPoolExecutor executor = createExecutor(DEFAULT_PARALLELISM);
+
+	/**
+	 * The lookup of the provider address from the DID document on the chain.
+	 */
+	interface ChainLookup {
+		/**
+		 * Get the provider address of the DID.
+		 *
+		 * @param targetDid The DID.
+		 * @param isForce Whether forcing resolve from chain.
+		 * @return The provider address.
+		 * @throws NetworkException Failed to resolve the DID.
+		 * @throws DIDNotPublishedException The DID is not published.
+		 * @throws ProviderNotSetException No 'HiveVault' service in the DID document.
+		 */
+		String lookup(String targetDid, boolean isForce) throws NetworkException;
+	}
+
+	ProviderResolver(ChainLookup chainLookup) {
+		this.chainLookup = chainLookup;
+	}
+
+	/**
+	 * Get the resolver which is shared by the whole SDK.
+	 *
+	 * @return The instance of the resolver.
+	 */
+	public static ProviderResolver getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Set how long the resolved provider address is cached.
+	 *
+	 * @param ttl The time, 0 to disable the caching.
+	 * @param unit The unit of the time.
+	 * @return This resolver.
+	 */
+	public ProviderResolver setTtl(long ttl, TimeUnit unit) {
+		if (ttl < 0)
+			throw new IllegalArgumentException("Invalid ttl");
+
+		this.ttl = unit.toMillis(ttl);
+		return this;
+	}
+
+	/**
+	 * Set how long the DID which is not published or has no 'HiveVault' service is cached.
+	 *
+	 * @param ttl The time, 0 to disable the caching.
+	 * @param unit The unit of the time.
+	 * @return This resolver.
+	 */
+	public ProviderResolver setNegativeTtl(long ttl, TimeUnit unit) {
+		if (ttl < 0)
+			throw new IllegalArgumentException("Invalid negative ttl");
+
+		this.negativeTtl = unit.toMillis(ttl);
+		return this;
+	}
+
+	/**
+	 * Set how many DIDs are resolved concurrently by {@link #resolveAll(Collection)}.
+	 *
+	 * @param parallelism The count of the resolving threads.
+	 * @return This resolver.
+	 */
+	public ProviderResolver setParallelism(int parallelism) {
+		if (parallelism <= 0)
+			throw new IllegalArgumentException("Invalid parallelism");
+
+		synchronized (executor) {
+			// INFO: Keep the core size not bigger than the maximum size when changing.
+			if (parallelism > executor.getMaximumPoolSize()) {
+				executor.setMaximumPoolSize(parallelism);
+				executor.setCorePoolSize(parallelism);
+			} else {
+				executor.setCorePoolSize(parallelism);
+				executor.setMaximumPoolSize(parallelism);
+			}
+		}
+		return this;
+	}
+
+	public int getParallelism() {
+		return executor.getMaximumPoolSize();
+	}
+
+	public long getTtl() {
+		return ttl;
+	}
+
+	public long getNegativeTtl() {
+		return negativeTtl;
+	}
+
+	/**
+	 * Get the provider address of the DID from the cache, or resolve it from the chain.
+	 *
+	 * @param targetDid The DID.
+	 * @param isForce Whether forcing resolve from chain, the cached one is replaced.
+	 * @return The provider address.
+	 * @throws NetworkException Failed to resolve the DID.
+	 * @throws IllegalArgumentException The DID is malformed.
+	 * @throws DIDNotPublishedException The DID is not published.
+	 * @throws ProviderNotSetException No 'HiveVault' service in the DID document.
+	 */
+	public String resolve(String targetDid, boolean isForce) throws NetworkException {
+		if (targetDid == null)
+			throw new IllegalArgumentException("Missing input parameter for target Did");
+
+		if (!isForce) {
+			Entry entry = getCached(targetDid);
+			if (entry != null)
+				return entry.get();
+		}
+
+		missCount.incrementAndGet();
+		// INFO: The forced resolving does not take the result of the non-forced one.
+		return (isForce ? forcedResolvings : resolvings).execute(targetDid, () -> {
+			Entry entry = lookup(targetDid, isForce);
+			long time = entry.address != null ? ttl : negativeTtl;
+			if (time > 0)
+				entries.put(targetDid, entry.expireAfter(time));
+			else
+				entries.invalidate(targetDid);
+			return entry;
+		}).get();
+	}
+
+	/**
+	 * Get the provider addresses of the DIDs at once. The cached ones are returned directly,
+	 * 		others are resolved concurrently by the dedicated threads of this resolver.
+	 *
+	 * @param targetDids The DIDs, the duplicated ones are resolved once.
+	 * @return The provider addresses and the errors of the DIDs.
+	 */
+	public ProviderAddresses resolveAll(Collection<String> targetDids) {
+		if (targetDids == null || targetDids.contains(null))
+			throw new IllegalArgumentException("Missing input parameter for target Dids");
+
+		Map<String, String> addresses = new LinkedHashMap<>();
+		Map<String, Exception> errors = new LinkedHashMap<>();
+		Map<String, Future<String>> resolvings = new LinkedHashMap<>();
+
+		for (String targetDid : new LinkedHashSet<>(targetDids)) {
+			Entry entry = getCached(targetDid);
+			if (entry == null)
+				resolvings.put(targetDid, executor.submit(() -> resolve(targetDid, false)));
+			else if (entry.address != null)
+				addresses.put(targetDid, entry.address);
+			else
+				errors.put(targetDid, entry.newError());
+		}
+
+		for (Map.Entry<String, Future<String>> resolving : resolvings.entrySet()) {
+			try {
+				addresses.put(resolving.getKey(), resolving.getValue().get());
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				errors.put(resolving.getKey(), cause instanceof Exception ? (Exception) cause : e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				resolvings.values().forEach(f -> f.cancel(true));
+				errors.put(resolving.getKey(), e);
+			} catch (CancellationException e) {
+				errors.put(resolving.getKey(), e);
+			}
+		}
+		return new ProviderAddresses(addresses, errors);
+	}
+
+	/**
+	 * Remove the cached provider address of the DID, such as the vault of the DID is moved to other node.
+	 *
+	 * @param targetDid The DID.
+	 */
+	public void invalidate(String targetDid) {
+		entries.invalidate(targetDid);
+	}
+
+	/**
+	 * Remove all the cached provider addresses.
+	 */
+	public void clear() {
+		entries.invalidateAll();
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	private Entry getCached(String targetDid) {
+		Entry entry = entries.getIfPresent(targetDid);
+		if (entry == null || entry.isExpired())
+			return null;
+
+		hitCount.incrementAndGet();
+		return entry;
+	}
+
+	private static ThreadPoolExecutor createExecutor(int parallelism) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism,
+				60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "hive-did-resolver");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private Entry lookup(String targetDid, boolean isForce) throws NetworkException {
+		try {
+			return new Entry(chainLookup.lookup(targetDid, isForce), null, null);
+		} catch (DIDNotPublishedException e) {
+			return new Entry(null, DIDNotPublishedException::new, e.getMessage());
+		} catch (ProviderNotSetException e) {
+			return new Entry(null, ProviderNotSetException::new, e.getMessage());
+		}
+	}
+
+	private static String resolveFromChain(String targetDid, boolean isForce) throws NetworkException {
+		try {
+			DIDDocument doc = new DID(targetDid).resolve(isForce);
+			if (doc == null)
+				throw new DIDNotPublishedException(
+						String.format("The DID %s has not published onto sideChain", targetDid));
+
+			List<DIDDocument.Service> services = doc.selectServices((String) null, "HiveVault");
+			if (services == null || services.size() == 0)
+				throw new ProviderNotSetException(
+						String.format("No 'HiveVault' services declared on DID document %s", targetDid));
+
+			/*
+			 * Should we throw special exception when it has more than one end-point
+			 * of service "HiveVault";
+			 */
+			return services.get(0).getServiceEndpoint();
+
+		} catch (MalformedDIDException e) {
+			log.error("Malformed target did {} with error: {}", targetDid, e.getMessage());
+			throw new IllegalArgumentException("Malformed did string: " + targetDid);
+
+		} catch (DIDResolveException e) {
+			log.error("Resolving the target DID {} failed: {}", targetDid, e.getMessage());
+			throw new NetworkException("Resolving DID failed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * The provider address, or the error of the DID which is not published or has no provider.
+	 *
+	 * <p>The error is created for every caller, so the stack trace belongs to the caller
+	 * 		and the callers do not share the same instance.</p>
+	 */
+	private static class Entry {
+		private final String address;
+		private final Function<String, RuntimeException> errorFactory;
+		private final String errorMessage;
+		private long expiration;
+
+		Entry(String address, Function<String, RuntimeException> errorFactory, String errorMessage) {
+			this.address = address;
+			this.errorFactory = errorFactory;
+			this.errorMessage = errorMessage;
+		}
+
+		Entry expireAfter(long time) {
+			this.expiration = System.currentTimeMillis() + time;
+			return this;
+		}
+
+		boolean isExpired() {
+			return System.currentTimeMillis() >= expiration;
+		}
+
+		RuntimeException newError() {
+			return errorFactory.apply(errorMessage);
+		}
+
+		String get() {
+			if (errorFactory != null)
+				throw newError();
+			return address;
+		}
+	}
+}
@@ -68,7 +68,7 @@ public class ScriptRunner extends ServiceEndpoint implements ScriptingInvocation
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	/**
@@ -111,7 +111,7 @@ public class ScriptRunner extends ServiceEndpoint implements ScriptingInvocation
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -128,7 +128,7 @@ public class ScriptRunner extends ServiceEndpoint implements ScriptingInvocation
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -145,7 +145,7 @@ public class ScriptRunner extends ServiceEndpoint implements ScriptingInvocation
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -156,6 +156,6 @@ public class ScriptRunner extends ServiceEndpoint implements ScriptingInvocation
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 }
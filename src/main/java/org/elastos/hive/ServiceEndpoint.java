@@ -2,23 +2,20 @@ package org.elastos.hive;
 
 import java.io.File;
 import java.lang.ref.WeakReference;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
-import com.google.gson.Gson;
-import org.elastos.did.jwt.Claims;
-import org.elastos.did.jwt.JwtParserBuilder;
 import org.elastos.hive.connection.NodeRPCConnection;
 import org.elastos.hive.connection.NodeRPCException;
 import org.elastos.hive.connection.auth.AccessToken;
 import org.elastos.hive.connection.auth.BridgeHandler;
+import org.elastos.hive.connection.auth.ParsedToken;
 import org.elastos.hive.endpoint.AboutController;
 import org.elastos.hive.endpoint.NodeInfo;
 import org.elastos.hive.endpoint.NodeVersion;
 import org.elastos.hive.exception.HiveException;
+import org.elastos.hive.exception.NetworkException;
 import org.elastos.hive.exception.NotImplementedException;
 
 /**
@@ -64,25 +61,24 @@ public class ServiceEndpoint extends NodeRPCConnection {
 			if (!dataDir.endsWith(File.separator))
 				dataDir += File.separator;
 
-			this.dataStorage = new FileStorage(dataDir, context.getUserDid());
+			this.dataStorage = context.isJournalStorageEnabled()
+					? JournalStorage.open(dataDir, context.getUserDid())
+					: new FileStorage(dataDir, context.getUserDid());
 			this.accessToken = new AccessToken(this, dataStorage, new BridgeHandler() {
 				private WeakReference<ServiceEndpoint> weakref;
 
 				@Override
 				public void flush(String value) {
-					try {
-						ServiceEndpoint endpoint = weakref.get();
-
-						Claims claims = new JwtParserBuilder().setAllowedClockSkewSeconds(300).build().parseClaimsJws(value).getBody();
+					flush(ParsedToken.parse(value));
+				}
 
-						String propsStr = claims.get("props").toString();
-						@SuppressWarnings("unchecked")
-						Map<String, String> props = new Gson().fromJson(propsStr, HashMap.class);
-						endpoint.flushDids(claims.getAudience(), props.get("appDid"), claims.getIssuer());
-					} catch (Exception e) {
-						e.printStackTrace();
+				@Override
+				public void flush(ParsedToken token) {
+					ServiceEndpoint endpoint = weakref.get();
+					if (endpoint == null || !token.isVerified())
 						return;
-					}
+
+					endpoint.flushDids(token.getAudience(), token.getProp("appDid"), token.getIssuer());
 				}
 
 				BridgeHandler setTarget(ServiceEndpoint endpoint) {
@@ -111,6 +107,16 @@ public class ServiceEndpoint extends NodeRPCConnection {
 		return context;
 	}
 
+	/**
+	 * Get the executor which runs the asynchronous APIs of this service end-point.
+	 *
+	 * @return The executor of the application context, or the default one without the context.
+	 */
+	@Override
+	public Executor getExecutor() {
+		return context != null ? context.getExecutor() : AppContext.getDefaultExecutor();
+	}
+
 	/**
 	 * Get the end-point address of this service End-point.
 	 *
@@ -120,9 +126,10 @@ public class ServiceEndpoint extends NodeRPCConnection {
 	public String getProviderAddress() {
 		if (providerAddress == null) {
 			try {
-				providerAddress = context.getProviderAddress().get();
-			} catch (InterruptedException | ExecutionException  e) {
-				throw new RuntimeException("Failed to get the provider address from the user did.");
+				// INFO: Resolve on the calling thread, which may be a thread of the executor already.
+				providerAddress = context.resolveProviderAddress(context.getUserDid());
+			} catch (NetworkException | RuntimeException e) {
+				throw new RuntimeException("Failed to get the provider address from the user did.", e);
 			}
 		}
 		return providerAddress;
@@ -226,7 +233,7 @@ public class ServiceEndpoint extends NodeRPCConnection {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	/**
@@ -241,7 +248,7 @@ public class ServiceEndpoint extends NodeRPCConnection {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	/**
@@ -256,6 +263,6 @@ public class ServiceEndpoint extends NodeRPCConnection {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 }
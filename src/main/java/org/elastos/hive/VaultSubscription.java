@@ -57,7 +57,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -71,7 +71,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -82,7 +82,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -93,7 +93,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -104,7 +104,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -115,7 +115,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -131,7 +131,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -142,7 +142,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -153,7 +153,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -164,7 +164,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -175,7 +175,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -186,7 +186,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -197,7 +197,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -208,7 +208,7 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 
 	@Override
@@ -219,6 +219,6 @@ public class VaultSubscription extends ServiceEndpoint
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, getExecutor());
 	}
 }
@@ -9,9 +9,11 @@ import org.elastos.hive.exception.HiveException;
 import org.elastos.hive.service.PromotionService;
 
 class PromotionServiceRender implements PromotionService {
+	private ServiceEndpoint serviceEndpoint;
 	private PromotionController controller;
 
 	PromotionServiceRender(ServiceEndpoint serviceEndpoint) {
+		this.serviceEndpoint = serviceEndpoint;
 		controller = new PromotionController(serviceEndpoint);
 	}
 
@@ -23,6 +25,6 @@ class PromotionServiceRender implements PromotionService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 }
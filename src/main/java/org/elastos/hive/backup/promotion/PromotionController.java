@@ -1,5 +1,6 @@
 package org.elastos.hive.backup.promotion;
 
+import org.elastos.hive.connection.ErrorTranslator;
 import org.elastos.hive.connection.NodeRPCConnection;
 import org.elastos.hive.connection.NodeRPCException;
 import org.elastos.hive.exception.*;
@@ -8,6 +9,13 @@ import java.io.IOException;
 import java.security.InvalidParameterException;
 
 public class PromotionController {
+	private static final ErrorTranslator PROMOTE_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.ALREADY_EXISTS, VaultAlreadyExistsException::new)
+			.map(NodeRPCException.NOT_FOUND, NotFoundException::new)
+			.map(NodeRPCException.BAD_REQUEST, e -> new InvalidParameterException(e.getMessage()))
+			.map(NodeRPCException.INSUFFICIENT_STORAGE, InsufficientStorageException::new);
+
 	private PromotionAPI promotionAPI;
 
 	public PromotionController(NodeRPCConnection connection) {
@@ -18,20 +26,7 @@ public class PromotionController {
 		try {
 			promotionAPI.promoteToVault().execute();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.ALREADY_EXISTS:
-					throw new VaultAlreadyExistsException(e);
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.INSUFFICIENT_STORAGE:
-					throw new InsufficientStorageException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw PROMOTE_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -0,0 +1,103 @@
+package org.elastos.hive.connection;
+
+import org.elastos.hive.exception.HiveException;
+import org.elastos.hive.exception.NetworkException;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Run the calls of the node APIs by {@link Call#enqueue(Callback)}, no thread is blocked
+ * 		while the request is in-flight.
+ *
+ * <p>The requests are sent by the dispatcher of the shared HTTP client, so the count of the threads
+ * 		depends on the connections rather than the requests. The future is completed on the executor
+ * 		to keep the dependent actions of the caller off the dispatcher threads.
+ * 		The request is canceled if the future is canceled.</p>
+ *
+ * <pre>
+ *     return AsyncCalls.enqueue(filesAPI.getHash(path), HashInfo::getHash,
+ *             ErrorTranslator.COMMON, connection.getExecutor());
+ * </pre>
+ */
+public class AsyncCalls {
+	private AsyncCalls() {}
+
+	/**
+	 * Convert the body of the response to the result.
+	 *
+	 * @param <T> The type of the body.
+	 * @param <R> The type of the result.
+	 */
+	public interface ResultMapper<T, R> {
+		R apply(T body) throws HiveException, IOException;
+	}
+
+	/**
+	 * Send the request asynchronously.
+	 *
+	 * @param call The call of the node API.
+	 * @param resultMapper Convert the body of the response.
+	 * @param errors The table to translate the error of the node API.
+	 * @param executor The executor to complete the future.
+	 * @param <T> The type of the body.
+	 * @param <R> The type of the result.
+	 * @return The future of the result.
+	 */
+	public static <T, R> CompletableFuture<R> enqueue(Call<T> call, ResultMapper<T, R> resultMapper,
+													 ErrorTranslator errors, Executor executor) {
+		CompletableFuture<R> future = new CompletableFuture<>();
+		call.enqueue(new Callback<T>() {
+			@Override
+			public void onResponse(Call<T> call, Response<T> response) {
+				try {
+					// INFO: The error responses are thrown as NodeRPCException by the interceptors.
+					complete(future, resultMapper.apply(response.body()), null, executor);
+				} catch (NodeRPCException e) {
+					complete(future, null, errors.toException(e), executor);
+				} catch (IOException e) {
+					complete(future, null, new NetworkException(e), executor);
+				} catch (HiveException | RuntimeException e) {
+					complete(future, null, e, executor);
+				}
+			}
+
+			@Override
+			public void onFailure(Call<T> call, Throwable t) {
+				Throwable error = t;
+				if (t instanceof NodeRPCException)
+					error = errors.toException((NodeRPCException) t);
+				else if (t instanceof IOException)
+					error = new NetworkException((IOException) t);
+
+				complete(future, null, error, executor);
+			}
+		});
+		future.whenComplete((result, error) -> {
+			if (future.isCancelled())
+				call.cancel();
+		});
+		return future;
+	}
+
+	private static <R> void complete(CompletableFuture<R> future, R result, Throwable error, Executor executor) {
+		Runnable completion = () -> {
+			if (error != null)
+				future.completeExceptionally(error);
+			else
+				future.complete(result);
+		};
+
+		try {
+			executor.execute(completion);
+		} catch (RejectedExecutionException e) {
+			completion.run();
+		}
+	}
+}
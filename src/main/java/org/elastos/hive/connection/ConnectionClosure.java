@@ -1,43 +1,80 @@
 package org.elastos.hive.connection;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.ByteString;
 import org.elastos.hive.exception.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.net.HttpURLConnection;
-import java.security.InvalidParameterException;
 
 class ConnectionClosure {
 	private static final Logger log = LoggerFactory.getLogger(ConnectionClosure.class);
 
+	private StreamingUpload upload;
 	private HttpURLConnection connection;
 	private OutputStream output;
 	private boolean is_closed;
 	private Exception exception;
 	private String cid;
+	private HashVerifier verifier;
 
+	public ConnectionClosure(StreamingUpload upload) {
+		this.upload = upload;
+		this.is_closed = false;
+	}
+
+	/**
+	 * Create by the connection of the deprecated uploading, the local hash is not computed.
+	 *
+	 * @param connection Http Connection.
+	 * @param output The output stream which is closed when finishing.
+	 */
 	public ConnectionClosure(HttpURLConnection connection, OutputStream output) {
 		this.connection = connection;
 		this.output = output;
 		this.is_closed = false;
 	}
 
-	private JsonNode getResponseBody() throws IOException {
-		InputStream in = this.connection.getErrorStream();
-		if (in == null) return null;
-
-		BufferedReader reader = new BufferedReader(new InputStreamReader(in));
-		StringBuilder result = new StringBuilder();
-		String line = "";
-		while ((line = reader.readLine()) != null) {
-			line = line.trim();
-			if (line.length() > 0)
-				result.append(line);
+	private Response finishConnection() throws IOException {
+		this.output.close();
+
+		int code = this.connection.getResponseCode();
+		InputStream in = code >= 400 ? this.connection.getErrorStream() : this.connection.getInputStream();
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		if (in != null) {
+			try (InputStream input = in) {
+				byte[] buffer = new byte[4096];
+				int count;
+				while ((count = input.read(buffer)) != -1)
+					content.write(buffer, 0, count);
+			}
 		}
-		return new ObjectMapper().readTree(result.toString());
+
+		// INFO: Handle the response of the connection in the same way as the streaming upload.
+		String message = this.connection.getResponseMessage();
+		return new Response.Builder()
+				.request(new Request.Builder().url(this.connection.getURL()).build())
+				.protocol(Protocol.HTTP_1_1)
+				.code(code)
+				.message(message != null ? message : "")
+				.body(ResponseBody.create(null, content.toByteArray()))
+				.build();
+	}
+
+	private JsonNode getResponseBody(Response response) throws IOException {
+		ResponseBody body = response.body();
+		if (body == null) return null;
+
+		String content = body.string().trim();
+		if (content.isEmpty()) return null;
+
+		return JsonCodec.readTree(content);
 	}
 
 	/**
@@ -45,25 +82,15 @@ class ConnectionClosure {
 	 * @return If got an error.
 	 * @throws IOException
 	 */
-	private boolean handleErrorResponse() throws IOException {
-		int errorCode = this.connection.getResponseCode();
+	private boolean handleErrorResponse(Response response) throws IOException {
+		int errorCode = response.code();
 		if (errorCode >= 200 && errorCode < 300)
 			return false;
 
-		JsonNode result = this.getResponseBody();
-		if (result == null) return true;
-
-		switch (errorCode) {
-			case NodeRPCException.UNAUTHORIZED:
-				this.exception = new UnauthorizedException(result.toString());
-			case NodeRPCException.FORBIDDEN:
-				this.exception = new VaultForbiddenException(result.toString());
-			case NodeRPCException.BAD_REQUEST:
-				this.exception = new InvalidParameterException(result.toString());
-			case NodeRPCException.NOT_FOUND:
-				this.exception = new NotFoundException(result.toString());
-			default:
-				this.exception = new ServerUnknownException(result.toString());
+		try {
+			this.exception = ErrorTranslator.COMMON.translate(ErrorParser.parse(response));
+		} catch (RuntimeException e) {
+			this.exception = e;
 		}
 		return true;
 	}
@@ -71,25 +98,56 @@ class ConnectionClosure {
 	private void handleResponse() {
 		if (this.is_closed)
 			return;
-		try {
-			this.is_closed = true;
-			this.output.close();
 
-			if (this.handleErrorResponse())
+		this.is_closed = true;
+		try (Response response = this.upload != null ? this.upload.finish() : this.finishConnection()) {
+			if (this.handleErrorResponse(response))
 				return;
 
-			JsonNode result = this.getResponseBody();
+			JsonNode result = this.getResponseBody(response);
 			if (result != null && result.has("cid"))
 				// INFO: ConnectionClosure is also used for uploading file by script.
 				this.cid = result.get("cid").asText();
 		} catch (IOException e) {
 			log.error("Failed to handle the response of the connection: " + e.getMessage());
 			this.exception = e;
+			return;
+		}
+
+		// INFO: The deprecated uploading by the connection does not compute the local hash.
+		if (this.verifier != null && this.upload != null) {
+			try {
+				this.verifier.verify(this.getLocalHash());
+			} catch (HiveException | RuntimeException e) {
+				this.exception = e;
+			}
 		}
 	}
 
-	public void confirmClosed() {
+	public void setHashVerifier(HashVerifier verifier) {
+		this.verifier = verifier;
+	}
+
+	/**
+	 * Get the hex string of the SHA256 digest of the uploaded content.
+	 *
+	 * @return The digest, null if the uploading is not finished or the hash is not verified.
+	 */
+	public String getLocalHash() {
+		ByteString digest = this.upload != null ? this.upload.digest() : null;
+		return digest != null ? digest.hex() : null;
+	}
+
+	/**
+	 * Finish the uploading. Only the mismatch of the hash is thrown here,
+	 * 		the other errors are thrown by {@link #getCid()}.
+	 *
+	 * @throws IOException The hash of the uploaded content does not match the remote one.
+	 */
+	public void confirmClosed() throws IOException {
 		this.handleResponse();
+		if (this.exception instanceof HashMismatchException)
+			throw new IOException(this.exception.getMessage(), this.exception);
 	}
 
 	public String getCid() {
@@ -0,0 +1,21 @@
+package org.elastos.hive.connection;
+
+/**
+ * The mode to convert the request and response bodies of the node APIs.
+ *
+ * <pre>
+ * 		vault.setConverterMode(ConverterMode.JACKSON);
+ * </pre>
+ */
+public enum ConverterMode {
+	/**
+	 * Convert by Gson, the JsonNode values are bridged to Jackson.
+	 */
+	GSON,
+
+	/**
+	 * Convert by Jackson, the bodies are streamed to and from JsonNode and the model objects
+	 * 		directly with one shared ObjectMapper.
+	 */
+	JACKSON
+}
@@ -0,0 +1,95 @@
+package org.elastos.hive.connection;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parse the error response of the node API to {@link NodeRPCException}.
+ *
+ * <pre>
+ *     {"error": {"message": "...", "internal_code": 2}}
+ * </pre>
+ *
+ * <p>The body is read by the streaming parser of the shared factory, which is thread-safe,
+ * 		and only the bounded prefix is read, such as the HTML page of the gateway when the node is down.</p>
+ */
+class ErrorParser {
+	private static final Logger log = LoggerFactory.getLogger(ErrorParser.class);
+	private static final JsonFactory factory = new JsonFactory();
+	private static final long MAX_BODY_LEN = 4096;
+
+	private ErrorParser() {}
+
+	/**
+	 * Parse the error response, the response is closed.
+	 *
+	 * @param response The response which is not successful.
+	 * @return The error.
+	 */
+	static NodeRPCException parse(Response response) {
+		int httpCode = response.code();
+		try (ResponseBody body = response.body()) {
+			if (body == null)
+				return new NodeRPCException(httpCode, -1, "Empty body.");
+
+			BufferedSource source = body.source();
+			source.request(MAX_BODY_LEN);
+			byte[] bytes = source.readByteArray(Math.min(source.buffer().size(), MAX_BODY_LEN));
+			if (bytes.length == 0)
+				return new NodeRPCException(httpCode, -1, response.message());
+
+			NodeRPCException error = parse(httpCode, bytes);
+			if (error != null)
+				return error;
+
+			log.debug("No Json error body returned with http code {}", httpCode);
+			return new NodeRPCException(httpCode, -1, new String(bytes, StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			return new NodeRPCException(httpCode, -1, response.message());
+		}
+	}
+
+	private static NodeRPCException parse(int httpCode, byte[] bytes) {
+		try (JsonParser parser = factory.createParser(bytes)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				return null;
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				if (parser.nextToken() == JsonToken.START_OBJECT && "error".equals(name))
+					return parseError(httpCode, parser);
+				parser.skipChildren();
+			}
+			return null;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static NodeRPCException parseError(int httpCode, JsonParser parser) throws IOException {
+		String message = null;
+		int internalCode = -1;
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if ("message".equals(name) && token.isScalarValue())
+				message = parser.getValueAsString();
+			else if ("internal_code".equals(name) && token.isNumeric())
+				internalCode = parser.getIntValue();
+			else
+				parser.skipChildren();
+		}
+
+		return message != null ? new NodeRPCException(httpCode, internalCode, message) : null;
+	}
+}
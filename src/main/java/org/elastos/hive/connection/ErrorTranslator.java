@@ -0,0 +1,149 @@
+package org.elastos.hive.connection;
+
+import org.elastos.hive.exception.*;
+
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+
+/**
+ * Translate the error of the node API to the exception of the SDK by the table of the API.
+ *
+ * <p>The table maps the HTTP code, and optionally the internal code of the error body,
+ * 		to the factory of the exception. The unmapped errors are translated to {@link ServerUnknownException}.
+ * 		The tables are built once as the constants of the controllers and only read after that,
+ * 		so the translating is thread-safe and allocates nothing except the exception itself.</p>
+ *
+ * <pre>
+ *     private static final ErrorTranslator errors = new ErrorTranslator(ErrorTranslator.COMMON)
+ *             .map(NodeRPCException.NOT_FOUND, ScriptNotFoundException::new);
+ *
+ *     } catch (NodeRPCException e) {
+ *         throw errors.translate(e);
+ *     }
+ * </pre>
+ */
+public class ErrorTranslator {
+	private static final int MIN_CODE = 400;
+	private static final int MAX_CODE = 599;
+	private static final Factory UNKNOWN = ServerUnknownException::new;
+
+	/**
+	 * The errors of the most node APIs: unauthorized, forbidden, invalid parameter and not found.
+	 */
+	public static final ErrorTranslator COMMON = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.FORBIDDEN, VaultForbiddenException::new)
+			.map(NodeRPCException.BAD_REQUEST, e -> new InvalidParameterException(e.getMessage()))
+			.map(NodeRPCException.NOT_FOUND, NotFoundException::new);
+
+	/**
+	 * Create the exception of the SDK, which is either {@link HiveException} or {@link RuntimeException}.
+	 */
+	public interface Factory {
+		Exception create(NodeRPCException e);
+	}
+
+	private final Factory[] factories;
+	private final Factory[][] internalFactories;
+
+	/**
+	 * Create the empty table, all errors are translated to {@link ServerUnknownException}.
+	 */
+	public ErrorTranslator() {
+		factories = new Factory[MAX_CODE - MIN_CODE + 1];
+		internalFactories = new Factory[MAX_CODE - MIN_CODE + 1][];
+	}
+
+	/**
+	 * Create the table with the mappings of the base one, which can be overridden.
+	 *
+	 * @param base The base table.
+	 */
+	public ErrorTranslator(ErrorTranslator base) {
+		factories = base.factories.clone();
+		internalFactories = base.internalFactories.clone();
+	}
+
+	/**
+	 * Map the HTTP code to the exception.
+	 *
+	 * @param code The HTTP code, such as {@link NodeRPCException#NOT_FOUND}.
+	 * @param factory The factory of the exception.
+	 * @return This table.
+	 */
+	public ErrorTranslator map(int code, Factory factory) {
+		factories[indexOf(code)] = factory;
+		return this;
+	}
+
+	/**
+	 * Map the HTTP code with the internal code of the error body to the exception,
+	 * 		which takes precedence over the mapping of the HTTP code.
+	 *
+	 * @param code The HTTP code.
+	 * @param internalCode The internal code, such as {@link NodeRPCException#IC_BACKUP_IS_IN_PROCESSING}.
+	 * @param factory The factory of the exception.
+	 * @return This table.
+	 */
+	public ErrorTranslator map(int code, int internalCode, Factory factory) {
+		if (internalCode < 0)
+			throw new IllegalArgumentException("Invalid internal code");
+
+		int index = indexOf(code);
+		Factory[] internals = internalFactories[index];
+		// INFO: Copy on write, the table may be derived from a shared one.
+		internals = internals == null ? new Factory[internalCode + 1]
+				: Arrays.copyOf(internals, Math.max(internals.length, internalCode + 1));
+		internals[internalCode] = factory;
+		internalFactories[index] = internals;
+		return this;
+	}
+
+	/**
+	 * Translate the error of the node API.
+	 *
+	 * <p>The runtime exceptions of the SDK, such as {@link NotFoundException}, are thrown directly,
+	 * 		so the caller just throws the returned one.</p>
+	 *
+	 * @param e The error of the node API.
+	 * @return The exception of the SDK.
+	 */
+	public HiveException translate(NodeRPCException e) {
+		Exception error = toException(e);
+		if (error instanceof RuntimeException)
+			throw (RuntimeException) error;
+		return (HiveException) error;
+	}
+
+	/**
+	 * Translate the error of the node API without throwing, such as for collecting the errors of the parts.
+	 *
+	 * @param e The error of the node API.
+	 * @return The exception of the SDK, either {@link HiveException} or {@link RuntimeException}.
+	 */
+	public Exception toException(NodeRPCException e) {
+		Exception error = findFactory(e).create(e);
+		return error instanceof HiveException || error instanceof RuntimeException ? error : new ServerUnknownException(e);
+	}
+
+	private Factory findFactory(NodeRPCException e) {
+		int code = e.getCode();
+		if (code < MIN_CODE || code > MAX_CODE)
+			return UNKNOWN;
+
+		int index = code - MIN_CODE;
+		Factory[] internals = internalFactories[index];
+		int internalCode = e.getInternalCode();
+		if (internals != null && internalCode >= 0 && internalCode < internals.length && internals[internalCode] != null)
+			return internals[internalCode];
+
+		Factory factory = factories[index];
+		return factory != null ? factory : UNKNOWN;
+	}
+
+	private static int indexOf(int code) {
+		if (code < MIN_CODE || code > MAX_CODE)
+			throw new IllegalArgumentException("Invalid error code " + code);
+		return code - MIN_CODE;
+	}
+}
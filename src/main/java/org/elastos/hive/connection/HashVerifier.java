@@ -0,0 +1,16 @@
+package org.elastos.hive.connection;
+
+import org.elastos.hive.exception.HiveException;
+
+/**
+ * The verifier checks the digest of the transferred content with the remote file.
+ */
+public interface HashVerifier {
+	/**
+	 * Verify the local digest.
+	 *
+	 * @param localHash The hex string of the SHA256 digest of the transferred content.
+	 * @throws HiveException The digest does not match, or failed to get the remote one.
+	 */
+	void verify(String localHash) throws HiveException;
+}
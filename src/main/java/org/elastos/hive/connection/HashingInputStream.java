@@ -0,0 +1,112 @@
+package org.elastos.hive.connection;
+
+import org.elastos.hive.exception.HiveException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import okio.ByteString;
+
+/**
+ * The input stream computes the SHA256 digest of the content when it is read,
+ * 		and checks the digest by the verifier at the end of the stream.
+ *
+ * <p>The end of the stream throws {@link IOException} caused by the error of the verifier,
+ * 		such as {@link org.elastos.hive.exception.HashMismatchException} if the content does not match.</p>
+ */
+public class HashingInputStream extends FilterInputStream {
+	private final MessageDigest digest;
+	private final HashVerifier verifier;
+	private String localHash;
+
+	/**
+	 * Create by the input stream and the verifier.
+	 *
+	 * @param in The input stream.
+	 * @param verifier The verifier of the digest, null to skip the checking.
+	 */
+	public HashingInputStream(InputStream in, HashVerifier verifier) {
+		super(in);
+		this.verifier = verifier;
+		try {
+			this.digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		if (b == -1)
+			finish();
+		else
+			digest.update((byte) b);
+		return b;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int length) throws IOException {
+		int count = super.read(bytes, offset, length);
+		if (count == -1)
+			finish();
+		else
+			digest.update(bytes, offset, count);
+		return count;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		// INFO: The skipped bytes need be hashed too.
+		byte[] buffer = new byte[(int) Math.min(8192, Math.max(n, 0))];
+		long skipped = 0;
+		while (skipped < n) {
+			int count = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+			if (count == -1)
+				break;
+			skipped += count;
+		}
+		return skipped;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readLimit) {
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("Mark and reset are not supported");
+	}
+
+	/**
+	 * Get the hex string of the SHA256 digest of the content.
+	 *
+	 * @return The digest, null if the end of the stream is not reached.
+	 */
+	public String getLocalHash() {
+		return localHash;
+	}
+
+	private void finish() throws IOException {
+		if (localHash != null)
+			return;
+
+		localHash = ByteString.of(digest.digest()).hex();
+		if (verifier == null)
+			return;
+
+		try {
+			verifier.verify(localHash);
+		} catch (HiveException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package org.elastos.hive.connection;
+
+/**
+ * The configuration of the HTTP clients which are shared by the connections to the hive node.
+ *
+ * <pre>
+ * 		HttpClientRegistry.getInstance().setConfig(new HttpClientConfig()
+ * 				.setMaxIdleConnections(32)
+ * 				.setMaxRequestsPerHost(64));
+ * </pre>
+ */
+public class HttpClientConfig {
+	private static final int DEFAULT_TIMEOUT = 30;
+
+	private long connectTimeout = DEFAULT_TIMEOUT;
+	private long readTimeout = DEFAULT_TIMEOUT;
+	private long writeTimeout = DEFAULT_TIMEOUT;
+	private int maxIdleConnections = 5;
+	private long keepAliveDuration = 300;
+	private int maxRequests = 64;
+	private int maxRequestsPerHost = 16;
+	private int uploadChunkSize = 64 * 1024;
+	private long uploadTimeout = 60;
+	private int maxUploadRequests = 64;
+	private int partParallelism = 4;
+	private int batchParallelism = 4;
+	private boolean verifyHash = false;
+	private boolean nonBlocking = false;
+
+	/**
+	 * Set the connect timeout of the new connections.
+	 *
+	 * @param timeout The timeout in seconds.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setConnectTimeout(long timeout) {
+		this.connectTimeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Set the read timeout of the connections.
+	 *
+	 * @param timeout The timeout in seconds.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setReadTimeout(long timeout) {
+		this.readTimeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Set the write timeout of the connections.
+	 *
+	 * @param timeout The timeout in seconds.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setWriteTimeout(long timeout) {
+		this.writeTimeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Set the maximum number of the idle connections kept in the pool of one provider.
+	 *
+	 * @param maxIdleConnections The number of the idle connections.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setMaxIdleConnections(int maxIdleConnections) {
+		this.maxIdleConnections = maxIdleConnections;
+		return this;
+	}
+
+	/**
+	 * Set how long the idle connection is kept alive in the pool.
+	 *
+	 * @param keepAliveDuration The duration in seconds.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setKeepAliveDuration(long keepAliveDuration) {
+		this.keepAliveDuration = keepAliveDuration;
+		return this;
+	}
+
+	/**
+	 * Set the maximum number of the asynchronous requests executing concurrently.
+	 *
+	 * @param maxRequests The maximum number of the requests.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setMaxRequests(int maxRequests) {
+		this.maxRequests = maxRequests;
+		return this;
+	}
+
+	/**
+	 * Set the maximum number of the asynchronous requests executing concurrently to one provider.
+	 *
+	 * @param maxRequestsPerHost The maximum number of the requests.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setMaxRequestsPerHost(int maxRequestsPerHost) {
+		this.maxRequestsPerHost = maxRequestsPerHost;
+		return this;
+	}
+
+	/**
+	 * Set the size of the buffer between the uploading stream and the connection.
+	 * The writer of the uploading stream blocks when the buffer is full.
+	 *
+	 * @param uploadChunkSize The size in bytes.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setUploadChunkSize(int uploadChunkSize) {
+		this.uploadChunkSize = uploadChunkSize;
+		return this;
+	}
+
+	/**
+	 * Set the read and write timeout of the uploading connections.
+	 *
+	 * @param timeout The timeout in seconds.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setUploadTimeout(long timeout) {
+		this.uploadTimeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Set the maximum number of the streaming uploads executing concurrently.
+	 * The writer of the uploading stream over the limit blocks until one is closed or the upload timeout.
+	 *
+	 * @param maxUploadRequests The maximum number of the uploads.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setMaxUploadRequests(int maxUploadRequests) {
+		this.maxUploadRequests = maxUploadRequests;
+		return this;
+	}
+
+	/**
+	 * Set the maximum count of the parts which are transferred concurrently
+	 * 		when a file is transferred by byte ranges.
+	 *
+	 * @param partParallelism The count of the concurrent parts.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setPartParallelism(int partParallelism) {
+		this.partParallelism = partParallelism;
+		return this;
+	}
+
+	/**
+	 * Set the maximum count of the batches which are inserted concurrently
+	 * 		when the documents are inserted by batches.
+	 *
+	 * @param batchParallelism The count of the concurrent batches.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setBatchParallelism(int batchParallelism) {
+		this.batchParallelism = batchParallelism;
+		return this;
+	}
+
+	/**
+	 * Set whether the uploading and downloading streams of the files are verified
+	 * 		by the hash of the remote file, which costs one more request for each file. Disabled by default.
+	 *
+	 * @param verifyHash Verify the streams or not.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setVerifyHash(boolean verifyHash) {
+		this.verifyHash = verifyHash;
+		return this;
+	}
+
+	/**
+	 * Set whether the asynchronous APIs of the services send the requests without blocking a thread
+	 * 		for each request, the responses are handled by the callbacks of the HTTP client.
+	 *
+	 * <p>The requests over {@link #getMaxRequestsPerHost()} are queued by the HTTP client.</p>
+	 *
+	 * @param nonBlocking Non-blocking or not.
+	 * @return This configuration.
+	 */
+	public HttpClientConfig setNonBlocking(boolean nonBlocking) {
+		this.nonBlocking = nonBlocking;
+		return this;
+	}
+
+	public long getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public long getReadTimeout() {
+		return readTimeout;
+	}
+
+	public long getWriteTimeout() {
+		return writeTimeout;
+	}
+
+	public int getMaxIdleConnections() {
+		return maxIdleConnections;
+	}
+
+	public long getKeepAliveDuration() {
+		return keepAliveDuration;
+	}
+
+	public int getMaxRequests() {
+		return maxRequests;
+	}
+
+	public int getMaxRequestsPerHost() {
+		return maxRequestsPerHost;
+	}
+
+	public int getUploadChunkSize() {
+		return uploadChunkSize;
+	}
+
+	public long getUploadTimeout() {
+		return uploadTimeout;
+	}
+
+	public int getMaxUploadRequests() {
+		return maxUploadRequests;
+	}
+
+	public int getPartParallelism() {
+		return partParallelism;
+	}
+
+	public int getBatchParallelism() {
+		return batchParallelism;
+	}
+
+	public boolean isVerifyHash() {
+		return verifyHash;
+	}
+
+	public boolean isNonBlocking() {
+		return nonBlocking;
+	}
+}
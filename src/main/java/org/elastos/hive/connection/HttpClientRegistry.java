@@ -0,0 +1,159 @@
+package org.elastos.hive.connection;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The registry keeps the shared HTTP clients by the provider address.
+ *
+ * <p>Every provider address owns one client with one connection pool and one dispatcher.
+ * 		All services of the service end-points which target the same hive node share them,
+ * 		the per-service clients are derived by {@link OkHttpClient#newBuilder()}.</p>
+ *
+ * <pre>
+ * 		OkHttpClient client = HttpClientRegistry.getInstance().getClient(providerAddress)
+ * 				.newBuilder()
+ * 				.addInterceptor(interceptor)
+ * 				.build();
+ * </pre>
+ */
+public class HttpClientRegistry {
+	private static final HttpClientRegistry instance = new HttpClientRegistry();
+
+	private final Map<String, OkHttpClient> clients = new ConcurrentHashMap<>();
+	private volatile HttpClientConfig config = new HttpClientConfig();
+	private final Dispatcher uploadDispatcher = createUploadDispatcher(config);
+
+	/**
+	 * Get the registry which is shared by the whole SDK.
+	 *
+	 * @return The instance of the registry.
+	 */
+	public static HttpClientRegistry getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Get the current configuration of the clients.
+	 *
+	 * @return The configuration.
+	 */
+	public HttpClientConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Set the configuration of the clients.
+	 *
+	 * <p>The clients created before will be released, and the new ones will be created
+	 * 		with the configuration for the following requests.</p>
+	 *
+	 * @param config The configuration.
+	 */
+	public void setConfig(HttpClientConfig config) {
+		if (config == null)
+			throw new IllegalArgumentException("Empty http client configuration");
+
+		this.config = config;
+		this.uploadDispatcher.setMaxRequests(config.getMaxUploadRequests());
+		this.uploadDispatcher.setMaxRequestsPerHost(config.getMaxUploadRequests());
+		this.clear();
+	}
+
+	/**
+	 * Get the shared client of the provider address.
+	 *
+	 * @param providerAddress The address of the provider.
+	 * @return The shared client.
+	 */
+	public OkHttpClient getClient(String providerAddress) {
+		if (providerAddress == null)
+			throw new IllegalArgumentException("Empty provider address");
+
+		return clients.computeIfAbsent(getKey(providerAddress), key -> createClient(config));
+	}
+
+	/**
+	 * Get the dispatcher of the streaming uploads, which is limited by {@link HttpClientConfig#getMaxUploadRequests()}.
+	 *
+	 * <p>INFO: The streaming upload holds its request until the stream is closed,
+	 * 		so it must not take the slots of the shared dispatchers which the other requests wait for.
+	 * 		The threads of the dispatcher are bounded by the limit of the requests.</p>
+	 *
+	 * @return The dispatcher.
+	 */
+	Dispatcher getUploadDispatcher() {
+		return uploadDispatcher;
+	}
+
+	/**
+	 * Release the shared client of the provider address. The idle connections will be closed.
+	 *
+	 * @param providerAddress The address of the provider.
+	 */
+	public void release(String providerAddress) {
+		if (providerAddress == null)
+			return;
+
+		OkHttpClient client = clients.remove(getKey(providerAddress));
+		if (client != null)
+			client.connectionPool().evictAll();
+	}
+
+	/**
+	 * Release all shared clients.
+	 */
+	public void clear() {
+		for (String key : clients.keySet()) {
+			OkHttpClient client = clients.remove(key);
+			if (client != null)
+				client.connectionPool().evictAll();
+		}
+	}
+
+	private static OkHttpClient createClient(HttpClientConfig config) {
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequests(config.getMaxRequests());
+		dispatcher.setMaxRequestsPerHost(config.getMaxRequestsPerHost());
+
+		return new OkHttpClient.Builder()
+				.connectTimeout(config.getConnectTimeout(), TimeUnit.SECONDS)
+				.readTimeout(config.getReadTimeout(), TimeUnit.SECONDS)
+				.writeTimeout(config.getWriteTimeout(), TimeUnit.SECONDS)
+				.connectionPool(new ConnectionPool(config.getMaxIdleConnections(),
+						config.getKeepAliveDuration(), TimeUnit.SECONDS))
+				.dispatcher(dispatcher)
+				.socketFactory(new NoDelaySocketFactory())
+				.build();
+	}
+
+	private static Dispatcher createUploadDispatcher(HttpClientConfig config) {
+		AtomicInteger index = new AtomicInteger();
+		Dispatcher dispatcher = new Dispatcher(new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+				60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "hive-upload-" + index.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}));
+		dispatcher.setMaxRequests(config.getMaxUploadRequests());
+		dispatcher.setMaxRequestsPerHost(config.getMaxUploadRequests());
+		return dispatcher;
+	}
+
+	private static String getKey(String providerAddress) {
+		HttpUrl url = HttpUrl.parse(providerAddress);
+		if (url == null)
+			return providerAddress;
+
+		return url.scheme() + "://" + url.host() + ":" + url.port();
+	}
+}
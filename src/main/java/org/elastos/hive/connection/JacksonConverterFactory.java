@@ -0,0 +1,135 @@
+package org.elastos.hive.connection;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.google.gson.annotations.SerializedName;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The converter factory converts the bodies by Jackson in one pass.
+ *
+ * <p>The model classes are annotated by Gson, so the names of {@link SerializedName}
+ * 		are respected, and the fields are accessed directly as Gson does.</p>
+ *
+ * <p>The types which Jackson can not create, such as the ones without the default constructor,
+ * 		are not supported by this factory and left to the next one.</p>
+ */
+class JacksonConverterFactory extends Converter.Factory {
+	private static final MediaType MEDIA_TYPE = MediaType.parse("application/json; charset=UTF-8");
+
+	private final ObjectMapper mapper;
+
+	JacksonConverterFactory() {
+		this(createObjectMapper());
+	}
+
+	JacksonConverterFactory(ObjectMapper mapper) {
+		this.mapper = mapper;
+	}
+
+	@Override
+	public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+		JavaType javaType = mapper.getTypeFactory().constructType(type);
+		if (!isSupported(javaType.getRawClass()))
+			return null;
+
+		ObjectReader reader = mapper.readerFor(javaType);
+		return value -> {
+			try {
+				return reader.readValue(value.byteStream());
+			} finally {
+				value.close();
+			}
+		};
+	}
+
+	@Override
+	public Converter<?, RequestBody> requestBodyConverter(Type type,
+														  Annotation[] parameterAnnotations,
+														  Annotation[] methodAnnotations,
+														  Retrofit retrofit) {
+		ObjectWriter writer = mapper.writerFor(mapper.getTypeFactory().constructType(type));
+		return value -> {
+			Buffer buffer = new Buffer();
+			writer.writeValue(buffer.outputStream(), value);
+			return RequestBody.create(MEDIA_TYPE, buffer.readByteString());
+		};
+	}
+
+	private static boolean isSupported(Class<?> clazz) {
+		if (JsonNode.class.isAssignableFrom(clazz)
+				|| clazz.isPrimitive()
+				|| clazz == String.class
+				|| Number.class.isAssignableFrom(clazz)
+				|| clazz == Boolean.class
+				|| Collection.class.isAssignableFrom(clazz)
+				|| Map.class.isAssignableFrom(clazz))
+			return true;
+
+		if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers()))
+			return false;
+
+		if (clazz.isMemberClass() && !Modifier.isStatic(clazz.getModifiers()))
+			return false;
+
+		try {
+			clazz.getDeclaredConstructor();
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	static ObjectMapper createObjectMapper() {
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.setAnnotationIntrospector(new SerializedNameIntrospector());
+		mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+		mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+		mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+		return mapper;
+	}
+
+	/**
+	 * Take the name of the Gson annotation as the property name.
+	 */
+	private static class SerializedNameIntrospector extends JacksonAnnotationIntrospector {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public PropertyName findNameForSerialization(Annotated a) {
+			SerializedName name = _findAnnotation(a, SerializedName.class);
+			return name != null ? PropertyName.construct(name.value()) : super.findNameForSerialization(a);
+		}
+
+		@Override
+		public PropertyName findNameForDeserialization(Annotated a) {
+			SerializedName name = _findAnnotation(a, SerializedName.class);
+			return name != null ? PropertyName.construct(name.value()) : super.findNameForDeserialization(a);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package org.elastos.hive.connection;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * The shared JSON codec of the SDK with the default configuration of Jackson.
+ *
+ * <p>The mapper is created once and keeps the caches of the serializers and the deserializers,
+ * 		the readers are cached by the result types. All of them are thread-safe.
+ * 		The request and response bodies of the node APIs are converted by {@link JsonConverterFactory}
+ * 		with its own configuration, this one is for the values which are passed in or returned to the caller,
+ * 		such as the parameters and the results of the scripts.</p>
+ *
+ * <pre>
+ *     MyResult result = JsonCodec.readerFor(MyResult.class).readValue(json);
+ * </pre>
+ */
+public class JsonCodec {
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final ObjectReader treeReader = mapper.readerFor(JsonNode.class);
+	private static final ObjectWriter writer = mapper.writer();
+	private static final JavaType mapType = mapper.getTypeFactory()
+			.constructMapType(Map.class, String.class, Object.class);
+
+	private static final ClassValue<ObjectReader> readers = new ClassValue<ObjectReader>() {
+		@Override
+		protected ObjectReader computeValue(Class<?> type) {
+			return mapper.readerFor(type);
+		}
+	};
+
+	private JsonCodec() {}
+
+	/**
+	 * Get the shared mapper, which must not be configured by the caller.
+	 *
+	 * @return The mapper.
+	 */
+	public static ObjectMapper getMapper() {
+		return mapper;
+	}
+
+	/**
+	 * Get the cached reader of the type.
+	 *
+	 * @param type The type of the values.
+	 * @return The reader.
+	 */
+	public static ObjectReader readerFor(Class<?> type) {
+		return readers.get(type);
+	}
+
+	public static ObjectWriter getWriter() {
+		return writer;
+	}
+
+	public static JsonNode readTree(String json) throws IOException {
+		return treeReader.readTree(json);
+	}
+
+	public static JsonNode readTree(InputStream in) throws IOException {
+		return treeReader.readTree(in);
+	}
+
+	/**
+	 * Convert the JSON object to the map, the nested values are converted to the maps, lists and the scalars.
+	 *
+	 * @param node The JSON object.
+	 * @return The map, null if the node is null.
+	 */
+	public static Map<String, Object> toMap(JsonNode node) {
+		return mapper.convertValue(node, mapType);
+	}
+}
@@ -0,0 +1,87 @@
+package org.elastos.hive.connection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.gson.*;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.function.Supplier;
+
+/**
+ * The converter factory selects Gson or Jackson by the converter mode of the connection.
+ *
+ * <p>The mode is checked on every conversion, so it can be switched after the services are created.
+ * 		The underlying converter factories are shared by all connections.</p>
+ */
+class JsonConverterFactory extends Converter.Factory {
+	private static final Logger log = LoggerFactory.getLogger(JsonConverterFactory.class);
+
+	private static final Converter.Factory gsonFactory = createGsonConverterFactory();
+	private static final Converter.Factory jacksonFactory = new JacksonConverterFactory();
+
+	private final Supplier<ConverterMode> mode;
+
+	JsonConverterFactory(Supplier<ConverterMode> mode) {
+		this.mode = mode;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+		Converter<ResponseBody, Object> gson = (Converter<ResponseBody, Object>)
+				gsonFactory.responseBodyConverter(type, annotations, retrofit);
+		Converter<ResponseBody, Object> jackson = (Converter<ResponseBody, Object>)
+				jacksonFactory.responseBodyConverter(type, annotations, retrofit);
+		if (jackson == null)
+			return gson;
+
+		return value -> (mode.get() == ConverterMode.JACKSON ? jackson : gson).convert(value);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Converter<?, RequestBody> requestBodyConverter(Type type,
+														  Annotation[] parameterAnnotations,
+														  Annotation[] methodAnnotations,
+														  Retrofit retrofit) {
+		Converter<Object, RequestBody> gson = (Converter<Object, RequestBody>)
+				gsonFactory.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+		Converter<Object, RequestBody> jackson = (Converter<Object, RequestBody>)
+				jacksonFactory.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+		if (jackson == null)
+			return gson;
+
+		return value -> (mode.get() == ConverterMode.JACKSON ? jackson : gson).convert(value);
+	}
+
+	private static GsonConverterFactory createGsonConverterFactory() {
+		GsonBuilder builder = new GsonBuilder();
+		// Hook for convert JsonNode object.
+		builder.registerTypeAdapter(JsonNode.class, (JsonSerializer<JsonNode>) (src, typeOfSrc, context) -> {
+			if (src == null)
+				return new JsonPrimitive("");
+			return new JsonParser().parse(src.toString()).getAsJsonObject();
+		});
+		builder.registerTypeAdapter(JsonNode.class, (JsonDeserializer<JsonNode>) (src, typeOfSrc, context) -> {
+			if (src == null)
+				return null;
+			try {
+				return JsonCodec.readTree(src.toString());
+			} catch (IOException e) {
+				log.error("Failed to deserialize to JsonNode.");
+				return null;
+			}
+		});
+		return GsonConverterFactory.create(builder.create());
+	}
+}
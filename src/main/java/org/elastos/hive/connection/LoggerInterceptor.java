@@ -24,6 +24,7 @@ package org.elastos.hive.connection;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 
 import okhttp3.Interceptor;
@@ -33,49 +34,55 @@ import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 import okio.Buffer;
-import okio.BufferedSource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-
+/**
+ * Dump the requests and responses when the debug log is enabled.
+ *
+ * <p>Only the bounded prefix of the textual bodies is dumped. The binary or streaming bodies,
+ * 		such as the downloading and uploading files, are never buffered for logging.</p>
+ */
 class LoggerInterceptor implements Interceptor {
 	private static final Logger log = LoggerFactory.getLogger(LoggerInterceptor.class);
 	private static final int MAX_BODY_LEN = 2000;
+	private static final long MAX_REQUEST_BODY_LEN = 64 * 1024;
 
 	@Override
 	public Response intercept(Chain chain) throws IOException {
+		if (!log.isDebugEnabled()) {
+			Response response = chain.proceed(chain.request());
+			log.info("Response Code: {}", response.code());
+			return response;
+		}
+
 		return dumpResponse(chain.proceed(dumpRequest(chain.request())));
 	}
 
 	private Request dumpRequest(Request request) throws IOException {
 		RequestBody body = request.body();
-		String bodyInString = null;
 
 		log.debug("Request -> [{}] {}", request.method(), request.url().toString());
 		//log.debug("Request Header: {}", request.headers().toString());
 
-		if (body != null) {
-			Buffer buffer = new Buffer();
-			body.writeTo(buffer);
-
-			Charset charset = Charset.defaultCharset();
-			MediaType type  = body.contentType();
-
-			if (type != null) {
-				try {
-					charset = type.charset(charset);
-				} catch (UnsupportedCharsetException e) {
-					e.printStackTrace();
-				}
-			}
+		if (body == null) {
+			log.debug("Request Body: N/A");
+			return request;
+		}
 
-			if (charset != null)
-				bodyInString = buffer.readString(charset);
+		long length = body.contentLength();
+		if (!isPlainText(body.contentType()) || length < 0 || length > MAX_REQUEST_BODY_LEN) {
+			log.debug("Request Body: omitted ({} bytes, {})", length, body.contentType());
+			return request;
 		}
 
-		if (bodyInString != null && !bodyInString.equals(""))
-			log.debug("Request Body: {}", getOutputBodyContent(bodyInString));
+		Buffer buffer = new Buffer();
+		body.writeTo(buffer);
+
+		String bodyInString = buffer.readString(Math.min(buffer.size(), MAX_BODY_LEN), getCharset(body.contentType()));
+		if (!bodyInString.equals(""))
+			log.debug("Request Body: {}", bodyInString);
 		else
 			log.debug("Request Body: N/A");
 
@@ -84,41 +91,46 @@ class LoggerInterceptor implements Interceptor {
 
 	private Response dumpResponse(Response response) throws IOException {
 		ResponseBody body = response.body();
-		String bodyInString = null;
 
+		log.info("Response Code: {}", response.code());
 		//log.debug("Response Header: {}", response.headers().toString());
 
-		if (body != null) {
-			BufferedSource source = body.source();
-			source.request(Long.MAX_VALUE); // Buffer the entire body.
-			Buffer buffer = source.buffer();
-
-			Charset charset = Charset.defaultCharset();
-			MediaType type = body.contentType();
-
-			if (type != null) {
-				try {
-					charset = type.charset(charset);
-				} catch (UnsupportedCharsetException e) {
-					e.printStackTrace();
-				}
-			}
-			if (charset != null)
-				bodyInString = buffer.clone().readString(charset);
-
+		if (body == null) {
+			log.debug("Response Body: N/A");
+			return response;
 		}
 
-		log.info("Response Code: {}", response.code());
+		if (!isPlainText(body.contentType())) {
+			log.debug("Response Body: omitted ({} bytes, {})", body.contentLength(), body.contentType());
+			return response;
+		}
 
-		if (bodyInString != null && !bodyInString.equals(""))
-			log.debug("Response Body: {}", getOutputBodyContent(bodyInString));
+		// Only the prefix is peeked, the body is still streamed to the caller.
+		String bodyInString = response.peekBody(MAX_BODY_LEN).source().readString(getCharset(body.contentType()));
+		if (!bodyInString.equals(""))
+			log.debug("Response Body: {}", bodyInString);
 		else
 			log.debug("Response Body: N/A");
 
 		return response;
 	}
 
-	private String getOutputBodyContent(String body) {
-		return body.length() > MAX_BODY_LEN ? body.substring(0, MAX_BODY_LEN) : body;
+	private static boolean isPlainText(MediaType type) {
+		if (type == null)
+			return false;
+
+		String subtype = type.subtype().toLowerCase();
+		return "text".equalsIgnoreCase(type.type())
+				|| subtype.contains("json")
+				|| subtype.contains("xml")
+				|| subtype.contains("x-www-form-urlencoded");
+	}
+
+	private static Charset getCharset(MediaType type) {
+		try {
+			return type.charset(StandardCharsets.UTF_8);
+		} catch (UnsupportedCharsetException e) {
+			return StandardCharsets.UTF_8;
+		}
 	}
 }
@@ -0,0 +1,46 @@
+package org.elastos.hive.connection;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * The socket factory of the shared HTTP clients, which disables the Nagle's algorithm of the sockets.
+ *
+ * <p>INFO: The chunked request body is sent as the chunk header, the data and the trailing CRLF by separate writes,
+ * 		the small ones are held by the Nagle's algorithm until the hive node acknowledges the previous data.</p>
+ */
+class NoDelaySocketFactory extends SocketFactory {
+	private final SocketFactory delegate = SocketFactory.getDefault();
+
+	@Override
+	public Socket createSocket() throws IOException {
+		return noDelay(delegate.createSocket());
+	}
+
+	@Override
+	public Socket createSocket(String host, int port) throws IOException {
+		return noDelay(delegate.createSocket(host, port));
+	}
+
+	@Override
+	public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+		return noDelay(delegate.createSocket(host, port, localHost, localPort));
+	}
+
+	@Override
+	public Socket createSocket(InetAddress host, int port) throws IOException {
+		return noDelay(delegate.createSocket(host, port));
+	}
+
+	@Override
+	public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+		return noDelay(delegate.createSocket(address, port, localAddress, localPort));
+	}
+
+	private static Socket noDelay(Socket socket) throws IOException {
+		socket.setTcpNoDelay(true);
+		return socket;
+	}
+}
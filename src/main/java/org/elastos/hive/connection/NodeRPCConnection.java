@@ -22,24 +22,24 @@
 
 package org.elastos.hive.connection;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.*;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 
+import org.elastos.hive.AppContext;
 import org.elastos.hive.connection.auth.AccessToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -47,11 +47,10 @@ import java.util.concurrent.TimeUnit;
  *
  * <p>The access token management is required for the sub-class implicitly.</p>
  *
- * <p>For file uploading, direct connection need be created for uploading stream.</p>
+ * <p>For file uploading, the upload stream need be opened for the uploading content.</p>
  *
  * <pre>
- * 		HttpURLConnection urlConnection = connection.openConnection(FilesAPI.API_UPLOAD + path);
- * 		OutputStream outputStream = new UploadOutputStream(urlConnection, urlConnection.getOutputStream());
+ * 		UploadStream outputStream = connection.openUploadStream(FilesAPI.API_UPLOAD + path);
  * </pre>
  *
  * <p>For other APIs, please directly create the relating service.</p>
@@ -63,7 +62,12 @@ import java.util.concurrent.TimeUnit;
  */
 public abstract class NodeRPCConnection {
 	private static final Logger log = LoggerFactory.getLogger(NodeRPCConnection.class);
-	private static final int DEFAULT_TIMEOUT = 30;
+
+	// The services are cached by the service class, one map for each authorization mode.
+	private final Map<Class<?>, Object> authServices = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Object> anonymousServices = new ConcurrentHashMap<>();
+	private final Retrofit[] retrofits = new Retrofit[2];
+	private volatile ConverterMode converterMode = ConverterMode.GSON;
 
 	protected abstract String getProviderAddress();
 	protected abstract AccessToken getAccessToken();
@@ -74,7 +78,10 @@ public abstract class NodeRPCConnection {
 	 * @param urlPath Relative URL path of the node API.
 	 * @return The connection.
 	 * @throws IOException exception such as timeout, network error, etc.
+	 * @deprecated Use {@link #openUploadStream(String)} or {@link #openUploadWriter(String)} instead,
+	 * 		which upload by the shared connection pool.
 	 */
+	@Deprecated
 	public HttpURLConnection openConnection(String urlPath) throws IOException {
 		String url = getProviderAddress() + urlPath;
 		log.debug("open connection with URL: {} and method: PUT", url);
@@ -99,9 +106,58 @@ public abstract class NodeRPCConnection {
 		return urlConnection;
 	}
 
+	/**
+	 * Open the stream to upload the content to the hive node.
+	 *
+	 * <p>The content is sent by the shared client in chunks when writing,
+	 * 		and the response is handled when the stream is closed.</p>
+	 *
+	 * @param urlPath Relative URL path of the node API.
+	 * @return The upload stream.
+	 * @throws IOException exception such as failing to get the access token, etc.
+	 */
+	public UploadStream openUploadStream(String urlPath) throws IOException {
+		return new UploadStream(openUpload(urlPath));
+	}
+
+	/**
+	 * Open the writer to upload the content to the hive node.
+	 * Same as {@link NodeRPCConnection#openUploadStream(String)}.
+	 *
+	 * @param urlPath Relative URL path of the node API.
+	 * @return The upload writer.
+	 * @throws IOException exception such as failing to get the access token, etc.
+	 */
+	public UploadWriter openUploadWriter(String urlPath) throws IOException {
+		return new UploadWriter(openUpload(urlPath));
+	}
+
+	private StreamingUpload openUpload(String urlPath) throws IOException {
+		String url = getProviderAddress() + urlPath;
+		log.debug("open upload with URL: {} and method: PUT", url);
+
+		return new StreamingUpload(getUploadClient(), getHttpClientRegistry().getConfig(),
+				url, getAccessToken().fetch());
+	}
+
+	private OkHttpClient getUploadClient() {
+		HttpClientConfig config = getHttpClientRegistry().getConfig();
+		return getHttpClientRegistry()
+				.getClient(getProviderAddress())
+				.newBuilder()
+				.readTimeout(config.getUploadTimeout(), TimeUnit.SECONDS)
+				.writeTimeout(config.getUploadTimeout(), TimeUnit.SECONDS)
+				.dispatcher(getHttpClientRegistry().getUploadDispatcher())
+				.addInterceptor(new LoggerInterceptor())
+				.build();
+	}
+
 	/**
 	 * Create a retrofit API service which can map Java call to Http request.
 	 *
+	 * <p>The service is cached by the service class and the authorization mode,
+	 * 		so the controllers created on the same connection share the same service.</p>
+	 *
 	 * @param serviceClass The service class is the base class for the service.
 	 * @param requiredAuthorization If this service need authorization.
 	 *                              Normally if true, the service need token when send request.
@@ -109,19 +165,90 @@ public abstract class NodeRPCConnection {
 	 * @return The service instance based on the service class.
 	 */
 	public <S> S createService(Class<S> serviceClass, boolean requiredAuthorization) {
-		Interceptor requestInterceptor = requiredAuthorization ?
-					new PlainRequestInterceptor(getAccessToken()) :
-						new AuthRequestInterceptor();
+		Map<Class<?>, Object> cache = requiredAuthorization ? authServices : anonymousServices;
 
-		return createRetrofit(requestInterceptor).create(serviceClass);
+		Object service = cache.get(serviceClass);
+		if (service == null) {
+			// INFO: Never create the service inside the map computing, which may resolve the provider address.
+			service = cache.putIfAbsent(serviceClass, getRetrofit(requiredAuthorization).create(serviceClass));
+			if (service == null)
+				service = cache.get(serviceClass);
+		}
+		return serviceClass.cast(service);
 	}
 
-	private Retrofit createRetrofit(Interceptor requestInterceptor) {
-		OkHttpClient.Builder builder;
+	private Retrofit getRetrofit(boolean requiredAuthorization) {
+		synchronized (this.retrofits) {
+			Retrofit retrofit = this.retrofits[requiredAuthorization ? 1 : 0];
+			if (retrofit == null) {
+				Interceptor requestInterceptor = requiredAuthorization ?
+							new PlainRequestInterceptor(getAccessToken()) :
+								new AuthRequestInterceptor();
 
-		builder = new OkHttpClient.Builder()
-				.connectTimeout(DEFAULT_TIMEOUT, TimeUnit.SECONDS)
-				.readTimeout(DEFAULT_TIMEOUT, TimeUnit.SECONDS);
+				retrofit = createRetrofit(requestInterceptor);
+				this.retrofits[requiredAuthorization ? 1 : 0] = retrofit;
+			}
+			return retrofit;
+		}
+	}
+
+	/**
+	 * Get the mode to convert the request and response bodies.
+	 *
+	 * @return The converter mode.
+	 */
+	public ConverterMode getConverterMode() {
+		return converterMode;
+	}
+
+	/**
+	 * Set the mode to convert the request and response bodies of this connection.
+	 * It takes effect on the services created before too.
+	 *
+	 * @param mode The converter mode.
+	 */
+	public void setConverterMode(ConverterMode mode) {
+		if (mode == null)
+			throw new IllegalArgumentException("Empty converter mode");
+
+		this.converterMode = mode;
+	}
+
+	/**
+	 * Get the registry of the shared HTTP clients.
+	 *
+	 * <p>The services of the connection share the connection pool and the dispatcher
+	 * 		of the client which is registered by the provider address.</p>
+	 *
+	 * @return The registry.
+	 */
+	protected HttpClientRegistry getHttpClientRegistry() {
+		return HttpClientRegistry.getInstance();
+	}
+
+	/**
+	 * Get the executor which runs the asynchronous APIs and completes the non-blocking calls of this connection.
+	 *
+	 * @return The executor.
+	 */
+	public Executor getExecutor() {
+		return AppContext.getDefaultExecutor();
+	}
+
+	/**
+	 * Get the configuration of the HTTP client which is used by this connection.
+	 *
+	 * @return The configuration.
+	 */
+	public HttpClientConfig getHttpClientConfig() {
+		return getHttpClientRegistry().getConfig();
+	}
+
+	private Retrofit createRetrofit(Interceptor requestInterceptor) {
+		// Derived client shares the connection pool and the dispatcher of the registered one.
+		OkHttpClient.Builder builder = getHttpClientRegistry()
+				.getClient(getProviderAddress())
+				.newBuilder();
 
 		builder.interceptors().clear();
 		builder.interceptors().add(requestInterceptor);
@@ -129,41 +256,17 @@ public abstract class NodeRPCConnection {
 
 		return new Retrofit.Builder()
 				.baseUrl(getProviderAddress())
-				.addConverterFactory(getGsonConverterFactory())
+				.addConverterFactory(new JsonConverterFactory(this::getConverterMode))
 				.client(builder.build())
 				.build();
 	}
 
-	private GsonConverterFactory getGsonConverterFactory() {
-		GsonBuilder builder = new GsonBuilder();
-		// Hook for convert JsonNode object.
-		builder.registerTypeAdapter(JsonNode.class, (JsonSerializer<JsonNode>) (src, typeOfSrc, context) -> {
-			if (src == null)
-				return new JsonPrimitive("");
-			return new JsonParser().parse(src.toString()).getAsJsonObject();
-		});
-		builder.registerTypeAdapter(JsonNode.class, (JsonDeserializer<JsonNode>) (src, typeOfSrc, context) -> {
-			if (src == null)
-				return null;
-			String json = new Gson().toJson(src);
-			try {
-				return new ObjectMapper().readTree(json);
-			} catch (IOException e) {
-				log.error("Failed to deserialize to JsonNode.");
-				return null;
-			}
-		});
-		return GsonConverterFactory.create(builder.create());
-	}
-
 	private static class AuthRequestInterceptor implements Interceptor {
 		@Override
 		public Response intercept(Chain chain) throws IOException {
 			Response response = chain.proceed(chain.request());
-			if (!response.isSuccessful()) {
-				// TOOD:
-				throw new NodeRPCException(response.code(), -1, response.message());
-			}
+			if (!response.isSuccessful())
+				throw ErrorParser.parse(response);
 			return response;
 		}
 	}
@@ -177,42 +280,30 @@ public abstract class NodeRPCConnection {
 
 		@Override
 		public Response intercept(Chain chain) throws IOException {
-			Request request = chain.request()
-						.newBuilder()
-						.addHeader("Authorization", "token " + this.accessToken.fetch())
-						.build();
+			Response response = proceed(chain);
+			if (response.code() == NodeRPCException.UNAUTHORIZED) {
+				// INFO: The token is rejected by the hive node, sign in again and retry once.
+				log.debug("The access token is rejected, retry with a new one");
+				accessToken.invalidate();
+				response.close();
+				response = proceed(chain);
+			}
 
-			Response response = chain.proceed(request);
 			if (!response.isSuccessful()) {
-				int httpCode = response.code();
-				if (httpCode == 401)
+				if (response.code() == NodeRPCException.UNAUTHORIZED)
 					accessToken.invalidate();
 
-				if (response.body() == null)
-					throw new NodeRPCException(httpCode, -1, "Empty body.");
-
-				JsonNode error = getResponseErrorNode(response.body().string());
-				if (error == null)
-					throw new NodeRPCException(httpCode, -1, response.body().string());
-				else {
-					if (httpCode == NodeRPCException.UNAUTHORIZED) {
-						this.accessToken.invalidate();
-					}
-					throw new NodeRPCException(httpCode,
-							error.has("internal_code") ? error.get("internal_code").asInt() : -1,
-							error.get("message").asText());
-				}
+				throw ErrorParser.parse(response);
 			}
 			return response;
 		}
 
-		private JsonNode getResponseErrorNode(String body) {
-			try {
-				return new ObjectMapper().readTree(body).get("error");
-			} catch (JsonParseException | IOException e) {
-				log.error("No Json response body returned: " + body);
-				return null;
-			}
+		private Response proceed(Chain chain) throws IOException {
+			Request request = chain.request()
+						.newBuilder()
+						.header("Authorization", "token " + this.accessToken.fetch())
+						.build();
+			return chain.proceed(request);
 		}
 	}
 }
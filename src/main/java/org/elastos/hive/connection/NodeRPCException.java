@@ -14,6 +14,7 @@ public class NodeRPCException extends IOException {
 	public static final int UNAUTHORIZED			= 401;
 	public static final int FORBIDDEN	    		= 403;
 	public static final int NOT_FOUND	    		= 404;
+	public static final int RANGE_NOT_SATISFIABLE	= 416;
 	public static final int ALREADY_EXISTS  		= 455;
 	public static final int INSUFFICIENT_STORAGE  	= 507;
 
@@ -0,0 +1,81 @@
+package org.elastos.hive.connection;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The calls with the same key are merged into one in-flight call, the concurrent callers wait for
+ * 		the result of the in-flight one, and the callers with the different keys never block each other.
+ *
+ * <pre>
+ *     String token = flights.execute(storageKey, () -&gt; fetchFromRemote());
+ * </pre>
+ *
+ * @param <K> The type of the key.
+ * @param <V> The type of the result.
+ */
+public class SingleFlight<K, V> {
+	private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+	/**
+	 * The call which is executed once for the concurrent callers.
+	 *
+	 * @param <V> The type of the result.
+	 * @param <E> The type of the error.
+	 */
+	public interface Call<V, E extends Exception> {
+		V call() throws E;
+	}
+
+	/**
+	 * Execute the call if no in-flight call of the key, otherwise wait for the in-flight one.
+	 * The result is not kept after the in-flight call is done.
+	 *
+	 * @param key The key of the call.
+	 * @param call The call.
+	 * @param <E> The type of the error.
+	 * @return The result of the call.
+	 * @throws E The error of the call, the waiting callers get the same error.
+	 */
+	public <E extends Exception> V execute(K key, Call<V, E> call) throws E {
+		CompletableFuture<V> future = new CompletableFuture<>();
+		CompletableFuture<V> inflight = calls.putIfAbsent(key, future);
+		if (inflight != null)
+			return await(inflight);
+
+		try {
+			V value = call.call();
+			future.complete(value);
+			return value;
+		} catch (Throwable e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			calls.remove(key, future);
+		}
+	}
+
+	/**
+	 * Get the count of the in-flight calls.
+	 *
+	 * @return The count.
+	 */
+	public int size() {
+		return calls.size();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V, E extends Exception> V await(CompletableFuture<V> future) throws E {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw (E) cause;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package org.elastos.hive.connection;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.HashingSink;
+import okio.Okio;
+import okio.Pipe;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The uploading request which body is streamed from the writer through a pipe.
+ *
+ * <p>The request is executed by the upload dispatcher on its own thread, which reads the pipe
+ * 		and sends the content as chunks. The writer blocks when the pipe is full.</p>
+ */
+class StreamingUpload {
+	private static final MediaType MEDIA_TYPE = MediaType.parse("application/octet-stream");
+
+	private final Pipe pipe;
+	private final long chunkSize;
+	private final HashingSink hashing;
+	private final BufferedSink sink;
+	private ByteString digest;
+	private final CompletableFuture<Response> response = new CompletableFuture<>();
+
+	StreamingUpload(OkHttpClient client, HttpClientConfig config, String url, String token) {
+		this.chunkSize = config.getUploadChunkSize();
+		this.pipe = new Pipe(chunkSize);
+		this.pipe.sink().timeout().timeout(config.getUploadTimeout(), TimeUnit.SECONDS);
+		this.pipe.source().timeout().timeout(config.getUploadTimeout(), TimeUnit.SECONDS);
+		// INFO: The digest is computed when the content is written, and only when the hash is verified.
+		this.hashing = config.isVerifyHash() ? HashingSink.sha256(pipe.sink()) : null;
+		this.sink = Okio.buffer(hashing != null ? hashing : pipe.sink());
+
+		Request request = new Request.Builder()
+				.url(url)
+				.header("Authorization", "token " + token)
+				.put(new PipeBody())
+				.build();
+
+		client.newCall(request).enqueue(new Callback() {
+			@Override
+			public void onFailure(Call call, IOException e) {
+				// Unblock the writer which is waiting for the pipe.
+				closeSource();
+				response.completeExceptionally(e);
+			}
+
+			@Override
+			public void onResponse(Call call, Response r) {
+				closeSource();
+				response.complete(r);
+			}
+		});
+	}
+
+	/**
+	 * Get the sink to write the content of the uploading file.
+	 *
+	 * @return The sink.
+	 */
+	BufferedSink sink() {
+		return sink;
+	}
+
+	/**
+	 * Finish writing and wait for the response of the hive node.
+	 *
+	 * @return The response, the caller needs close it.
+	 * @throws IOException The error when sending the content or getting the response.
+	 */
+	Response finish() throws IOException {
+		try {
+			sink.close();
+		} catch (IOException e) {
+			// The real error is returned by the response when the request failed.
+			if (!response.isDone())
+				throw e;
+		}
+		if (hashing != null)
+			digest = hashing.hash();
+
+		try {
+			return response.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted when waiting for the uploading response.");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * Get the SHA256 digest of the written content.
+	 *
+	 * @return The digest, null if the writing is not finished or the hash is not verified.
+	 */
+	ByteString digest() {
+		return digest;
+	}
+
+	private void closeSource() {
+		try {
+			pipe.source().close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+
+	private class PipeBody extends RequestBody {
+		@Override
+		public MediaType contentType() {
+			return MEDIA_TYPE;
+		}
+
+		@Override
+		public long contentLength() {
+			return -1;
+		}
+
+		@Override
+		public void writeTo(BufferedSink out) throws IOException {
+			// INFO: Send the content by the chunks of the configured size other than by the segments of the pipe.
+			Buffer buffer = out.buffer();
+			while (pipe.source().read(buffer, chunkSize) != -1) {
+				if (buffer.size() >= chunkSize)
+					out.emit();
+			}
+			out.emit();
+		}
+	}
+}
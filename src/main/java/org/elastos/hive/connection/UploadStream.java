@@ -4,57 +4,87 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 
+import okio.BufferedSink;
+import okio.Okio;
+
 /**
  * The UploadOutputStream is for uploading file by the Http connection.
  */
 public class UploadStream extends OutputStream {
-	private HttpURLConnection connection;
-	private OutputStream outputStream;
+	private BufferedSink sink;
 	private ConnectionClosure connectionClosure;
 
+	/**
+	 * Create the upload output stream by the streaming upload request.
+	 *
+	 * @param upload The streaming upload request.
+	 */
+	UploadStream(StreamingUpload upload) {
+		this.sink = upload.sink();
+		this.connectionClosure = new ConnectionClosure(upload);
+	}
+
 	/**
 	 * Create the upload output stream by connection and relating output stream.
 	 *
 	 * @param connection Http Connection.
 	 * @param output The output stream for uploading file.
+	 * @deprecated Use {@link NodeRPCConnection#openUploadStream(String)} instead.
 	 */
+	@Deprecated
 	public UploadStream(HttpURLConnection connection, OutputStream output) {
-		this.connection = connection;
-		this.outputStream = output;
-		this.connectionClosure = new ConnectionClosure(connection, output);
+		this.sink = Okio.buffer(Okio.sink(output));
+		this.connectionClosure = new ConnectionClosure(connection, sink.outputStream());
 	}
 
 	@Override
 	public void write(int b) throws IOException {
-		outputStream.write(b);
+		sink.writeByte(b);
 	}
 
 	@Override
 	public void write(byte[] bytes) throws IOException {
-		outputStream.write(bytes);
+		sink.write(bytes);
 	}
 
 	@Override
 	public void write(byte[] bytes, int offset, int length) throws IOException {
-		outputStream.write(bytes, offset, length);
+		sink.write(bytes, offset, length);
 	}
 
 	public String getCid() {
 		return this.connectionClosure.getCid();
 	}
 
+	/**
+	 * Get the hex string of the SHA256 digest of the content, which is computed when writing
+	 * 		if {@link HttpClientConfig#isVerifyHash()}.
+	 *
+	 * @return The digest, null if not closed yet or the hash is not verified.
+	 */
+	public String getLocalHash() {
+		return this.connectionClosure.getLocalHash();
+	}
+
+	/**
+	 * Set the verifier to check the digest with the remote file when closing.
+	 * The close throws the error if the digest does not match.
+	 *
+	 * @param verifier The verifier.
+	 */
+	public void setHashVerifier(HashVerifier verifier) {
+		this.connectionClosure.setHashVerifier(verifier);
+	}
+
 	@Override
 	public void flush() throws IOException {
-		outputStream.flush();
+		sink.flush();
 	}
 
 	@Override
 	public void close() throws IOException {
 		// In order for uploads to complete successfully in chunk mode, we have to
 		// read the server response.
-		// This doesn't seem to behave identically on all devices. Some devices work
-		// without this. But some devices don't terminate the API call until the server
-		// response is read.
 		//
 		// This close() method on the output stream is the only location where we know
 		// user has finished writing his file.
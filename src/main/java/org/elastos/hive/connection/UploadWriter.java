@@ -9,12 +9,23 @@ import java.net.HttpURLConnection;
  * The UploadOutputStreamWriter is for uploading file by connection.
  */
 public class UploadWriter extends OutputStreamWriter {
-	private final HttpURLConnection connection;
 	private ConnectionClosure connectionClosure;
 
+	UploadWriter(StreamingUpload upload) {
+		super(upload.sink().outputStream());
+		this.connectionClosure = new ConnectionClosure(upload);
+	}
+
+	/**
+	 * Create the upload writer by connection and relating output stream.
+	 *
+	 * @param connection Http Connection.
+	 * @param output The output stream for uploading file.
+	 * @deprecated Use {@link NodeRPCConnection#openUploadWriter(String)} instead.
+	 */
+	@Deprecated
 	public UploadWriter(HttpURLConnection connection, OutputStream output) {
 		super(output);
-		this.connection = connection;
 		this.connectionClosure = new ConnectionClosure(connection, output);
 	}
 
@@ -22,8 +33,30 @@ public class UploadWriter extends OutputStreamWriter {
 		return this.connectionClosure.getCid();
 	}
 
+	/**
+	 * Get the hex string of the SHA256 digest of the content, which is computed when writing
+	 * 		if {@link HttpClientConfig#isVerifyHash()}.
+	 *
+	 * @return The digest, null if not closed yet or the hash is not verified.
+	 */
+	public String getLocalHash() {
+		return this.connectionClosure.getLocalHash();
+	}
+
+	/**
+	 * Set the verifier to check the digest with the remote file when closing.
+	 * The close throws the error if the digest does not match.
+	 *
+	 * @param verifier The verifier.
+	 */
+	public void setHashVerifier(HashVerifier verifier) {
+		this.connectionClosure.setHashVerifier(verifier);
+	}
+
 	@Override
 	public void close() throws IOException {
+		// Flush the encoded characters before finishing the upload.
+		super.flush();
 		this.connectionClosure.confirmClosed();
 	}
 }
@@ -1,24 +1,31 @@
 package org.elastos.hive.connection.auth;
 
-import org.elastos.did.jwt.*;
-import org.elastos.hive.AppContext;
 import org.elastos.hive.ServiceEndpoint;
 import org.elastos.hive.connection.NodeRPCException;
 import org.elastos.hive.DataStorage;
 import org.elastos.hive.connection.SHA256;
+import org.elastos.hive.connection.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ScheduledFuture;
+
 /**
  * The access token is made by hive node and represents the user DID and the application DID.
  *
  * <p>Some of the node APIs requires access token when handling request.</p>
+ *
+ * <p>The token is renewed in the background before it expires, see {@link TokenRefresher}.</p>
  */
 public class AccessToken implements CodeFetcher {
 	private static final Logger log = LoggerFactory.getLogger(AccessToken.class);
 
+	// INFO: Shared by the tokens of the same storage key, such as the endpoints of the same user and node.
+	private static final SingleFlight<String, ParsedToken> fetchings = new SingleFlight<>();
+
 	private ServiceEndpoint endpoint;
-	private String jwtCode;
+	private volatile ParsedToken current;
+	private ScheduledFuture<?> refreshing;
 	private CodeFetcher remoteFetcher;
 	private DataStorage storage;
 	private BridgeHandler bridge;
@@ -32,8 +39,12 @@ public class AccessToken implements CodeFetcher {
 	 * @param bridge The bridge handle is used for caller to do sth when getting the access token.
 	 */
 	public AccessToken(ServiceEndpoint endpoint, DataStorage storage, BridgeHandler bridge) {
+		this(endpoint, storage, bridge, new RemoteFetcher(endpoint));
+	}
+
+	AccessToken(ServiceEndpoint endpoint, DataStorage storage, BridgeHandler bridge, CodeFetcher remoteFetcher) {
 		this.endpoint = endpoint;
-		this.remoteFetcher = new RemoteFetcher(endpoint);
+		this.remoteFetcher = remoteFetcher;
 		this.storage = storage;
 		this.bridge = bridge;
 		this.storageKey = null;
@@ -49,53 +60,109 @@ public class AccessToken implements CodeFetcher {
 		return this.storageKey;
 	}
 
+	/**
+	 * Get the access token from the memory, the storage or the hive node in order.
+	 *
+	 * <p>The concurrent fetching of the same storage key waits for one in-flight fetching,
+	 * 		the fetching of the other keys are not blocked.</p>
+	 *
+	 * <p>The token in the memory is returned directly until it expires, even if it is being refreshed.</p>
+	 *
+	 * @return The access token.
+	 * @throws NodeRPCException The error comes from the hive node.
+	 */
 	@Override
 	public String fetch() throws NodeRPCException {
-		if (jwtCode != null)
-			return jwtCode;
-
-		synchronized (AppContext.class) {
-			jwtCode = restoreToken();
-			if (jwtCode != null) {
-				bridge.flush(jwtCode);
-				return jwtCode;
-			}
+		ParsedToken code = current;
+		if (code != null && !code.isExpired())
+			return code.getJwt();
+
+		code = fetchings.execute(this.getStorageKey(), () -> {
+			ParsedToken token = restoreToken();
+			return token != null ? token : this.fetchFromRemote();
+		});
+
+		// INFO: Also flush when the token is fetched by the other access token with the same key.
+		bridge.flush(code);
+		update(code);
+		return code.getJwt();
+	}
 
-			jwtCode = this.fetchFromRemote();
-			return jwtCode;
+	/**
+	 * Renew the token in the background, the current token is still used until the new one comes.
+	 */
+	void refresh() {
+		ParsedToken previous = current;
+		if (previous == null)
+			return;
+
+		try {
+			ParsedToken code = fetchings.execute(this.getStorageKey(), () -> {
+				// INFO: Maybe already renewed by the other access token with the same key.
+				ParsedToken token = restoreToken();
+				return token != null && token.getExpiration() > previous.getExpiration() ? token : this.fetchFromRemote();
+			});
+
+			bridge.flush(code);
+			if (current == previous)
+				update(code);
+		} catch (NodeRPCException | RuntimeException e) {
+			log.warn("Failed to refresh the access token: {}", e.getMessage());
+			synchronized (this) {
+				if (current == previous)
+					refreshing = TokenRefresher.retry(this, previous.getExpiration());
+			}
 		}
 	}
 
-	private String fetchFromRemote() throws NodeRPCException {
+	private ParsedToken fetchFromRemote() throws NodeRPCException {
 		String token = this.remoteFetcher.fetch();
-		bridge.flush(token);
 		saveToken(token);
-		return token;
+		// INFO: Already parsed when the auth controller checks it.
+		return parseToken(token);
 	}
 
 	@Override
 	public void invalidate() {
+		synchronized (this) {
+			cancelRefreshing();
+			current = null;
+		}
 		clearToken();
 	}
 
-	private String restoreToken() {
+	private synchronized void update(ParsedToken code) {
+		cancelRefreshing();
+		current = code;
+		// INFO: The token without the expiration is kept until the hive node rejects it.
+		if (code.getExpiration() > 0)
+			refreshing = TokenRefresher.schedule(this, code.getExpiration());
+	}
+
+	private void cancelRefreshing() {
+		if (refreshing != null) {
+			refreshing.cancel(false);
+			refreshing = null;
+		}
+	}
+
+	private ParsedToken restoreToken() {
 		String key = this.getStorageKey();
-		jwtCode = storage.loadAccessToken(key);
+		String token = storage.loadAccessToken(key);
+		if (token == null)
+			return null;
 
-		if (jwtCode != null && this.isExpired(jwtCode)) {
+		ParsedToken code = parseToken(token);
+		if (!code.isVerified() || code.getExpiration() <= 0 || code.isExpired()) {
 			storage.clearAccessToken(key);
+			return null;
 		}
 
-		return jwtCode;
+		return code;
 	}
 
-	private boolean isExpired(String jwtCode) {
-		try {
-			Claims claims = new JwtParserBuilder().setAllowedClockSkewSeconds(300).build().parseClaimsJws(jwtCode).getBody();
-			return System.currentTimeMillis() > (claims.getExpiration().getTime());
-		} catch (Exception e) {
-			return true;
-		}
+	ParsedToken parseToken(String jwtCode) {
+		return ParsedToken.parse(jwtCode);
 	}
 
 	private void saveToken(String jwtCode) {
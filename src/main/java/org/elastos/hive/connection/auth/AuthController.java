@@ -1,10 +1,8 @@
 package org.elastos.hive.connection.auth;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.elastos.did.DIDDocument;
-import org.elastos.did.jwt.Claims;
-import org.elastos.did.jwt.JwtParserBuilder;
+import org.elastos.hive.connection.ErrorTranslator;
+import org.elastos.hive.connection.JsonCodec;
 import org.elastos.hive.connection.NodeRPCConnection;
 import org.elastos.hive.connection.NodeRPCException;
 import org.elastos.hive.exception.*;
@@ -19,6 +17,9 @@ import java.util.HashMap;
  * The authorization controller is the wrapper class for accessing hive node auth module.
  */
 public class AuthController {
+	private static final ErrorTranslator AUTH_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.BAD_REQUEST, e -> new InvalidParameterException(e.getMessage()));
+
 	private static final Logger log = LoggerFactory.getLogger(AuthController.class);
 	private AuthAPI authAPI;
 	private String expectationAudience;
@@ -43,8 +44,8 @@ public class AuthController {
 	 */
 	public String signIn(DIDDocument appInstanceDidDoc) throws HiveException {
 		try {
-			Object document = new ObjectMapper()
-							.readValue(appInstanceDidDoc.toString(), HashMap.class);
+			Object document = JsonCodec.readerFor(HashMap.class)
+							.readValue(appInstanceDidDoc.toString());
 
 			ChallengeRequest challenge;
 			challenge = authAPI.signIn(new SignInRequest(document))
@@ -57,12 +58,7 @@ public class AuthController {
 			}
 			return challenge.getChallenge();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw AUTH_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -88,27 +84,14 @@ public class AuthController {
 			return token.getToken();
 
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw AUTH_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
 	}
 
 	private boolean checkValid(String jwtCode, String expectationDid) {
-		try {
-			Claims claims = new JwtParserBuilder().setAllowedClockSkewSeconds(300)
-					.build()
-					.parseClaimsJws(jwtCode)
-					.getBody();
-			return claims.getExpiration().getTime() > System.currentTimeMillis() &&
-					claims.getAudience().equals(expectationDid);
-		} catch (Exception e) {
-			return false;
-		}
+		// INFO: The parsed token is cached and reused when the access token is saved and flushed.
+		return jwtCode != null && ParsedToken.parse(jwtCode).isValid(expectationDid);
 	}
 }
@@ -15,6 +15,15 @@ public interface BridgeHandler {
 	 */
 	void flush(String value);
 
+	/**
+	 * Flush the access token which is already parsed.
+	 *
+	 * @param token The parsed access token.
+	 */
+	default void flush(ParsedToken token) {
+		flush(token.getJwt());
+	}
+
 	/**
 	 * The target is what the access token for.
 	 *
@@ -0,0 +1,160 @@
+package org.elastos.hive.connection.auth;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.Gson;
+import org.elastos.did.jwt.Claims;
+import org.elastos.did.jwt.JwtParserBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The claims of the access token which are parsed and verified once.
+ *
+ * <p>The parsed tokens are cached by the JWT string, so the validity checking of the auth controller,
+ * 		the DID flushing of the service end-point and the restoring from the data storage share one parsing.</p>
+ *
+ * <pre>
+ *     ParsedToken token = ParsedToken.parse(jwtCode);
+ *     if (token.isVerified() &amp;&amp; !token.isExpired())
+ *         return token.getJwt();
+ * </pre>
+ */
+public class ParsedToken {
+	private static final Logger log = LoggerFactory.getLogger(ParsedToken.class);
+	private static final int MAX_CACHED_TOKENS = 1024;
+	private static final long ALLOWED_CLOCK_SKEW = 300;
+
+	private static final Cache<String, ParsedToken> tokens = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHED_TOKENS)
+			.build();
+
+	private final String jwt;
+	private final boolean verified;
+	private final long expiration;
+	private final String audience;
+	private final String issuer;
+	private final Map<String, String> props;
+
+	ParsedToken(String jwt, long expiration, String audience, String issuer, Map<String, String> props) {
+		this.jwt = jwt;
+		this.verified = true;
+		this.expiration = expiration;
+		this.audience = audience;
+		this.issuer = issuer;
+		this.props = props != null ? Collections.unmodifiableMap(props) : Collections.emptyMap();
+	}
+
+	private ParsedToken(String jwt) {
+		this.jwt = jwt;
+		this.verified = false;
+		this.expiration = 0;
+		this.audience = null;
+		this.issuer = null;
+		this.props = Collections.emptyMap();
+	}
+
+	/**
+	 * Parse and verify the JWT string, or get the one which is parsed before.
+	 *
+	 * <p>The token which fails to be verified is not cached, because the failure may come from
+	 * 		the DID resolving.</p>
+	 *
+	 * @param jwtCode The JWT string.
+	 * @return The parsed token, see {@link #isVerified()} for the failure.
+	 */
+	public static ParsedToken parse(String jwtCode) {
+		if (jwtCode == null)
+			throw new IllegalArgumentException("Empty JWT code");
+
+		ParsedToken token = tokens.getIfPresent(jwtCode);
+		if (token != null)
+			return token;
+
+		try {
+			Claims claims = new JwtParserBuilder().setAllowedClockSkewSeconds(ALLOWED_CLOCK_SKEW)
+					.build()
+					.parseClaimsJws(jwtCode)
+					.getBody();
+
+			token = new ParsedToken(jwtCode,
+					claims.getExpiration() != null ? claims.getExpiration().getTime() : 0,
+					claims.getAudience(),
+					claims.getIssuer(),
+					parseProps(claims.get("props")));
+		} catch (Exception e) {
+			log.debug("Failed to parse the token: {}", e.getMessage());
+			return new ParsedToken(jwtCode);
+		}
+
+		tokens.put(jwtCode, token);
+		return token;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, String> parseProps(Object props) {
+		// INFO: The props claim is the JSON string, such as the application DID.
+		return props != null ? new Gson().fromJson(props.toString(), HashMap.class) : null;
+	}
+
+	public String getJwt() {
+		return jwt;
+	}
+
+	/**
+	 * Whether the signature of the token is verified and the claims are parsed.
+	 *
+	 * @return true if verified.
+	 */
+	public boolean isVerified() {
+		return verified;
+	}
+
+	/**
+	 * Get the expiration time.
+	 *
+	 * @return The expiration time in milliseconds, 0 if unknown.
+	 */
+	public long getExpiration() {
+		return expiration;
+	}
+
+	/**
+	 * Whether the token is expired now, the token without the expiration time never expires.
+	 *
+	 * @return true if expired.
+	 */
+	public boolean isExpired() {
+		return expiration > 0 && System.currentTimeMillis() >= expiration;
+	}
+
+	/**
+	 * Whether the token is verified, not expired and issued for the audience.
+	 *
+	 * @param expectedAudience The expected audience.
+	 * @return true if valid.
+	 */
+	public boolean isValid(String expectedAudience) {
+		return verified && expiration > System.currentTimeMillis() && audience != null && audience.equals(expectedAudience);
+	}
+
+	public String getAudience() {
+		return audience;
+	}
+
+	public String getIssuer() {
+		return issuer;
+	}
+
+	public Map<String, String> getProps() {
+		return props;
+	}
+
+	public String getProp(String name) {
+		return props.get(name);
+	}
+}
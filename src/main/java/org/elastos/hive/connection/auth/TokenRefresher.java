@@ -0,0 +1,73 @@
+package org.elastos.hive.connection.auth;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.*;
+
+/**
+ * The refresher renews the access tokens in the background before they expire,
+ * 		so the requests never wait for the signing in when the token is about to expire.
+ *
+ * <p>The refreshing time is randomized a bit, then the tokens obtained at the same time
+ * 		do not sign in to the hive node at the same time.</p>
+ */
+class TokenRefresher {
+	// INFO: Refresh ahead of the expiration at most by this time, and at most 1/5 of the lifetime.
+	static final long REFRESH_AHEAD = TimeUnit.MINUTES.toMillis(10);
+	static final long RETRY_DELAY = TimeUnit.SECONDS.toMillis(30);
+
+	private static final ScheduledExecutorService scheduler = createScheduler();
+
+	private TokenRefresher() {}
+
+	/**
+	 * Schedule the refreshing of the access token by the expiration time.
+	 *
+	 * @param token The access token.
+	 * @param expiration The expiration time of the current token in milliseconds.
+	 * @return The scheduled refreshing, null if the token expires too soon to refresh.
+	 */
+	static ScheduledFuture<?> schedule(AccessToken token, long expiration) {
+		long lifetime = expiration - System.currentTimeMillis();
+		if (lifetime <= 0)
+			return null;
+
+		long ahead = Math.min(REFRESH_AHEAD, lifetime / 5);
+		long jitter = ahead > 1 ? ThreadLocalRandom.current().nextLong(ahead / 2) : 0;
+		return scheduleAfter(token, lifetime - ahead - jitter);
+	}
+
+	/**
+	 * Schedule the refreshing again after the last one failed.
+	 *
+	 * @param token The access token.
+	 * @param expiration The expiration time of the current token in milliseconds.
+	 * @return The scheduled refreshing, null if the token expires before the retrying.
+	 */
+	static ScheduledFuture<?> retry(AccessToken token, long expiration) {
+		long delay = RETRY_DELAY + ThreadLocalRandom.current().nextLong(RETRY_DELAY / 2);
+		if (System.currentTimeMillis() + delay >= expiration)
+			return null;
+
+		return scheduleAfter(token, delay);
+	}
+
+	private static ScheduledFuture<?> scheduleAfter(AccessToken token, long delay) {
+		// INFO: Never keep the access token alive by the scheduled refreshing.
+		WeakReference<AccessToken> reference = new WeakReference<>(token);
+		return scheduler.schedule(() -> {
+			AccessToken current = reference.get();
+			if (current != null)
+				current.refresh();
+		}, Math.max(delay, 0), TimeUnit.MILLISECONDS);
+	}
+
+	private static ScheduledExecutorService createScheduler() {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2, runnable -> {
+			Thread thread = new Thread(runnable, "hive-token-refresher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
+	}
+}
@@ -0,0 +1,9 @@
+package org.elastos.hive.exception;
+
+public class HashMismatchException extends HiveException {
+	private static final long serialVersionUID = -2376091658032281674L;
+
+	public HashMismatchException(String message) {
+		super(message);
+	}
+}
@@ -1,11 +1,11 @@
 package org.elastos.hive.provider;
 
+import org.elastos.hive.connection.ErrorTranslator;
 import org.elastos.hive.connection.NodeRPCConnection;
 import org.elastos.hive.connection.NodeRPCException;
 import org.elastos.hive.exception.*;
 
 import java.io.IOException;
-import java.security.InvalidParameterException;
 import java.util.List;
 
 public class RunStatsController {
@@ -19,18 +19,7 @@ public class RunStatsController {
         try {
             return runStatsAPI.getVaults().execute().body().getVaults();
         } catch (NodeRPCException e) {
-            switch (e.getCode()) {
-                case NodeRPCException.UNAUTHORIZED:
-                    throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-                case NodeRPCException.BAD_REQUEST:
-                    throw new InvalidParameterException(e.getMessage());
-                case NodeRPCException.NOT_FOUND:
-                    throw new NotFoundException(e);
-                default:
-                    throw new ServerUnknownException(e);
-            }
+            throw ErrorTranslator.COMMON.translate(e);
         } catch (IOException e) {
             throw new NetworkException(e);
         }
@@ -40,18 +29,7 @@ public class RunStatsController {
         try {
             return runStatsAPI.getBackups().execute().body().getBackups();
         } catch (NodeRPCException e) {
-            switch (e.getCode()) {
-                case NodeRPCException.UNAUTHORIZED:
-                    throw new UnauthorizedException(e);
-                case NodeRPCException.FORBIDDEN:
-                    throw new VaultForbiddenException(e);
-                case NodeRPCException.BAD_REQUEST:
-                    throw new InvalidParameterException(e.getMessage());
-                case NodeRPCException.NOT_FOUND:
-                    throw new NotFoundException(e);
-                default:
-                    throw new ServerUnknownException(e);
-            }
+            throw ErrorTranslator.COMMON.translate(e);
         } catch (IOException e) {
             throw new NetworkException(e);
         }
@@ -61,18 +39,7 @@ public class RunStatsController {
         try {
             return runStatsAPI.getFilledOrders().execute().body().getPayments();
         } catch (NodeRPCException e) {
-            switch (e.getCode()) {
-                case NodeRPCException.UNAUTHORIZED:
-                    throw new UnauthorizedException(e);
-                case NodeRPCException.FORBIDDEN:
-                    throw new VaultForbiddenException(e);
-                case NodeRPCException.BAD_REQUEST:
-                    throw new InvalidParameterException(e.getMessage());
-                case NodeRPCException.NOT_FOUND:
-                    throw new NotFoundException(e);
-                default:
-                    throw new ServerUnknownException(e);
-            }
+            throw ErrorTranslator.COMMON.translate(e);
         } catch (IOException e) {
             throw new NetworkException(e);
         }
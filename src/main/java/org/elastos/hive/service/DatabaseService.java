@@ -4,8 +4,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 import org.elastos.hive.vault.database.*;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Mongo database service.
@@ -64,6 +66,26 @@ public interface DatabaseService {
 	 */
 	CompletableFuture<InsertResult> insertMany(String collection, List<JsonNode> docs, InsertOptions options);
 
+	/**
+	 * Insert the documents by batches, the batches are bounded by the count and the size of {@link BulkInsert}
+	 * and inserted concurrently.
+	 *
+	 * @param insert the inserting, the failed and pending batches of it are inserted again
+	 * @param docs optional, the documents to insert, which are read on the executor of the service
+	 * @return the inserting with the state of the batches and the inserted ids
+	 */
+	CompletableFuture<BulkInsert> insertMany(BulkInsert insert, Iterator<JsonNode> docs);
+
+	/**
+	 * Create the buffer which coalesces the inserting of the single documents into the batches,
+	 * for inserting many documents one by one.
+	 *
+	 * @param collection the collection name
+	 * @param options optional, the insert options of the batches, refer to {@link InsertOptions}
+	 * @return the buffer, refer to {@link InsertBuffer}, which should be closed after used
+	 */
+	InsertBuffer newInsertBuffer(String collection, InsertOptions options);
+
 
 	/**
 	 * Count documents.
@@ -99,6 +121,18 @@ public interface DatabaseService {
 	 */
 	CompletableFuture<List<JsonNode>> findMany(String collection, JsonNode query, FindOptions options);
 
+	/**
+	 * Find many documents and hand them to the handler one by one as soon as they are parsed,
+	 * the whole result is not kept in memory.
+	 *
+	 * @param collection the collection name
+	 * @param query optional, a JSON object specifying elements which must be present for a document to be included in the result set
+	 * @param options optional,refer to {@link FindOptions}
+	 * @param handler the handler of the documents, which runs on the executor of the service
+	 * @return the future which is completed after all documents are handled
+	 */
+	CompletableFuture<Void> findMany(String collection, JsonNode query, FindOptions options, Consumer<JsonNode> handler);
+
 	/**
 	 * Find many documents by many options.
 	 *
@@ -109,6 +143,30 @@ public interface DatabaseService {
 	 */
 	CompletableFuture<List<JsonNode>> query(String collection, JsonNode query, QueryOptions options);
 
+	/**
+	 * Find many documents by many options and hand them to the handler one by one as soon as they are parsed,
+	 * the whole result is not kept in memory.
+	 *
+	 * @param collection the collection name
+	 * @param query optional, a JSON object specifying elements which must be present for a document to be included in the result set
+	 * @param options optional,refer to {@link QueryOptions}
+	 * @param handler the handler of the documents, which runs on the executor of the service
+	 * @return the future which is completed after all documents are handled
+	 */
+	CompletableFuture<Void> query(String collection, JsonNode query, QueryOptions options, Consumer<JsonNode> handler);
+
+	/**
+	 * Find many documents by many options page by page, the size of the page is the 'batch_size' of the options.
+	 * The next page is prefetched while the caller handles the current one, so the memory is bounded
+	 * for the large result.
+	 *
+	 * @param collection the collection name
+	 * @param query optional, a JSON object specifying elements which must be present for a document to be included in the result set
+	 * @param options optional,refer to {@link QueryOptions}
+	 * @return the cursor of the documents, which should be closed if not iterated to the end
+	 */
+	DocumentCursor queryCursor(String collection, JsonNode query, QueryOptions options);
+
 	/**
 	 * Update an existing document in a given collection.
 	 *
@@ -151,4 +209,15 @@ public interface DatabaseService {
 	 * @return Delete result
 	 */
 	CompletableFuture<Void> deleteMany(String collection, JsonNode filter);
+
+	/**
+	 * Write the mixed operations of inserting, updating and deleting by the pipelined requests,
+	 * the consecutive insertings are sent by one request.
+	 *
+	 * @param collection the collection name
+	 * @param operations the operations, refer to {@link WriteOp}
+	 * @param ordered true to write in order and stop at the first failure, false to write concurrently
+	 * @return the results of the operations in order, the failures are reported by the results
+	 */
+	CompletableFuture<BulkWriteResult> bulkWrite(String collection, List<WriteOp> operations, boolean ordered);
 }
@@ -3,12 +3,16 @@ package org.elastos.hive.service;
 import org.elastos.hive.connection.UploadStream;
 import org.elastos.hive.connection.UploadWriter;
 import org.elastos.hive.vault.files.FileInfo;
+import org.elastos.hive.vault.files.MultipartUpload;
 
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -33,10 +37,42 @@ public interface FilesService {
 	CompletableFuture<UploadWriter> getUploadWriter(String path);
 	CompletableFuture<UploadWriter> getPublicUploadWriter(String path);
 
+	/**
+	 * Upload the local file by splitting it into the byte ranges, which are uploaded
+	 * concurrently as the parts of the remote file.
+	 *
+	 * <p>The result contains the state of every part. When some of the parts failed,
+	 * call {@link #uploadParts(MultipartUpload, Path, UploadProgress)} with the result
+	 * to upload the failed parts only.</p>
+	 *
+	 * @param path the path for the remote file
+	 * @param file the local file
+	 * @param partCount the count of the parts
+	 * @param progress the progress of the parts, can be null
+	 * @return the new CompletionStage, the result is the multipart uploading
+	 */
+	CompletableFuture<MultipartUpload> uploadParts(String path, Path file, int partCount, UploadProgress progress);
+
+	/**
+	 * Upload the pending parts of the multipart uploading, which are the parts not uploaded
+	 * yet or failed before.
+	 *
+	 * @param upload the multipart uploading
+	 * @param file the local file
+	 * @param progress the progress of the parts, can be null
+	 * @return the new CompletionStage, the result is the multipart uploading
+	 */
+	CompletableFuture<MultipartUpload> uploadParts(MultipartUpload upload, Path file, UploadProgress progress);
+	CompletableFuture<MultipartUpload> uploadParts(MultipartUpload upload, FileChannel channel, UploadProgress progress);
+
 	/**
 	 * Initiates a download sequence by returning a Reader or InputStream object that can
 	 * be used to read the download file in chunks.
 	 *
+	 * <p>The InputStream is a {@link org.elastos.hive.connection.HashingInputStream}, the SHA256
+	 * of the content is computed when reading and checked with the remote file at the end.
+	 * The uploading streams are checked in the same way when closing.</p>
+	 *
 	 * @param path the path for the remote file
 	 * @return the new CompletionStage, the result is the Reader or InputStream interface for
 	 *	  read the file content if success; null otherwise
@@ -44,6 +80,79 @@ public interface FilesService {
 	CompletableFuture<InputStream> getDownloadStream(String path);
 	CompletableFuture<Reader> getDownloadReader(String path);
 
+	/**
+	 * Returns the InputStream object to read the window of the download file.
+	 *
+	 * @param path the path for the remote file
+	 * @param offset the offset of the first byte to read
+	 * @param length the count of the bytes to read, -1 means to the end of the file
+	 * @return the new CompletionStage, the result is the InputStream interface for
+	 *	  read the window of the file content if success; null otherwise
+	 */
+	CompletableFuture<InputStream> getDownloadStream(String path, long offset, long length);
+
+	/**
+	 * Resume the interrupted download of the remote file, the content after the end of
+	 * the local file is downloaded and appended to the local file.
+	 *
+	 * @param path the path for the remote file
+	 * @param file the local file, it is created if not exists
+	 * @return the new CompletionStage, the result is the size of the local file after downloading
+	 */
+	CompletableFuture<Long> resumeDownload(String path, Path file);
+	CompletableFuture<Long> resumeDownload(String path, FileChannel channel);
+
+	/**
+	 * Download the remote file by N concurrent range requests, every range is written to
+	 * the local file at its own position.
+	 *
+	 * @param path the path for the remote file
+	 * @param file the local file, it is created if not exists
+	 * @param partCount the count of the ranges
+	 * @return the new CompletionStage, the result is the size of the file
+	 */
+	CompletableFuture<Long> downloadParts(String path, Path file, int partCount);
+	CompletableFuture<Long> downloadParts(String path, FileChannel channel, int partCount);
+
+	/**
+	 * Download the remote file to the local file, the content is moved to the file
+	 * without copying through the heap buffers of the caller.
+	 *
+	 * <p>The local file is verified by the SHA256 hash of the remote file, and deleted
+	 * if it does not match.</p>
+	 *
+	 * @param path the path for the remote file
+	 * @param file the local file, it is created or truncated
+	 * @return the new CompletionStage, the result is the size of the file
+	 */
+	CompletableFuture<Long> downloadTo(String path, Path file);
+
+	/**
+	 * Upload the local file to the remote file, the content is moved from the file
+	 * without copying through the heap buffers of the caller.
+	 *
+	 * <p>The remote file is verified by the SHA256 hash of the local file after uploading.</p>
+	 *
+	 * @param path the path for the remote file
+	 * @param file the local file
+	 * @return the new CompletionStage
+	 */
+	CompletableFuture<Void> uploadFrom(String path, Path file);
+	CompletableFuture<Void> uploadPublicFrom(String path, Path file);
+
+	/**
+	 * Returns the InputStream object to read the download file from the local file cache
+	 * of the application context.
+	 *
+	 * <p>The hash of the remote file is checked first. The cached file is served if the hash
+	 * matches, otherwise the file is downloaded to the cache and then served.</p>
+	 *
+	 * @param path the path for the remote file
+	 * @return the new CompletionStage, the result is the InputStream interface for
+	 *	  read the file content if success; null otherwise
+	 */
+	CompletableFuture<InputStream> getCachedDownloadStream(String path);
+
 	/**
 	 * Returns the list of all files in a given folder.
 	 *
@@ -0,0 +1,14 @@
+package org.elastos.hive.service;
+
+import org.elastos.hive.vault.files.UploadPart;
+
+public interface UploadProgress {
+	/**
+	 * Called on the uploading thread of the part when the bytes of the part are sent, and
+	 * 		when the state of the part is changed.
+	 *
+	 * @param part The uploading part.
+	 * @param uploaded The sent bytes of the part.
+	 */
+	void onProgress(UploadPart part, long uploaded);
+}
@@ -1,5 +1,6 @@
 package org.elastos.hive.subscription;
 
+import org.elastos.hive.connection.ErrorTranslator;
 import org.elastos.hive.connection.NodeRPCConnection;
 import org.elastos.hive.connection.NodeRPCException;
 import org.elastos.hive.exception.*;
@@ -11,6 +12,22 @@ import java.util.List;
  * The subscription controller is for subscribing the vault or the backup.
  */
 public class SubscriptionController {
+	private static final ErrorTranslator PLAN_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.NOT_FOUND, PricingPlanNotFoundException::new);
+	private static final ErrorTranslator VAULT_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.NOT_FOUND, VaultNotFoundException::new);
+	private static final ErrorTranslator BACKUP_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.NOT_FOUND, BackupNotFoundException::new);
+	private static final ErrorTranslator SUBSCRIBE_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.ALREADY_EXISTS, AlreadyExistsException::new);
+	private static final ErrorTranslator ACTIVATE_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.NOT_FOUND, NotFoundException::new);
+
 	private final SubscriptionAPI subscriptionAPI;
 
 	public SubscriptionController(NodeRPCConnection connection) {
@@ -30,14 +47,7 @@ public class SubscriptionController {
 					.body()
 					.getPricingPlanCollection();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.NOT_FOUND:
-					throw new PricingPlanNotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw PLAN_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -57,14 +67,7 @@ public class SubscriptionController {
 								.body()
 								.getPricingPlanCollection().get(0);
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-			case NodeRPCException.UNAUTHORIZED:
-				throw new UnauthorizedException(e);
-			case NodeRPCException.NOT_FOUND:
-				throw new PricingPlanNotFoundException(e);
-			default:
-				throw new ServerUnknownException(e);
-			}
+			throw PLAN_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e.getMessage());
 		}
@@ -80,14 +83,7 @@ public class SubscriptionController {
 		try {
 			return subscriptionAPI.getVaultInfo().execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-			case NodeRPCException.UNAUTHORIZED:
-				throw new UnauthorizedException(e);
-			case NodeRPCException.NOT_FOUND:
-				throw new VaultNotFoundException(e);
-			default:
-				throw new ServerUnknownException(e);
-			}
+			throw VAULT_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e.getMessage());
 		}
@@ -97,14 +93,7 @@ public class SubscriptionController {
 		try {
 			return subscriptionAPI.getVaultAppStats().execute().body().getApps();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.NOT_FOUND:
-					throw new VaultNotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw VAULT_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e.getMessage());
 		}
@@ -122,14 +111,7 @@ public class SubscriptionController {
 		try {
 			return subscriptionAPI.subscribeToVault().execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.ALREADY_EXISTS:
-					throw new AlreadyExistsException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw SUBSCRIBE_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -144,14 +126,7 @@ public class SubscriptionController {
 		try {
 			subscriptionAPI.activateVault().execute();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ACTIVATE_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -166,14 +141,7 @@ public class SubscriptionController {
 		try {
 			subscriptionAPI.deactivateVault().execute();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ACTIVATE_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -188,14 +156,7 @@ public class SubscriptionController {
 		try {
 			subscriptionAPI.unsubscribeVault(force).execute();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException();
-				case NodeRPCException.NOT_FOUND:
-					throw new VaultNotFoundException();
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw VAULT_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -214,14 +175,7 @@ public class SubscriptionController {
 					.body()
 					.getBackupPlans();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.NOT_FOUND:
-					throw new PricingPlanNotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw PLAN_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -239,14 +193,7 @@ public class SubscriptionController {
 			return subscriptionAPI.getPricePlans("backup", planName).execute()
 					.body().getBackupPlans().get(0);
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.NOT_FOUND:
-					throw new PricingPlanNotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw PLAN_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -262,14 +209,7 @@ public class SubscriptionController {
 		try {
 	   	 	return subscriptionAPI.getBackupInfo().execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-			case NodeRPCException.UNAUTHORIZED:
-				throw new UnauthorizedException(e);
-			case NodeRPCException.NOT_FOUND:
-				throw new BackupNotFoundException(e);
-			default:
-				throw new ServerUnknownException(e);
-			}
+			throw BACKUP_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -285,14 +225,7 @@ public class SubscriptionController {
 		try {
 			return subscriptionAPI.subscribeToBackup().execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.ALREADY_EXISTS:
-					throw new AlreadyExistsException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw SUBSCRIBE_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -307,14 +240,7 @@ public class SubscriptionController {
 		try {
 			subscriptionAPI.unsubscribeBackup().execute();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException();
-				case NodeRPCException.NOT_FOUND:
-					throw new BackupNotFoundException();
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw BACKUP_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -1,17 +1,21 @@
 package org.elastos.hive.subscription.payment;
 
+import org.elastos.hive.connection.ErrorTranslator;
 import org.elastos.hive.connection.NodeRPCConnection;
 import org.elastos.hive.connection.NodeRPCException;
 import org.elastos.hive.exception.*;
 
 import java.io.IOException;
-import java.security.InvalidParameterException;
 import java.util.List;
 
 /**
  * The payment controller is the wrapper class for accessing the payment module.
  */
 public class PaymentController {
+	private static final ErrorTranslator VERSION_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.FORBIDDEN, VaultForbiddenException::new);
+
 	private PaymentAPI paymentAPI;
 
 	public PaymentController(NodeRPCConnection connection) {
@@ -30,18 +34,7 @@ public class PaymentController {
 		try {
 			return paymentAPI.placeOrder(new CreateOrderParams(subscription, pricingName)).execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -58,18 +51,7 @@ public class PaymentController {
 		try {
 			return paymentAPI.settleOrder(Integer.toString(orderId)).execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -114,18 +96,7 @@ public class PaymentController {
 		try {
 			return paymentAPI.getOrders(subscription, orderId).execute().body().getOrders();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -157,18 +128,7 @@ public class PaymentController {
 		try {
 			return paymentAPI.getReceipts(orderId).execute().body().getReceipts();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -184,14 +144,7 @@ public class PaymentController {
 		try {
 			return paymentAPI.getVersion().execute().body().getVersion();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw VERSION_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -28,7 +28,7 @@ class BackupServiceRender implements BackupService {
 		this.credentialCode = new CredentialCode(serviceEndpoint, backupContext);
 		return CompletableFuture.runAsync(() -> {
 			return;
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	private void waitBackupRestoreEnd(BackupServiceProgress callback) {
@@ -56,14 +56,14 @@ class BackupServiceRender implements BackupService {
 			}
 
 			this.waitBackupRestoreEnd(callback);
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<Void> stopBackup() {
 		return CompletableFuture.runAsync(() -> {
 			throw new NotImplementedException();
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
@@ -76,14 +76,14 @@ class BackupServiceRender implements BackupService {
 			}
 
 			this.waitBackupRestoreEnd(callback);
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<Void> stopRestore() {
 		return CompletableFuture.runAsync(() -> {
 			throw new NotImplementedException();
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
@@ -94,6 +94,6 @@ class BackupServiceRender implements BackupService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 }
@@ -7,160 +7,267 @@ import org.elastos.hive.service.DatabaseService;
 import org.elastos.hive.vault.database.*;
 import org.elastos.hive.exception.HiveException;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 class DatabaseServiceRender implements DatabaseService {
+	private ServiceEndpoint serviceEndpoint;
 	DatabaseController controller;
 
 	public DatabaseServiceRender(ServiceEndpoint serviceEndpoint) {
+		this.serviceEndpoint = serviceEndpoint;
 		controller = new DatabaseController(serviceEndpoint);
 	}
 
 	@Override
 	public CompletableFuture<Void> createCollection(String name) {
+		if (isNonBlocking())
+			return controller.createCollectionAsync(name);
+
 		return CompletableFuture.runAsync(() -> {
 			try {
 				controller.createCollection(name);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<Void> deleteCollection(String name) {
+		if (isNonBlocking())
+			return controller.deleteCollectionAsync(name);
+
 		return CompletableFuture.runAsync(() -> {
 			try {
 				controller.deleteCollection(name);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<List<Collection>> getCollections() {
+		if (isNonBlocking())
+			return controller.getCollectionsAsync();
+
 		return CompletableFuture.supplyAsync(() -> {
 			try {
 				return controller.getCollections();
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<InsertResult> insertOne(String collection, JsonNode doc, InsertOptions options) {
+		if (isNonBlocking())
+			return controller.insertManyAsync(collection, Collections.singletonList(doc), options);
+
 		return CompletableFuture.supplyAsync(() -> {
 			try {
 				return controller.insertOne(collection, doc, options);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<InsertResult> insertMany(String collection, List<JsonNode> docs, InsertOptions options) {
+		if (isNonBlocking())
+			return controller.insertManyAsync(collection, docs, options);
+
 		return CompletableFuture.supplyAsync(() -> {
 			try {
 				return controller.insertMany(collection, docs, options);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<BulkInsert> insertMany(BulkInsert insert, Iterator<JsonNode> docs) {
+		// INFO: The batches are sent without blocking, the executor only reads the documents.
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return controller.insertMany(insert, docs);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public InsertBuffer newInsertBuffer(String collection, InsertOptions options) {
+		return controller.newInsertBuffer(collection, options);
 	}
 
 	@Override
 	public CompletableFuture<Long> countDocuments(String collection, JsonNode query, CountOptions options) {
+		if (isNonBlocking())
+			return controller.countDocumentsAsync(collection, query, options);
+
 		return CompletableFuture.supplyAsync(() -> {
 			try {
 				return controller.countDocuments(collection, query, options);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<JsonNode> findOne(String collection, JsonNode query, FindOptions options) {
+		if (isNonBlocking())
+			return controller.findAsync(collection, query, options)
+					.thenApply(docs -> docs != null && !docs.isEmpty() ? docs.get(0) : null);
+
 		return CompletableFuture.supplyAsync(() -> {
 			try {
 				return controller.findOne(collection, query, options);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
-
-
-
 	@Override
 	public CompletableFuture<List<JsonNode>> findMany(String collection, JsonNode query, FindOptions options) {
+		if (isNonBlocking())
+			return controller.findAsync(collection, query, options);
+
 		return CompletableFuture.supplyAsync(() -> {
 			try {
 				return controller.find(collection, query, options);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<List<JsonNode>> query(String collection, JsonNode query, QueryOptions options) {
+		if (isNonBlocking())
+			return controller.queryAsync(collection, query, options);
+
 		return CompletableFuture.supplyAsync(() -> {
 			try {
 				return controller.query(collection, query, options);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<Void> findMany(String collection, JsonNode query, FindOptions options,
+											Consumer<JsonNode> handler) {
+		// INFO: The body is read while the documents are handled, so it runs on the executor in both modes.
+		return CompletableFuture.runAsync(() -> {
+			try {
+				controller.find(collection, query, options, handler);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<Void> query(String collection, JsonNode query, QueryOptions options,
+										 Consumer<JsonNode> handler) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				controller.query(collection, query, options, handler);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public DocumentCursor queryCursor(String collection, JsonNode query, QueryOptions options) {
+		return controller.queryCursor(collection, query, options);
 	}
 
 	@Override
 	public CompletableFuture<UpdateResult> updateOne(String collection, JsonNode filter, JsonNode update, UpdateOptions options) {
+		if (isNonBlocking())
+			return controller.updateAsync(collection, false, filter, update, options);
+
 		return CompletableFuture.supplyAsync(() -> {
 			try {
 				return controller.updateOne(collection, filter, update, options);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<UpdateResult> updateMany(String collection, JsonNode filter, JsonNode update, UpdateOptions options) {
+		if (isNonBlocking())
+			return controller.updateAsync(collection, true, filter, update, options);
+
 		return CompletableFuture.supplyAsync(() -> {
 			try {
 				return controller.updateMany(collection, filter, update, options);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<Void> deleteOne(String collection, JsonNode filter) {
+		if (isNonBlocking())
+			return controller.deleteAsync(collection, false, filter, null);
+
 		return CompletableFuture.runAsync(() -> {
 			try {
 				controller.deleteOne(collection, filter, null);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<Void> deleteMany(String collection, JsonNode filter) {
+		if (isNonBlocking())
+			return controller.deleteAsync(collection, true, filter, null);
+
 		return CompletableFuture.runAsync(() -> {
 			try {
 				controller.deleteMany(collection, filter, null);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<BulkWriteResult> bulkWrite(String collection, List<WriteOp> operations, boolean ordered) {
+		if (isNonBlocking())
+			return controller.bulkWriteAsync(collection, operations, ordered);
+
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return controller.bulkWrite(collection, operations, ordered);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	private boolean isNonBlocking() {
+		return serviceEndpoint.getHttpClientConfig().isNonBlocking();
 	}
 }
@@ -5,19 +5,27 @@ import org.elastos.hive.connection.UploadStream;
 import org.elastos.hive.connection.UploadWriter;
 import org.elastos.hive.exception.HiveException;
 import org.elastos.hive.service.FilesService;
+import org.elastos.hive.service.UploadProgress;
 import org.elastos.hive.vault.files.FileInfo;
 import org.elastos.hive.vault.files.FilesController;
+import org.elastos.hive.vault.files.MultipartUpload;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
 class FilesServiceRender implements FilesService {
+	private ServiceEndpoint serviceEndpoint;
 	private FilesController controller;
 
 	public FilesServiceRender(ServiceEndpoint serviceEndpoint) {
+		this.serviceEndpoint = serviceEndpoint;
 		this.controller = new FilesController(serviceEndpoint);
 	}
 
@@ -41,7 +49,7 @@ class FilesServiceRender implements FilesService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
@@ -64,7 +72,49 @@ class FilesServiceRender implements FilesService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<MultipartUpload> uploadParts(String path, Path file, int partCount, UploadProgress progress) {
+		return CompletableFuture.supplyAsync(() -> {
+			if (path == null || file == null)
+				throw new IllegalArgumentException("Empty path parameter");
+
+			try {
+				return controller.uploadParts(new MultipartUpload(path, Files.size(file), partCount), file, progress);
+			} catch (HiveException | IOException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<MultipartUpload> uploadParts(MultipartUpload upload, Path file, UploadProgress progress) {
+		return CompletableFuture.supplyAsync(() -> {
+			if (upload == null || file == null)
+				throw new IllegalArgumentException("Empty upload or file parameter");
+
+			try {
+				return controller.uploadParts(upload, file, progress);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<MultipartUpload> uploadParts(MultipartUpload upload, FileChannel channel, UploadProgress progress) {
+		return CompletableFuture.supplyAsync(() -> {
+			if (upload == null || channel == null)
+				throw new IllegalArgumentException("Empty upload or channel parameter");
+
+			try {
+				return controller.uploadParts(upload, channel, progress);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
@@ -78,7 +128,7 @@ class FilesServiceRender implements FilesService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
@@ -92,11 +142,135 @@ class FilesServiceRender implements FilesService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<InputStream> getDownloadStream(String path, long offset, long length) {
+		return CompletableFuture.supplyAsync(() -> {
+			if (path == null)
+				throw new IllegalArgumentException("Empty path parameter");
+
+			try {
+				return controller.getDownloadStream(path, offset, length);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<Long> resumeDownload(String path, Path file) {
+		return CompletableFuture.supplyAsync(() -> {
+			if (path == null || file == null)
+				throw new IllegalArgumentException("Empty path or file parameter");
+
+			try {
+				return controller.resumeDownload(path, file);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<Long> resumeDownload(String path, FileChannel channel) {
+		return CompletableFuture.supplyAsync(() -> {
+			if (path == null || channel == null)
+				throw new IllegalArgumentException("Empty path or channel parameter");
+
+			try {
+				return controller.resumeDownload(path, channel);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<Long> downloadParts(String path, Path file, int partCount) {
+		return CompletableFuture.supplyAsync(() -> {
+			if (path == null || file == null)
+				throw new IllegalArgumentException("Empty path or file parameter");
+
+			try {
+				return controller.downloadParts(path, file, partCount);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<Long> downloadParts(String path, FileChannel channel, int partCount) {
+		return CompletableFuture.supplyAsync(() -> {
+			if (path == null || channel == null)
+				throw new IllegalArgumentException("Empty path or channel parameter");
+
+			try {
+				return controller.downloadParts(path, channel, partCount);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<Long> downloadTo(String path, Path file) {
+		return CompletableFuture.supplyAsync(() -> {
+			if (path == null || file == null)
+				throw new IllegalArgumentException("Empty path or file parameter");
+
+			try {
+				return controller.downloadTo(path, file);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<Void> uploadFrom(String path, Path file) {
+		return this.uploadFrom(path, file, false);
+	}
+
+	@Override
+	public CompletableFuture<Void> uploadPublicFrom(String path, Path file) {
+		return this.uploadFrom(path, file, true);
+	}
+
+	private CompletableFuture<Void> uploadFrom(String path, Path file, boolean isPublic) {
+		return CompletableFuture.runAsync(() -> {
+			if (path == null || file == null)
+				throw new IllegalArgumentException("Empty path or file parameter");
+
+			try {
+				controller.uploadFrom(path, file, isPublic);
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
+	}
+
+	@Override
+	public CompletableFuture<InputStream> getCachedDownloadStream(String path) {
+		return CompletableFuture.supplyAsync(() -> {
+			if (path == null)
+				throw new IllegalArgumentException("Empty path parameter");
+
+			try {
+				return controller.getCachedDownloadStream(path, serviceEndpoint.getAppContext().getFileCache());
+			} catch (HiveException | RuntimeException e) {
+				throw new CompletionException(e);
+			}
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<List<FileInfo>> list(String path) {
+		if (serviceEndpoint.getHttpClientConfig().isNonBlocking())
+			return path == null ? emptyPath() : controller.listChildrenAsync(path);
+
 		return CompletableFuture.supplyAsync(() -> {
 			if (path == null)
 				throw new IllegalArgumentException("Empty path parameter");
@@ -106,11 +280,14 @@ class FilesServiceRender implements FilesService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<FileInfo> stat(String path) {
+		if (serviceEndpoint.getHttpClientConfig().isNonBlocking())
+			return path == null ? emptyPath() : controller.getPropertyAsync(path);
+
 		return CompletableFuture.supplyAsync(() -> {
 			if (path == null)
 				throw new IllegalArgumentException("Empty path parameter");
@@ -120,11 +297,14 @@ class FilesServiceRender implements FilesService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<String> hash(String path) {
+		if (serviceEndpoint.getHttpClientConfig().isNonBlocking())
+			return path == null ? emptyPath() : controller.getHashAsync(path);
+
 		return CompletableFuture.supplyAsync(() -> {
 			if (path == null)
 				throw new IllegalArgumentException("Empty path parameter");
@@ -134,11 +314,14 @@ class FilesServiceRender implements FilesService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<Void> move(String source, String target) {
+		if (serviceEndpoint.getHttpClientConfig().isNonBlocking())
+			return source == null || target == null ? emptyPath() : controller.moveFileAsync(source, target);
+
 		return CompletableFuture.runAsync(() -> {
 			if (source == null || target == null)
 				throw new IllegalArgumentException("Empty path parameter");
@@ -148,11 +331,14 @@ class FilesServiceRender implements FilesService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<Void> copy(String source, String target) {
+		if (serviceEndpoint.getHttpClientConfig().isNonBlocking())
+			return source == null || target == null ? emptyPath() : controller.copyFileAsync(source, target);
+
 		return CompletableFuture.runAsync(() -> {
 			if (source == null || target == null)
 				throw new IllegalArgumentException("Empty path parameter");
@@ -162,11 +348,14 @@ class FilesServiceRender implements FilesService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
 	}
 
 	@Override
 	public CompletableFuture<Void> delete(String path) {
+		if (serviceEndpoint.getHttpClientConfig().isNonBlocking())
+			return path == null ? emptyPath() : controller.deleteAsync(path);
+
 		return CompletableFuture.runAsync(() -> {
 			if (path == null)
 				throw new IllegalArgumentException("Empty path parameter");
@@ -176,6 +365,12 @@ class FilesServiceRender implements FilesService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, serviceEndpoint.getExecutor());
+	}
+
+	private static <T> CompletableFuture<T> emptyPath() {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(new IllegalArgumentException("Empty path parameter"));
+		return future;
 	}
 }
@@ -60,7 +60,7 @@ class ScriptingServiceRender implements ScriptingService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, endpoint.getExecutor());
 	}
 
 	@Override
@@ -77,7 +77,7 @@ class ScriptingServiceRender implements ScriptingService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, endpoint.getExecutor());
 	}
 
 	@Override
@@ -88,7 +88,7 @@ class ScriptingServiceRender implements ScriptingService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, endpoint.getExecutor());
 	}
 
 	@Override
@@ -97,28 +97,21 @@ class ScriptingServiceRender implements ScriptingService {
 											String targetDid,
 											String targetAppDid,
 											Class<T> resultType) {
-		return CompletableFuture.supplyAsync(()-> {
-			if (name == null)
-				throw new IllegalArgumentException("Missing script name.");
-
-			if (params == null)
-				throw new IllegalArgumentException("Missing parameters to run the script");
-
-			if (targetDid == null)
-				throw new IllegalArgumentException("Missing target user DID");
+		if (endpoint.getHttpClientConfig().isNonBlocking())
+			return CompletableFuture.completedFuture(null).thenCompose(v -> {
+				checkCallParams(name, params, targetDid, targetAppDid, resultType);
+				return controller.callScriptAsync(name, params, targetDid, targetAppDid, resultType);
+			});
 
-			if (targetAppDid == null)
-				throw new IllegalArgumentException("Missing target application DID");
-
-			if (resultType == null)
-				throw new IllegalArgumentException("Missing result type");
+		return CompletableFuture.supplyAsync(()-> {
+			checkCallParams(name, params, targetDid, targetAppDid, resultType);
 
 			try {
 				return controller.callScript(name, params, targetDid, targetAppDid, resultType);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, endpoint.getExecutor());
 	}
 
 	public <T> CompletableFuture<T> callScriptUrl(String name,
@@ -126,28 +119,39 @@ class ScriptingServiceRender implements ScriptingService {
 											String targetDid,
 											String targetAppDid,
 											Class<T> resultType) {
+		if (endpoint.getHttpClientConfig().isNonBlocking())
+			return CompletableFuture.completedFuture(null).thenCompose(v -> {
+				checkCallParams(name, params, targetDid, targetAppDid, resultType);
+				return controller.callScriptUrlAsync(name, params, targetDid, targetAppDid, resultType);
+			});
+
 		return CompletableFuture.supplyAsync(()-> {
 			try {
-				if (name == null)
-					throw new IllegalArgumentException("Missing script name.");
-
-				if (params == null)
-					throw new IllegalArgumentException("Missing parameters to run the script");
-
-				if (targetDid == null)
-					throw new IllegalArgumentException("Missing target user DID");
-
-				if (targetAppDid == null)
-					throw new IllegalArgumentException("Missing target application DID");
-
-				if (resultType == null)
-					throw new IllegalArgumentException("Missing result type");
+				checkCallParams(name, params, targetDid, targetAppDid, resultType);
 
 				return controller.callScriptUrl(name, params, targetDid, targetAppDid, resultType);
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, endpoint.getExecutor());
+	}
+
+	private static void checkCallParams(String name, Object params, String targetDid,
+										String targetAppDid, Class<?> resultType) {
+		if (name == null)
+			throw new IllegalArgumentException("Missing script name.");
+
+		if (params == null)
+			throw new IllegalArgumentException("Missing parameters to run the script");
+
+		if (targetDid == null)
+			throw new IllegalArgumentException("Missing target user DID");
+
+		if (targetAppDid == null)
+			throw new IllegalArgumentException("Missing target application DID");
+
+		if (resultType == null)
+			throw new IllegalArgumentException("Missing result type");
 	}
 
 	@Override
@@ -164,7 +168,7 @@ class ScriptingServiceRender implements ScriptingService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, endpoint.getExecutor());
 	}
 
 	@Override
@@ -181,7 +185,7 @@ class ScriptingServiceRender implements ScriptingService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, endpoint.getExecutor());
 	}
 
 	@Override
@@ -192,6 +196,6 @@ class ScriptingServiceRender implements ScriptingService {
 			} catch (HiveException | RuntimeException e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, endpoint.getExecutor());
 	}
 }
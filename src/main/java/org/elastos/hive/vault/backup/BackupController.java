@@ -1,5 +1,6 @@
 package org.elastos.hive.vault.backup;
 
+import org.elastos.hive.connection.ErrorTranslator;
 import org.elastos.hive.connection.NodeRPCConnection;
 import org.elastos.hive.connection.NodeRPCException;
 import org.elastos.hive.exception.*;
@@ -11,6 +12,17 @@ import java.security.InvalidParameterException;
  * The backup controller is the wrapper class to access the backup module of the hive node.
  */
 public class BackupController {
+	private static final ErrorTranslator BACKUP_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.FORBIDDEN, VaultForbiddenException::new)
+			.map(NodeRPCException.BAD_REQUEST, e -> new InvalidParameterException(e.getMessage()))
+			.map(NodeRPCException.BAD_REQUEST, NodeRPCException.IC_BACKUP_IS_IN_PROCESSING, BackupIsInProcessingException::new)
+			.map(NodeRPCException.INSUFFICIENT_STORAGE, InsufficientStorageException::new);
+	private static final ErrorTranslator STATE_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.FORBIDDEN, VaultForbiddenException::new)
+			.map(NodeRPCException.NOT_FOUND, NotFoundException::new);
+
 	private BackupAPI backupAPI;
 
 	/**
@@ -32,21 +44,7 @@ public class BackupController {
 		try {
 			backupAPI.saveToNode(new RequestParams(credential)).execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					if (e.getInternalCode() == NodeRPCException.IC_BACKUP_IS_IN_PROCESSING)
-						throw new BackupIsInProcessingException(e);
-					else
-						throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.INSUFFICIENT_STORAGE:
-					throw new InsufficientStorageException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw BACKUP_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -62,21 +60,7 @@ public class BackupController {
 		try {
 			backupAPI.restoreFromNode(new RequestParams(credential)).execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					if (e.getInternalCode() == NodeRPCException.IC_BACKUP_IS_IN_PROCESSING)
-						throw new BackupIsInProcessingException(e);
-					else
-						throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.INSUFFICIENT_STORAGE:
-					throw new InsufficientStorageException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw BACKUP_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -92,16 +76,7 @@ public class BackupController {
 		try {
 			return backupAPI.getState().execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw STATE_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -22,6 +22,8 @@ public class CredentialCode {
 	private ServiceEndpoint endpoint;
 	private String targetServiceDid;
 	private String jwtCode;
+	// The expiration time of the credential which is parsed once, 0 if unknown.
+	private long expiration;
 	private CodeFetcher remoteResolver;
 	private DataStorage storage;
 	private String storageKay;
@@ -58,7 +60,7 @@ public class CredentialCode {
 	 * @throws HiveException The error comes from the hive node.
 	 */
 	public String getToken() throws HiveException {
-		if (jwtCode != null)
+		if (jwtCode != null && !isExpired())
 			return jwtCode;
 
 		if (this.endpoint.getServiceInstanceDid() == null) {
@@ -78,6 +80,7 @@ public class CredentialCode {
 			}
 
 			if (jwtCode != null) {
+				expiration = getExpiration(jwtCode);
 				saveToken(jwtCode);
 			}
 		}
@@ -87,18 +90,27 @@ public class CredentialCode {
 	private String restoreToken() {
 		String key = this.getStorageKey();
 		String cred = storage.loadBackupCredential(key);
-		if (cred != null && this.isExpired(cred)) {
+		if (cred == null)
+			return null;
+
+		expiration = getExpiration(cred);
+		if (expiration <= 0 || this.isExpired()) {
 			storage.clearBackupCredential(key);
+			return null;
 		}
 		return cred;
 	}
 
-	private boolean isExpired(String credentialStr) {
+	private boolean isExpired() {
+		return expiration > 0 && System.currentTimeMillis() > expiration;
+	}
+
+	private static long getExpiration(String credentialStr) {
 		try {
 			VerifiableCredential c = VerifiableCredential.parse(credentialStr);
-			return System.currentTimeMillis() > (c.getExpirationDate().getTime());
+			return c.getExpirationDate() != null ? c.getExpirationDate().getTime() : 0;
 		} catch (MalformedCredentialException e) {
-			return true;
+			return 0;
 		}
 	}
 
@@ -0,0 +1,138 @@
+package org.elastos.hive.vault.database;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The inserting of the documents which are split into the batches by the count and the size,
+ * 		the batches are inserted concurrently by the requests of the insert API.
+ *
+ * <p>The failed batches are kept on this object and can be inserted again by the same object.
+ * 		The batches are inserted one by one if the 'ordered' option is set,
+ * 		and the inserting stops at the first failed batch.</p>
+ *
+ * <pre>
+ *     BulkInsert insert = databaseService.insertMany(new BulkInsert("works", null), documents).get();
+ *     while (!insert.isCompleted())
+ *         insert = databaseService.insertMany(insert, documents).get();
+ * </pre>
+ */
+public class BulkInsert {
+	private static final int DEFAULT_MAX_BATCH_COUNT = 1000;
+	private static final long DEFAULT_MAX_BATCH_BYTES = 4 * 1024 * 1024;
+
+	private final String collectionName;
+	private final InsertOptions options;
+	private final List<InsertBatch> batches = new ArrayList<>();
+	private int maxBatchCount = DEFAULT_MAX_BATCH_COUNT;
+	private long maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+
+	/**
+	 * Create the inserting of the documents.
+	 *
+	 * @param collectionName The name of the collection.
+	 * @param options The insert options of all batches.
+	 */
+	public BulkInsert(String collectionName, InsertOptions options) {
+		if (collectionName == null)
+			throw new IllegalArgumentException("Empty collection name");
+
+		this.collectionName = collectionName;
+		this.options = options;
+	}
+
+	/**
+	 * Set the maximum count of the documents in one batch.
+	 *
+	 * @param maxBatchCount The count.
+	 * @return This inserting.
+	 */
+	public BulkInsert setMaxBatchCount(int maxBatchCount) {
+		if (maxBatchCount <= 0)
+			throw new IllegalArgumentException("Invalid batch count");
+
+		this.maxBatchCount = maxBatchCount;
+		return this;
+	}
+
+	/**
+	 * Set the maximum size of the documents in one batch, the document larger than it is inserted alone.
+	 *
+	 * @param maxBatchBytes The size of the JSON documents in bytes.
+	 * @return This inserting.
+	 */
+	public BulkInsert setMaxBatchBytes(long maxBatchBytes) {
+		if (maxBatchBytes <= 0)
+			throw new IllegalArgumentException("Invalid batch size");
+
+		this.maxBatchBytes = maxBatchBytes;
+		return this;
+	}
+
+	public String getCollectionName() {
+		return collectionName;
+	}
+
+	public InsertOptions getOptions() {
+		return options;
+	}
+
+	public int getMaxBatchCount() {
+		return maxBatchCount;
+	}
+
+	public long getMaxBatchBytes() {
+		return maxBatchBytes;
+	}
+
+	boolean isOrdered() {
+		return options != null && Boolean.TRUE.equals(options.ordered);
+	}
+
+	InsertBatch addBatch(List<JsonNode> documents) {
+		InsertBatch batch = new InsertBatch(batches.size(), documents);
+		batches.add(batch);
+		return batch;
+	}
+
+	public List<InsertBatch> getBatches() {
+		return Collections.unmodifiableList(batches);
+	}
+
+	/**
+	 * Get the batches which are not inserted yet, includes the failed ones.
+	 *
+	 * @return The batches.
+	 */
+	public List<InsertBatch> getPendingBatches() {
+		return batches.stream()
+				.filter(b -> b.getState() != InsertBatch.State.COMPLETED)
+				.collect(Collectors.toList());
+	}
+
+	public List<InsertBatch> getFailedBatches() {
+		return batches.stream()
+				.filter(b -> b.getState() == InsertBatch.State.FAILED)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Get the ids of the inserted documents in the order of the batches.
+	 *
+	 * @return The ids.
+	 */
+	public List<String> getInsertedIds() {
+		return batches.stream()
+				.filter(b -> b.getState() == InsertBatch.State.COMPLETED)
+				.flatMap(b -> b.getInsertedIds().stream())
+				.collect(Collectors.toList());
+	}
+
+	public boolean isCompleted() {
+		return batches.stream().allMatch(b -> b.getState() == InsertBatch.State.COMPLETED);
+	}
+}
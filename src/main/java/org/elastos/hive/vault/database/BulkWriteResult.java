@@ -0,0 +1,44 @@
+package org.elastos.hive.vault.database;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The results of the operations of {@link DatabaseController#bulkWrite(String, List, boolean)}
+ * 		in the order of the operations.
+ */
+public class BulkWriteResult {
+	private final List<WriteOpResult> results;
+
+	BulkWriteResult(List<WriteOpResult> results) {
+		this.results = Collections.unmodifiableList(results);
+	}
+
+	public List<WriteOpResult> getResults() {
+		return results;
+	}
+
+	public List<WriteOpResult> getFailedResults() {
+		return results.stream()
+				.filter(r -> r.getState() == WriteOpResult.State.FAILED)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Get the operations which are not completed, includes the failed ones,
+	 * 		which can be written again by another bulk writing.
+	 *
+	 * @return The operations in order.
+	 */
+	public List<WriteOp> getPendingOperations() {
+		return results.stream()
+				.filter(r -> r.getState() != WriteOpResult.State.COMPLETED)
+				.map(WriteOpResult::getOperation)
+				.collect(Collectors.toList());
+	}
+
+	public boolean isCompleted() {
+		return results.stream().allMatch(r -> r.getState() == WriteOpResult.State.COMPLETED);
+	}
+}
@@ -0,0 +1,140 @@
+package org.elastos.hive.vault.database;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.elastos.hive.exception.HiveException;
+import org.elastos.hive.exception.ServerUnknownException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Write the operations of the bulk writing by the pipelined requests on the shared HTTP client.
+ *
+ * <p>The consecutive insertings are grouped and sent by one request of the insert API,
+ * 		each updating or deleting is sent by one request as the APIs take one filter.
+ * 		In the ordered mode, the groups are sent one after another and the writing stops at the first failure,
+ * 		otherwise all groups are sent at once and queued by the dispatcher of the HTTP client.
+ * 		The group fails as a whole.</p>
+ *
+ * <p>The requests complete on the dispatcher threads, which only record the results.</p>
+ */
+class BulkWriter {
+	private static final int MAX_INSERT_COUNT = 1000;
+
+	private final DatabaseController controller;
+	private final String collectionName;
+	private final boolean ordered;
+	private final List<WriteOpResult> results;
+
+	BulkWriter(DatabaseController controller, String collectionName, List<WriteOp> operations, boolean ordered) {
+		if (collectionName == null)
+			throw new IllegalArgumentException("Empty collection name");
+		if (operations == null)
+			throw new IllegalArgumentException("Empty operations");
+
+		this.controller = controller;
+		this.collectionName = collectionName;
+		this.ordered = ordered;
+
+		results = new ArrayList<>(operations.size());
+		for (WriteOp operation : operations) {
+			if (operation == null)
+				throw new IllegalArgumentException("Empty operation at " + results.size());
+			results.add(new WriteOpResult(results.size(), operation));
+		}
+	}
+
+	/**
+	 * Send the operations.
+	 *
+	 * @return The future of the results, which is not completed exceptionally by the failed operations.
+	 */
+	CompletableFuture<BulkWriteResult> write() {
+		List<List<WriteOpResult>> groups = group();
+
+		CompletableFuture<Boolean> done;
+		if (ordered) {
+			done = CompletableFuture.completedFuture(true);
+			for (List<WriteOpResult> group : groups)
+				done = done.thenCompose(succeeded -> succeeded ? send(group) : CompletableFuture.completedFuture(false));
+		} else {
+			done = CompletableFuture.allOf(groups.stream().map(this::send).toArray(CompletableFuture[]::new))
+					.thenApply(v -> true);
+		}
+		return done.thenApply(v -> new BulkWriteResult(results));
+	}
+
+	private List<List<WriteOpResult>> group() {
+		List<List<WriteOpResult>> groups = new ArrayList<>();
+		List<WriteOpResult> inserts = null;
+
+		for (WriteOpResult result : results) {
+			if (result.getOperation().getType() != WriteOp.Type.INSERT_ONE) {
+				inserts = null;
+				groups.add(Collections.singletonList(result));
+				continue;
+			}
+
+			if (inserts == null || inserts.size() >= MAX_INSERT_COUNT) {
+				inserts = new ArrayList<>();
+				groups.add(inserts);
+			}
+			inserts.add(result);
+		}
+		return groups;
+	}
+
+	private CompletableFuture<Boolean> send(List<WriteOpResult> group) {
+		WriteOpResult first = group.get(0);
+		WriteOp operation = first.getOperation();
+
+		switch (operation.getType()) {
+		case INSERT_ONE:
+			List<JsonNode> documents = group.stream()
+					.map(r -> r.getOperation().getDocument())
+					.collect(Collectors.toList());
+			return controller.insertManyAsync(collectionName, documents, new InsertOptions(false, ordered), Runnable::run)
+					.handle((result, error) -> {
+						List<String> ids = result != null ? result.getInsertedIds() : null;
+						if (error == null && (ids == null || ids.size() != group.size()))
+							error = new ServerUnknownException("The inserted ids do not match the documents");
+						if (error != null)
+							return fail(group, error);
+
+						for (int i = 0; i < group.size(); i++)
+							group.get(i).setInsertedId(ids.get(i));
+						return true;
+					});
+
+		case UPDATE_ONE:
+		case UPDATE_MANY:
+			return controller.updateAsync(collectionName, operation.getType() == WriteOp.Type.UPDATE_ONE,
+					operation.getFilter(), operation.getUpdate(), operation.getUpdateOptions(), Runnable::run)
+					.handle((result, error) -> {
+						if (error != null)
+							return fail(group, error);
+						first.setUpdateResult(result);
+						return true;
+					});
+
+		default:
+			return controller.deleteAsync(collectionName, operation.getType() == WriteOp.Type.DELETE_ONE,
+					operation.getFilter(), null, Runnable::run)
+					.handle((result, error) -> {
+						if (error != null)
+							return fail(group, error);
+						first.setCompleted();
+						return true;
+					});
+		}
+	}
+
+	private static boolean fail(List<WriteOpResult> group, Throwable error) {
+		Exception e = error instanceof Exception ? (Exception) error : new HiveException(error);
+		group.forEach(r -> r.setError(e));
+		return false;
+	}
+}
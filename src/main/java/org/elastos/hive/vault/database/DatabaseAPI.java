@@ -1,5 +1,6 @@
 package org.elastos.hive.vault.database;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.*;
 
@@ -39,4 +40,15 @@ interface DatabaseAPI {
 
 	@POST("/api/v2/vault/db/query")
 	Call<QueryResult> query(@Body QueryParams params);
+
+	@Streaming
+	@GET("/api/v2/vault/db/{collection}")
+	Call<ResponseBody> findStream(@Path("collection") String collection,
+								  @Query("filter") String filter,
+								  @Query("skip") String skip,
+								  @Query("limit") String limit);
+
+	@Streaming
+	@POST("/api/v2/vault/db/query")
+	Call<ResponseBody> queryStream(@Body QueryParams params);
 }
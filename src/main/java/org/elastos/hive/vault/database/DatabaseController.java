@@ -1,19 +1,44 @@
 package org.elastos.hive.vault.database;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import okhttp3.ResponseBody;
+import org.elastos.hive.connection.AsyncCalls;
+import org.elastos.hive.connection.ErrorTranslator;
+import org.elastos.hive.connection.JsonCodec;
 import org.elastos.hive.connection.NodeRPCConnection;
 import org.elastos.hive.connection.NodeRPCException;
 import org.elastos.hive.exception.*;
+import retrofit2.Call;
 
 import java.io.IOException;
-import java.security.InvalidParameterException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * The wrapper class is to access the database module of the hive node.
  */
 public class DatabaseController {
+	private static final ErrorTranslator CREATE_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.FORBIDDEN, VaultForbiddenException::new)
+			.map(NodeRPCException.ALREADY_EXISTS, AlreadyExistsException::new);
+	private static final ErrorTranslator COLLECTION_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.FORBIDDEN, VaultForbiddenException::new)
+			.map(NodeRPCException.NOT_FOUND, NotFoundException::new);
+
+	private NodeRPCConnection connection;
 	private DatabaseAPI databaseAPI;
 
 	/**
@@ -22,6 +47,7 @@ public class DatabaseController {
 	 * @param connection The RPC connection.
 	 */
 	public DatabaseController(NodeRPCConnection connection) {
+		this.connection = connection;
 		databaseAPI = connection.createService(DatabaseAPI.class, true);
 	}
 
@@ -40,16 +66,7 @@ public class DatabaseController {
 				throw new ServerUnknownException("Different collection created, impossible to happen");
 
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.ALREADY_EXISTS:
-					throw new AlreadyExistsException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw CREATE_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -65,16 +82,7 @@ public class DatabaseController {
 		try {
 			databaseAPI.deleteCollection(collectionName).execute();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw COLLECTION_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -90,16 +98,7 @@ public class DatabaseController {
 		try {
 			return databaseAPI.getCollections().execute().body().getCollections();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw COLLECTION_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -135,23 +134,133 @@ public class DatabaseController {
 		try {
 			return databaseAPI.insert(collectionName, new InsertParams(documents, options)).execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e.getMessage());
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
 	}
 
+	/**
+	 * Insert the pending batches of the inserting and the documents of the iterator by batches.
+	 *
+	 * <p>The documents are split into the batches by the count and the size of {@link BulkInsert},
+	 * 		and the batches are inserted concurrently without blocking the threads.
+	 * 		The failed batches are marked and can be inserted again by calling this method with the same inserting.</p>
+	 *
+	 * <p>No more documents are read from the iterator once a batch fails, so the documents are not piled up
+	 * 		when the node is unavailable. The rest of them can be inserted by calling this method again
+	 * 		with the same iterator.</p>
+	 *
+	 * @param insert The inserting.
+	 * @param documents The documents to insert, can be null.
+	 * @return The inserting.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public BulkInsert insertMany(BulkInsert insert, Iterator<JsonNode> documents) throws HiveException {
+		int parallelism = insert.isOrdered() ? 1 : Math.max(1, connection.getHttpClientConfig().getBatchParallelism());
+		Semaphore permits = new Semaphore(parallelism);
+		AtomicBoolean failed = new AtomicBoolean();
+
+		try {
+			boolean sending = true;
+			Iterator<InsertBatch> pendings = insert.getPendingBatches().iterator();
+			while (sending && pendings.hasNext())
+				sending = insertBatch(insert, pendings.next(), permits, failed);
+
+			List<JsonNode> batch = new ArrayList<>();
+			long batchBytes = 0;
+			while (sending && !failed.get() && documents != null && documents.hasNext()) {
+				JsonNode document = documents.next();
+				long size = sizeOf(document);
+				if (!batch.isEmpty() && (batch.size() >= insert.getMaxBatchCount()
+						|| batchBytes + size > insert.getMaxBatchBytes())) {
+					sending = insertBatch(insert, insert.addBatch(batch), permits, failed);
+					batch = new ArrayList<>();
+					batchBytes = 0;
+				}
+				batch.add(document);
+				batchBytes += size;
+			}
+
+			// INFO: The documents read from the iterator are always kept by the batches.
+			if (!batch.isEmpty()) {
+				InsertBatch last = insert.addBatch(batch);
+				if (sending && !failed.get())
+					insertBatch(insert, last, permits, failed);
+			}
+
+			permits.acquire(parallelism);
+			return insert;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HiveException("Interrupted when inserting the batches", e);
+		}
+	}
+
+	private boolean insertBatch(BulkInsert insert, InsertBatch batch,
+								Semaphore permits, AtomicBoolean failed) throws InterruptedException {
+		permits.acquire();
+		if (insert.isOrdered() && failed.get()) {
+			permits.release();
+			return false;
+		}
+
+		batch.setState(InsertBatch.State.INSERTING);
+		batch.setError(null);
+		// INFO: Complete on the dispatcher thread, the executor may be the one of the caller which is waiting.
+		AsyncCalls.enqueue(databaseAPI.insert(insert.getCollectionName(),
+				new InsertParams(batch.getDocuments(), insert.getOptions())),
+				InsertResult::getInsertedIds, ErrorTranslator.COMMON, Runnable::run)
+				.whenComplete((ids, error) -> {
+					if (error != null) {
+						batch.setError(error instanceof Exception ? (Exception) error : new HiveException(error));
+						batch.setState(InsertBatch.State.FAILED);
+						failed.set(true);
+					} else {
+						batch.setInsertedIds(ids);
+						batch.setState(InsertBatch.State.COMPLETED);
+					}
+					permits.release();
+				});
+		return true;
+	}
+
+	private static long sizeOf(JsonNode document) throws HiveException {
+		CountingOutputStream out = new CountingOutputStream(ByteStreams.nullOutputStream());
+		try {
+			JsonCodec.getWriter().writeValue(out, document);
+			return out.getCount();
+		} catch (IOException e) {
+			throw new HiveException("Failed to serialize the document: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Write the mixed operations of inserting, updating and deleting by the pipelined requests.
+	 *
+	 * <p>The consecutive insertings are sent by one request, each of the others is sent by one request.
+	 * 		In the ordered mode, the requests are sent one after another and the writing stops at the first failure,
+	 * 		the rest operations are left pending. Otherwise, all requests are sent concurrently.
+	 * 		The failures are reported by the results of the operations.</p>
+	 *
+	 * @param collectionName The name of the collection.
+	 * @param operations The operations.
+	 * @param ordered Write in order and stop at the first failure, or write all concurrently.
+	 * @return The results of the operations.
+	 * @throws HiveException The writing is interrupted.
+	 */
+	public BulkWriteResult bulkWrite(String collectionName, List<WriteOp> operations, boolean ordered)
+			throws HiveException {
+		try {
+			return new BulkWriter(this, collectionName, operations, ordered).write().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HiveException("Interrupted when writing the operations", e);
+		} catch (ExecutionException e) {
+			throw new HiveException(e.getCause());
+		}
+	}
+
 	/**
 	 * Update the first matched document by the filter.
 	 *
@@ -194,18 +303,7 @@ public class DatabaseController {
 					updateOne ? "true" : "false",
 					new UpdateParams(filter, update, options)).execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e.getMessage());
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -246,18 +344,7 @@ public class DatabaseController {
 					new DeleteParams(filter, options)).execute().body();
 			return 0;
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e.getMessage());
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -276,18 +363,7 @@ public class DatabaseController {
 		try {
 			return databaseAPI.count(collectionName, new CountParams(filter, options)).execute().body().getCount();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e.getMessage());
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -323,18 +399,7 @@ public class DatabaseController {
 			String limit = options != null ? options.getLimitStr() : "";
 			return databaseAPI.find(collectionName, filterStr, skip, limit).execute().body().getDocuments();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e.getMessage());
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -353,20 +418,184 @@ public class DatabaseController {
 		try {
 			return databaseAPI.query(new QueryParams(collectionName, filter, options)).execute().body().getDocuments();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e.getMessage());
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
 	}
+
+	/**
+	 * Find all matched document by filter and hand them to the handler one by one.
+	 *
+	 * <p>The documents are parsed from the response body while they are handled,
+	 * 		so the whole result is never kept in memory.</p>
+	 *
+	 * @param collectionName The name of the collection.
+	 * @param filter The filter to match the documents.
+	 * @param options The find options.
+	 * @param handler The handler of the documents, which runs on the calling thread.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public void find(String collectionName, JsonNode filter, FindOptions options,
+					 Consumer<JsonNode> handler) throws HiveException {
+		String filterStr = filter == null ? "" : filter.toString();
+		String skip = options != null ? options.getSkipStr() : "";
+		String limit = options != null ? options.getLimitStr() : "";
+		readDocuments(databaseAPI.findStream(collectionName, filterStr, skip, limit), handler);
+	}
+
+	/**
+	 * Query the documents by filter and options and hand them to the handler one by one,
+	 * see {@link #find(String, JsonNode, FindOptions, Consumer)}.
+	 *
+	 * @param collectionName The name of the collection.
+	 * @param filter The filter to match the documents.
+	 * @param options The query options.
+	 * @param handler The handler of the documents, which runs on the calling thread.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public void query(String collectionName, JsonNode filter, QueryOptions options,
+					  Consumer<JsonNode> handler) throws HiveException {
+		readDocuments(databaseAPI.queryStream(new QueryParams(collectionName, filter, options)), handler);
+	}
+
+	private void readDocuments(Call<ResponseBody> call, Consumer<JsonNode> handler) throws HiveException {
+		try (DocumentReader reader = new DocumentReader(call.execute().body())) {
+			JsonNode document;
+			while ((document = reader.read()) != null)
+				handler.accept(document);
+		} catch (NodeRPCException e) {
+			throw ErrorTranslator.COMMON.translate(e);
+		} catch (JsonProcessingException e) {
+			throw new ServerUnknownException("Invalid documents: " + e.getMessage());
+		} catch (IOException e) {
+			throw new NetworkException(e);
+		}
+	}
+
+	/**
+	 * Query the documents by filter and options page by page, see {@link DocumentCursor}.
+	 *
+	 * @param collectionName The name of the collection.
+	 * @param filter The filter to match the documents.
+	 * @param options The query options, the 'batch_size' is the size of the page.
+	 * @return The cursor of the matched documents, the first page is requested already.
+	 */
+	public DocumentCursor queryCursor(String collectionName, JsonNode filter, QueryOptions options) {
+		return new DocumentCursor(this, collectionName, filter, options);
+	}
+
+	/**
+	 * Create the collection without blocking the calling thread, see {@link #createCollection(String)}.
+	 *
+	 * @param collectionName The name of the collection.
+	 * @return The future of the operation.
+	 */
+	public CompletableFuture<Void> createCollectionAsync(String collectionName) {
+		return AsyncCalls.enqueue(databaseAPI.createCollection(collectionName), result -> {
+			if (!collectionName.equals(result.getName()))
+				throw new ServerUnknownException("Different collection created, impossible to happen");
+			return null;
+		}, CREATE_ERRORS, connection.getExecutor());
+	}
+
+	public CompletableFuture<Void> deleteCollectionAsync(String collectionName) {
+		return AsyncCalls.enqueue(databaseAPI.deleteCollection(collectionName), result -> null,
+				COLLECTION_ERRORS, connection.getExecutor());
+	}
+
+	public CompletableFuture<List<Collection>> getCollectionsAsync() {
+		return AsyncCalls.enqueue(databaseAPI.getCollections(), GetCollectionResult::getCollections,
+				COLLECTION_ERRORS, connection.getExecutor());
+	}
+
+	public CompletableFuture<InsertResult> insertManyAsync(String collectionName,
+														  List<JsonNode> documents,
+														  InsertOptions options) {
+		return insertManyAsync(collectionName, documents, options, connection.getExecutor());
+	}
+
+	CompletableFuture<InsertResult> insertManyAsync(String collectionName, List<JsonNode> documents,
+													InsertOptions options, Executor executor) {
+		return AsyncCalls.enqueue(databaseAPI.insert(collectionName, new InsertParams(documents, options)),
+				result -> result, ErrorTranslator.COMMON, executor);
+	}
+
+	/**
+	 * Create the buffer which coalesces the inserting of the single documents, see {@link InsertBuffer}.
+	 *
+	 * @param collectionName The name of the collection.
+	 * @param options The insert options of the batches.
+	 * @return The buffer.
+	 */
+	public InsertBuffer newInsertBuffer(String collectionName, InsertOptions options) {
+		return new InsertBuffer(this, collectionName, options);
+	}
+
+	Executor getExecutor() {
+		return connection.getExecutor();
+	}
+
+	public CompletableFuture<UpdateResult> updateAsync(String collectionName,
+													   boolean updateOne,
+													   JsonNode filter,
+													   JsonNode update,
+													   UpdateOptions options) {
+		return updateAsync(collectionName, updateOne, filter, update, options, connection.getExecutor());
+	}
+
+	CompletableFuture<UpdateResult> updateAsync(String collectionName, boolean updateOne, JsonNode filter,
+												JsonNode update, UpdateOptions options, Executor executor) {
+		return AsyncCalls.enqueue(databaseAPI.update(collectionName,
+				updateOne ? "true" : "false",
+				new UpdateParams(filter, update, options)),
+				result -> result, ErrorTranslator.COMMON, executor);
+	}
+
+	public CompletableFuture<Void> deleteAsync(String collectionName, boolean deleteOne,
+											   JsonNode filter, DeleteOptions options) {
+		return deleteAsync(collectionName, deleteOne, filter, options, connection.getExecutor());
+	}
+
+	CompletableFuture<Void> deleteAsync(String collectionName, boolean deleteOne, JsonNode filter,
+										DeleteOptions options, Executor executor) {
+		return AsyncCalls.enqueue(databaseAPI.delete(collectionName,
+				deleteOne ? "true" : "false",
+				new DeleteParams(filter, options)),
+				result -> null, ErrorTranslator.COMMON, executor);
+	}
+
+	/**
+	 * Write the mixed operations without blocking the calling thread,
+	 * see {@link #bulkWrite(String, List, boolean)}.
+	 *
+	 * @param collectionName The name of the collection.
+	 * @param operations The operations.
+	 * @param ordered Write in order and stop at the first failure, or write all concurrently.
+	 * @return The future of the results of the operations.
+	 */
+	public CompletableFuture<BulkWriteResult> bulkWriteAsync(String collectionName,
+															 List<WriteOp> operations,
+															 boolean ordered) {
+		return new BulkWriter(this, collectionName, operations, ordered).write()
+				.thenApplyAsync(result -> result, connection.getExecutor());
+	}
+
+	public CompletableFuture<Long> countDocumentsAsync(String collectionName, JsonNode filter, CountOptions options) {
+		return AsyncCalls.enqueue(databaseAPI.count(collectionName, new CountParams(filter, options)),
+				CountResult::getCount, ErrorTranslator.COMMON, connection.getExecutor());
+	}
+
+	public CompletableFuture<List<JsonNode>> findAsync(String collectionName, JsonNode filter, FindOptions options) {
+		String filterStr = filter == null ? "" : filter.toString();
+		String skip = options != null ? options.getSkipStr() : "";
+		String limit = options != null ? options.getLimitStr() : "";
+		return AsyncCalls.enqueue(databaseAPI.find(collectionName, filterStr, skip, limit),
+				FindResult::getDocuments, ErrorTranslator.COMMON, connection.getExecutor());
+	}
+
+	public CompletableFuture<List<JsonNode>> queryAsync(String collectionName, JsonNode filter, QueryOptions options) {
+		return AsyncCalls.enqueue(databaseAPI.query(new QueryParams(collectionName, filter, options)),
+				QueryResult::getDocuments, ErrorTranslator.COMMON, connection.getExecutor());
+	}
 }
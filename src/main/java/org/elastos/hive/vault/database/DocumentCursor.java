@@ -0,0 +1,137 @@
+package org.elastos.hive.vault.database;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The cursor to iterate the matched documents of the query page by page.
+ *
+ * <p>The documents are queried by the pages with the 'skip' and 'limit' options, the size of the page
+ * 		is the 'batch_size' of the query options. The next page is requested when the current one
+ * 		is handed to the caller, so at most two pages are kept no matter how many documents matched.
+ * 		The 'skip' and 'limit' of the query options are for the whole result.</p>
+ *
+ * <p>The documents are sorted by '_id' if no sort is specified, to keep the pages stable.</p>
+ *
+ * <pre>
+ *     try (DocumentCursor cursor = databaseService.queryCursor("works", filter,
+ *             new QueryOptions().setBatchSize(500))) {
+ *         cursor.forEachRemaining(doc -&gt; ...);
+ *     }
+ * </pre>
+ *
+ * <p>The error of the query is thrown as {@link CompletionException} with the cause,
+ * 		the same as {@link CompletableFuture#join()}. The cursor is not thread-safe.</p>
+ */
+public class DocumentCursor implements Iterator<JsonNode>, AutoCloseable {
+	static final int DEFAULT_BATCH_SIZE = 100;
+
+	private final DatabaseController controller;
+	private final String collectionName;
+	private final JsonNode filter;
+	private final QueryOptions options;
+	private final int batchSize;
+
+	private int skip;
+	// INFO: -1 for no limit.
+	private int remaining;
+	private Iterator<JsonNode> page = Collections.emptyIterator();
+	private CompletableFuture<List<JsonNode>> nextPage;
+	private int nextPageSize;
+
+	DocumentCursor(DatabaseController controller, String collectionName, JsonNode filter, QueryOptions options) {
+		this.controller = controller;
+		this.collectionName = collectionName;
+		this.filter = filter;
+		this.options = options != null ? options : new QueryOptions();
+
+		Integer size = this.options.getBatchSize();
+		batchSize = size != null && size > 0 ? size : DEFAULT_BATCH_SIZE;
+		skip = this.options.getSkip() != null ? Math.max(this.options.getSkip(), 0) : 0;
+		// INFO: Zero limit means no limit for the node.
+		remaining = this.options.getLimit() != null && this.options.getLimit() > 0 ? this.options.getLimit() : -1;
+
+		requestNextPage();
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!page.hasNext()) {
+			if (nextPage == null)
+				return false;
+
+			List<JsonNode> docs = nextPage.join();
+			boolean lastPage = docs == null || docs.size() < nextPageSize;
+			nextPage = null;
+			if (!lastPage)
+				requestNextPage();
+
+			page = docs != null ? docs.iterator() : Collections.emptyIterator();
+		}
+		return true;
+	}
+
+	@Override
+	public JsonNode next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		return page.next();
+	}
+
+	/**
+	 * Get the sequential stream of the remaining documents, which closes this cursor when closed.
+	 *
+	 * @return The stream.
+	 */
+	public Stream<JsonNode> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+				Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+	}
+
+	/**
+	 * Cancel the in-flight request and drop the remaining documents.
+	 */
+	@Override
+	public void close() {
+		if (nextPage != null) {
+			nextPage.cancel(false);
+			nextPage = null;
+		}
+		page = Collections.emptyIterator();
+	}
+
+	private void requestNextPage() {
+		if (remaining == 0)
+			return;
+
+		int size = remaining > 0 ? Math.min(batchSize, remaining) : batchSize;
+		nextPage = controller.queryAsync(collectionName, filter, pageOptions(skip, size));
+		nextPageSize = size;
+		skip += size;
+		if (remaining > 0)
+			remaining -= size;
+	}
+
+	private QueryOptions pageOptions(int skip, int limit) {
+		return new QueryOptions()
+				.setSkip(skip)
+				.setLimit(limit)
+				.setProjection(options.getProjection())
+				.setSort(options.getSort() != null ? options.getSort()
+						: Collections.singletonList(new AscendingSortItem("_id")))
+				.setAllowPartialResults(options.getAllowPartialResults())
+				.setReturnKey(options.getReturnKey())
+				.setShowRecordId(options.getShowRecordId())
+				.setBatchSize(limit);
+	}
+}
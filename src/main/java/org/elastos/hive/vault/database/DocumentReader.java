@@ -0,0 +1,81 @@
+package org.elastos.hive.vault.database;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import okhttp3.ResponseBody;
+import org.elastos.hive.connection.JsonCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Read the documents of the find and query results one by one from the response body.
+ *
+ * <pre>
+ *     {"items": [{...}, {...}]}
+ * </pre>
+ *
+ * <p>The 'items' array is read token by token by the streaming parser of the shared codec,
+ * 		and only the current document is built as the tree. The body is never read as a whole.</p>
+ */
+class DocumentReader implements Closeable {
+	private static final String ITEMS = "items";
+
+	private final ResponseBody body;
+	private final JsonParser parser;
+	private boolean finished;
+
+	DocumentReader(ResponseBody body) throws IOException {
+		this.body = body;
+		try {
+			parser = JsonCodec.getMapper().getFactory().createParser(body.byteStream());
+			finished = !moveToItems();
+		} catch (IOException e) {
+			body.close();
+			throw e;
+		}
+	}
+
+	private boolean moveToItems() throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT)
+			throw new JsonParseException(parser, "Invalid result, the object is expected");
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if (ITEMS.equals(name) && token == JsonToken.START_ARRAY)
+				return true;
+			parser.skipChildren();
+		}
+		// INFO: No documents matched, the node may return the empty object.
+		return false;
+	}
+
+	/**
+	 * Read the next document.
+	 *
+	 * @return The document, null if no more.
+	 * @throws IOException The body can not be read or parsed.
+	 */
+	JsonNode read() throws IOException {
+		if (finished)
+			return null;
+
+		if (parser.nextToken() == JsonToken.END_ARRAY) {
+			finished = true;
+			return null;
+		}
+		return JsonCodec.getMapper().readTree(parser);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			parser.close();
+		} finally {
+			body.close();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package org.elastos.hive.vault.database;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The documents which are inserted by one request as a part of the {@link BulkInsert}.
+ *
+ * <p>The documents are released after they are inserted, the failed batch keeps them to insert again.</p>
+ */
+public class InsertBatch {
+	/**
+	 * The state of the batch.
+	 */
+	public enum State {
+		PENDING,
+		INSERTING,
+		COMPLETED,
+		FAILED
+	}
+
+	private final int index;
+	private final int count;
+	private volatile List<JsonNode> documents;
+	private volatile State state;
+	private volatile List<String> insertedIds;
+	private volatile Exception error;
+
+	InsertBatch(int index, List<JsonNode> documents) {
+		this.index = index;
+		this.count = documents.size();
+		this.documents = documents;
+		this.state = State.PENDING;
+	}
+
+	void setState(State state) {
+		this.state = state;
+	}
+
+	void setError(Exception error) {
+		this.error = error;
+	}
+
+	void setInsertedIds(List<String> insertedIds) {
+		this.insertedIds = insertedIds != null ? insertedIds : Collections.emptyList();
+		this.documents = null;
+	}
+
+	List<JsonNode> getDocuments() {
+		return documents;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Get the count of the documents in the batch.
+	 *
+	 * @return The count.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * Get the ids of the inserted documents.
+	 *
+	 * @return The ids, null if the batch is not inserted yet.
+	 */
+	public List<String> getInsertedIds() {
+		return insertedIds;
+	}
+
+	/**
+	 * Get the error of the last failure.
+	 *
+	 * @return The error, null if the batch did not fail.
+	 */
+	public Exception getError() {
+		return error;
+	}
+}
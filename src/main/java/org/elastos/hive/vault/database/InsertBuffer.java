@@ -0,0 +1,273 @@
+package org.elastos.hive.vault.database;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.elastos.hive.exception.HiveException;
+import org.elastos.hive.exception.ServerUnknownException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The buffer which coalesces the inserting of the single documents of a collection into the batches.
+ *
+ * <p>The buffered documents are inserted by one request when the count reaches the maximum batch count,
+ * 		the first one has waited for the maximum delay, or {@link #flush()} is called.
+ * 		The future of each document is completed with the id of the document.</p>
+ *
+ * <p>The buffered and the inserting documents are bounded by the maximum pending count,
+ * 		{@link #insertOne(JsonNode)} waits for the space when the buffer is full.
+ * 		The batch fails as a whole, then the futures of all documents in it are completed with the error.</p>
+ *
+ * <pre>
+ *     try (InsertBuffer buffer = databaseService.newInsertBuffer("events", null)) {
+ *         buffer.insertOne(event).thenAccept(result -&gt; ...);
+ *     }
+ * </pre>
+ */
+public class InsertBuffer implements AutoCloseable {
+	private static final int DEFAULT_MAX_BATCH_COUNT = 100;
+	private static final long DEFAULT_MAX_DELAY = 50;
+	private static final int DEFAULT_MAX_PENDING_COUNT = 10000;
+
+	private static final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "hive-insert-flusher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final DatabaseController controller;
+	private final String collectionName;
+	private final InsertOptions options;
+	private final Set<Batch> inserting = ConcurrentHashMap.newKeySet();
+
+	private volatile int maxBatchCount = DEFAULT_MAX_BATCH_COUNT;
+	private volatile long maxDelay = DEFAULT_MAX_DELAY;
+	private volatile int maxPendingCount = DEFAULT_MAX_PENDING_COUNT;
+
+	// The buffered documents and the count of the buffered and inserting ones, guarded by this.
+	private Batch buffered = new Batch();
+	private ScheduledFuture<?> scheduledFlush;
+	private int pendingCount;
+	private boolean closed;
+
+	InsertBuffer(DatabaseController controller, String collectionName, InsertOptions options) {
+		if (collectionName == null)
+			throw new IllegalArgumentException("Empty collection name");
+
+		this.controller = controller;
+		this.collectionName = collectionName;
+		this.options = options;
+	}
+
+	/**
+	 * Set the count of the documents which triggers the inserting of the buffered ones.
+	 *
+	 * @param maxBatchCount The count.
+	 * @return This buffer.
+	 */
+	public InsertBuffer setMaxBatchCount(int maxBatchCount) {
+		if (maxBatchCount <= 0)
+			throw new IllegalArgumentException("Invalid batch count");
+
+		this.maxBatchCount = maxBatchCount;
+		return this;
+	}
+
+	/**
+	 * Set how long the first buffered document waits before the buffered ones are inserted.
+	 *
+	 * @param maxDelay The delay in milliseconds.
+	 * @return This buffer.
+	 */
+	public InsertBuffer setMaxDelay(long maxDelay) {
+		if (maxDelay < 0)
+			throw new IllegalArgumentException("Invalid delay");
+
+		this.maxDelay = maxDelay;
+		return this;
+	}
+
+	/**
+	 * Set the maximum count of the buffered and inserting documents.
+	 *
+	 * @param maxPendingCount The count.
+	 * @return This buffer.
+	 */
+	public InsertBuffer setMaxPendingCount(int maxPendingCount) {
+		if (maxPendingCount <= 0)
+			throw new IllegalArgumentException("Invalid pending count");
+
+		synchronized (this) {
+			this.maxPendingCount = maxPendingCount;
+			notifyAll();
+		}
+		return this;
+	}
+
+	public String getCollectionName() {
+		return collectionName;
+	}
+
+	/**
+	 * Buffer the document to insert, which waits if the buffer is full.
+	 *
+	 * @param document The document.
+	 * @return The future of the inserting, the result contains the id of this document only.
+	 */
+	public CompletableFuture<InsertResult> insertOne(JsonNode document) {
+		CompletableFuture<InsertResult> future = new CompletableFuture<>();
+		Batch full = null;
+
+		synchronized (this) {
+			try {
+				while (!closed && pendingCount >= maxPendingCount)
+					wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				future.completeExceptionally(new HiveException("Interrupted when waiting for the insert buffer", e));
+				return future;
+			}
+
+			if (closed) {
+				future.completeExceptionally(new IllegalStateException("The insert buffer is closed"));
+				return future;
+			}
+
+			pendingCount++;
+			buffered.add(document, future);
+			if (buffered.size() >= maxBatchCount)
+				full = takeBuffered();
+			else if (scheduledFlush == null)
+				scheduledFlush = flusher.schedule(this::insertBuffered, maxDelay, TimeUnit.MILLISECONDS);
+		}
+
+		if (full != null)
+			insert(full);
+		return future;
+	}
+
+	/**
+	 * Insert the buffered documents now.
+	 *
+	 * @return The future which is completed after the futures of all documents buffered before are completed,
+	 * 		the errors are reported by the futures of the documents.
+	 */
+	public CompletableFuture<Void> flush() {
+		insertBuffered();
+		return CompletableFuture.allOf(inserting.stream().map(batch -> batch.done).toArray(CompletableFuture<?>[]::new));
+	}
+
+	/**
+	 * Insert the buffered documents and wait for them, the documents can not be inserted after closed.
+	 *
+	 * <p>The futures of the documents are completed before returning. The ones which the executor
+	 * 		has not completed yet are completed on the calling thread, so it can be called on the executor threads.</p>
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			closed = true;
+			notifyAll();
+		}
+
+		insertBuffered();
+		for (Batch batch : inserting) {
+			batch.finished.join();
+			complete(batch);
+		}
+	}
+
+	private void insertBuffered() {
+		Batch batch;
+		synchronized (this) {
+			batch = takeBuffered();
+		}
+		if (batch != null)
+			insert(batch);
+	}
+
+	private Batch takeBuffered() {
+		if (scheduledFlush != null) {
+			scheduledFlush.cancel(false);
+			scheduledFlush = null;
+		}
+
+		if (buffered.size() == 0)
+			return null;
+
+		Batch batch = buffered;
+		buffered = new Batch();
+		// INFO: Track it before leaving the lock, then the flushing of the other threads waits for it too.
+		inserting.add(batch);
+		return batch;
+	}
+
+	private void insert(Batch batch) {
+		// INFO: Release the space and finish the request on the dispatcher thread, the callers may be waiting on the executor threads.
+		controller.insertManyAsync(collectionName, batch.documents, options, Runnable::run)
+				.whenComplete((result, error) -> {
+					batch.result = result;
+					batch.error = error;
+					batch.finished.complete(null);
+					release(batch.size());
+					try {
+						controller.getExecutor().execute(() -> complete(batch));
+					} catch (RejectedExecutionException e) {
+						complete(batch);
+					}
+				});
+	}
+
+	private synchronized void release(int count) {
+		pendingCount -= count;
+		notifyAll();
+	}
+
+	private void complete(Batch batch) {
+		// INFO: Either the executor or the closing thread completes the batch.
+		if (!batch.completing.compareAndSet(false, true))
+			return;
+
+		InsertResult result = batch.result;
+		Throwable error = batch.error;
+		List<String> ids = result != null ? result.getInsertedIds() : null;
+		if (error == null && (ids == null || ids.size() != batch.size()))
+			error = new ServerUnknownException("The inserted ids do not match the documents");
+
+		for (int i = 0; i < batch.size(); i++) {
+			if (error != null)
+				batch.futures.get(i).completeExceptionally(error);
+			else
+				batch.futures.get(i).complete(new InsertResult(result.getAcknowledged(),
+						Collections.singletonList(ids.get(i))));
+		}
+
+		inserting.remove(batch);
+		batch.done.complete(null);
+	}
+
+	private static class Batch {
+		private final List<JsonNode> documents = new ArrayList<>();
+		private final List<CompletableFuture<InsertResult>> futures = new ArrayList<>();
+		// The request is finished, then the result or the error is set.
+		private final CompletableFuture<Void> finished = new CompletableFuture<>();
+		private final AtomicBoolean completing = new AtomicBoolean();
+		// The futures of the documents are completed.
+		private final CompletableFuture<Void> done = new CompletableFuture<>();
+		private InsertResult result;
+		private Throwable error;
+
+		void add(JsonNode document, CompletableFuture<InsertResult> future) {
+			documents.add(document);
+			futures.add(future);
+		}
+
+		int size() {
+			return documents.size();
+		}
+	}
+}
@@ -14,6 +14,13 @@ public class InsertResult {
 	@SerializedName("inserted_ids")
 	private List<String> insertedIds;
 
+	InsertResult() {}
+
+	InsertResult(Boolean acknowledged, List<String> insertedIds) {
+		this.acknowledged = acknowledged;
+		this.insertedIds = insertedIds;
+	}
+
 	public Boolean getAcknowledged() {
 		return acknowledged;
 	}
@@ -0,0 +1,86 @@
+package org.elastos.hive.vault.database;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * The write operation of {@link DatabaseController#bulkWrite(String, java.util.List, boolean)}.
+ *
+ * <pre>
+ *     List&lt;WriteOp&gt; operations = Arrays.asList(
+ *             WriteOp.insertOne(doc),
+ *             WriteOp.updateOne(filter, update, null),
+ *             WriteOp.deleteMany(filter));
+ * </pre>
+ */
+public class WriteOp {
+	/**
+	 * The type of the operation.
+	 */
+	public enum Type {
+		INSERT_ONE,
+		UPDATE_ONE,
+		UPDATE_MANY,
+		DELETE_ONE,
+		DELETE_MANY
+	}
+
+	private final Type type;
+	private final JsonNode document;
+	private final JsonNode filter;
+	private final JsonNode update;
+	private final UpdateOptions updateOptions;
+
+	private WriteOp(Type type, JsonNode document, JsonNode filter, JsonNode update, UpdateOptions updateOptions) {
+		this.type = type;
+		this.document = document;
+		this.filter = filter;
+		this.update = update;
+		this.updateOptions = updateOptions;
+	}
+
+	public static WriteOp insertOne(JsonNode document) {
+		if (document == null)
+			throw new IllegalArgumentException("Empty document");
+		return new WriteOp(Type.INSERT_ONE, document, null, null, null);
+	}
+
+	public static WriteOp updateOne(JsonNode filter, JsonNode update, UpdateOptions options) {
+		if (update == null)
+			throw new IllegalArgumentException("Empty update");
+		return new WriteOp(Type.UPDATE_ONE, null, filter, update, options);
+	}
+
+	public static WriteOp updateMany(JsonNode filter, JsonNode update, UpdateOptions options) {
+		if (update == null)
+			throw new IllegalArgumentException("Empty update");
+		return new WriteOp(Type.UPDATE_MANY, null, filter, update, options);
+	}
+
+	public static WriteOp deleteOne(JsonNode filter) {
+		return new WriteOp(Type.DELETE_ONE, null, filter, null, null);
+	}
+
+	public static WriteOp deleteMany(JsonNode filter) {
+		return new WriteOp(Type.DELETE_MANY, null, filter, null, null);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public JsonNode getDocument() {
+		return document;
+	}
+
+	public JsonNode getFilter() {
+		return filter;
+	}
+
+	public JsonNode getUpdate() {
+		return update;
+	}
+
+	public UpdateOptions getUpdateOptions() {
+		return updateOptions;
+	}
+}
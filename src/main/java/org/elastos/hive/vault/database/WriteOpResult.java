@@ -0,0 +1,96 @@
+package org.elastos.hive.vault.database;
+
+/**
+ * The result of one operation of the {@link BulkWriteResult}.
+ */
+public class WriteOpResult {
+	/**
+	 * The state of the operation.
+	 */
+	public enum State {
+		PENDING,
+		COMPLETED,
+		FAILED
+	}
+
+	private final int index;
+	private final WriteOp operation;
+	private volatile State state;
+	private volatile String insertedId;
+	private volatile UpdateResult updateResult;
+	private volatile Exception error;
+
+	WriteOpResult(int index, WriteOp operation) {
+		this.index = index;
+		this.operation = operation;
+		this.state = State.PENDING;
+	}
+
+	void setInsertedId(String insertedId) {
+		this.insertedId = insertedId;
+		this.state = State.COMPLETED;
+	}
+
+	void setUpdateResult(UpdateResult updateResult) {
+		this.updateResult = updateResult;
+		this.state = State.COMPLETED;
+	}
+
+	void setCompleted() {
+		this.state = State.COMPLETED;
+	}
+
+	void setError(Exception error) {
+		this.error = error;
+		this.state = State.FAILED;
+	}
+
+	/**
+	 * Get the index of the operation in the operations of the bulk writing.
+	 *
+	 * @return The index.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	public WriteOp getOperation() {
+		return operation;
+	}
+
+	/**
+	 * Get the state, the operation is pending if it is not sent after a failed one in the ordered mode.
+	 *
+	 * @return The state.
+	 */
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * Get the id of the inserted document.
+	 *
+	 * @return The id, null if the operation is not an inserting or not completed.
+	 */
+	public String getInsertedId() {
+		return insertedId;
+	}
+
+	/**
+	 * Get the result of the updating.
+	 *
+	 * @return The result, null if the operation is not an updating or not completed.
+	 */
+	public UpdateResult getUpdateResult() {
+		return updateResult;
+	}
+
+	/**
+	 * Get the error of the failure.
+	 *
+	 * @return The error, null if the operation did not fail.
+	 */
+	public Exception getError() {
+		return error;
+	}
+}
@@ -0,0 +1,243 @@
+package org.elastos.hive.vault.files;
+
+import org.elastos.hive.connection.SHA256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The local cache of the vault files, the files are kept by the content hash and evicted
+ * 		by the least recently used order when the total size exceeds the limit.
+ *
+ * <p>The cached content is always verified by the hash before it is added to the cache,
+ * 		so a cached file can be served when the hash of the remote file does not change.</p>
+ *
+ * <p>The cache is shared by the directory in the process, so the size limit holds
+ * 		for all the application contexts which use the same directory.</p>
+ *
+ * <pre>
+ *     context.setFileCache(FileCache.open(Paths.get(cacheDir), 512 * 1024 * 1024));
+ *     InputStream in = filesService.getCachedDownloadStream("avatar.png").get();
+ * </pre>
+ */
+public class FileCache {
+	private static final Logger log = LoggerFactory.getLogger(FileCache.class);
+	private static final String TEMP_SUFFIX = ".tmp";
+	// INFO: The temporary files of the other processes are kept until they are surely abandoned.
+	private static final String TEMP_PREFIX = "download-" + processId() + "-";
+	private static final long STALE_TEMP_AGE = TimeUnit.HOURS.toMillis(1);
+
+	private static final Map<Path, FileCache> caches = new ConcurrentHashMap<>();
+
+	private final Path directory;
+	private final long maxSize;
+	// The file name to the size, in access order.
+	private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long size;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	private FileCache(Path directory, long maxSize) throws IOException {
+		this.directory = directory;
+		this.maxSize = maxSize;
+
+		Files.createDirectories(directory);
+		long staleTime = System.currentTimeMillis() - STALE_TEMP_AGE;
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : files.sorted(Comparator.comparing(FileCache::lastModified)).collect(Collectors.toList())) {
+				String name = file.getFileName().toString();
+				if (name.endsWith(TEMP_SUFFIX)) {
+					// INFO: Left by the downloading of this process before, or the one which was interrupted long ago.
+					if (name.startsWith(TEMP_PREFIX) || lastModified(file).toMillis() < staleTime)
+						Files.deleteIfExists(file);
+				} else if (Files.isRegularFile(file)) {
+					long length = Files.size(file);
+					entries.put(file.getFileName().toString(), length);
+					size += length;
+				}
+			}
+		}
+		evict(null);
+	}
+
+	/**
+	 * Open the cache on the local directory, which is shared by the same directory in the process.
+	 * 		The files cached before are loaded when the cache is opened first.
+	 *
+	 * @param directory The local directory.
+	 * @param maxSize The maximum total size of the cached files in bytes, which is ignored if the cache is opened.
+	 * @return The cache.
+	 * @throws IOException Failed to create or load the directory.
+	 */
+	public static FileCache open(Path directory, long maxSize) throws IOException {
+		if (directory == null || maxSize <= 0)
+			throw new IllegalArgumentException("Invalid directory or maximum size");
+
+		Path key = directory.toAbsolutePath().normalize();
+		synchronized (caches) {
+			FileCache cache = caches.get(key);
+			if (cache == null) {
+				cache = new FileCache(key, maxSize);
+				caches.put(key, cache);
+			}
+			return cache;
+		}
+	}
+
+	/**
+	 * Open the cached file of the content hash.
+	 *
+	 * @param hash The content hash.
+	 * @return The input stream of the cached file, null if not cached.
+	 */
+	public synchronized InputStream open(String hash) {
+		String name = toName(hash);
+		if (entries.get(name) != null) {
+			Path file = directory.resolve(name);
+			try {
+				InputStream in = Files.newInputStream(file);
+				touch(file);
+				hitCount++;
+				return in;
+			} catch (IOException e) {
+				// INFO: Removed by others, take it as not cached.
+				size -= entries.remove(name);
+			}
+		}
+
+		missCount++;
+		return null;
+	}
+
+	/**
+	 * Create a temporary file in the cache directory to download the content.
+	 *
+	 * @return The temporary file.
+	 * @throws IOException Failed to create the file.
+	 */
+	public Path createTempFile() throws IOException {
+		return Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+	}
+
+	/**
+	 * Add the downloaded file to the cache and open it. The temporary file is moved into the cache atomically,
+	 * 		so the readers never see the partial content.
+	 *
+	 * @param hash The content hash which the file is verified with.
+	 * @param tempFile The temporary file which is created by {@link #createTempFile()}.
+	 * @return The input stream of the cached file.
+	 * @throws IOException Failed to move or open the file.
+	 */
+	public synchronized InputStream commit(String hash, Path tempFile) throws IOException {
+		String name = toName(hash);
+		Path file = directory.resolve(name);
+		long length = Files.size(tempFile);
+		try {
+			Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		Long previous = entries.put(name, length);
+		size += length - (previous != null ? previous : 0);
+		evict(name);
+		return Files.newInputStream(file);
+	}
+
+	/**
+	 * Remove all the cached files.
+	 */
+	public synchronized void clear() {
+		for (String name : entries.keySet())
+			deleteFile(name);
+		entries.clear();
+		size = 0;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	public synchronized long getSize() {
+		return size;
+	}
+
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	private void evict(String keep) {
+		Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+		while (size > maxSize && iterator.hasNext()) {
+			Map.Entry<String, Long> entry = iterator.next();
+			if (entry.getKey().equals(keep))
+				continue;
+
+			deleteFile(entry.getKey());
+			size -= entry.getValue();
+			evictionCount++;
+			iterator.remove();
+		}
+	}
+
+	private void deleteFile(String name) {
+		try {
+			Files.deleteIfExists(directory.resolve(name));
+		} catch (IOException e) {
+			log.warn("Failed to delete the cached file {}: {}", name, e.getMessage());
+		}
+	}
+
+	private static String toName(String hash) {
+		// INFO: The hash may be base64 which is not safe for the file name.
+		return SHA256.generate(hash);
+	}
+
+	private static void touch(Path file) {
+		// INFO: Keep the access order after the cache is loaded again.
+		try {
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException e) {
+			log.warn("Failed to update the cached file {}: {}", file, e.getMessage());
+		}
+	}
+
+	private static String processId() {
+		// INFO: The name is "pid@host" on the most JVMs, which is enough to tell the processes apart.
+		return ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+	}
+
+	private static FileTime lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		} catch (IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+}
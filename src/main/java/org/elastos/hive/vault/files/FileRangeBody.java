@@ -0,0 +1,86 @@
+package org.elastos.hive.vault.files;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.HashingSink;
+import okio.Okio;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.function.LongConsumer;
+
+/**
+ * The request body reads the byte range of the file channel by the absolute position,
+ * 		so the channel can be shared by the parts which are uploaded concurrently.
+ *
+ * <p>The content is transferred from the channel to the sink without the heap buffer of the caller.</p>
+ */
+class FileRangeBody extends RequestBody {
+	private static final MediaType MEDIA_TYPE = MediaType.parse("application/octet-stream");
+
+	private final FileChannel channel;
+	private final long offset;
+	private final long length;
+	private final int bufferSize;
+	private final LongConsumer progress;
+	private final boolean computeDigest;
+	private volatile ByteString digest;
+
+	FileRangeBody(FileChannel channel, long offset, long length, int bufferSize, LongConsumer progress) {
+		this(channel, offset, length, bufferSize, progress, false);
+	}
+
+	FileRangeBody(FileChannel channel, long offset, long length, int bufferSize,
+				  LongConsumer progress, boolean computeDigest) {
+		this.channel = channel;
+		this.offset = offset;
+		this.length = length;
+		this.bufferSize = bufferSize;
+		this.progress = progress;
+		this.computeDigest = computeDigest;
+	}
+
+	@Override
+	public MediaType contentType() {
+		return MEDIA_TYPE;
+	}
+
+	@Override
+	public long contentLength() {
+		return length;
+	}
+
+	@Override
+	public void writeTo(BufferedSink sink) throws IOException {
+		HashingSink hashing = computeDigest ? HashingSink.sha256(sink) : null;
+		BufferedSink out = hashing != null ? Okio.buffer(hashing) : sink;
+
+		long sent = 0;
+		while (sent < length) {
+			// INFO: The file channel copies to the sink by its own direct buffer.
+			long count = channel.transferTo(offset + sent, Math.min(bufferSize, length - sent), out);
+			if (count <= 0)
+				throw new EOFException("The local file is shorter than the uploading range.");
+
+			sent += count;
+			progress.accept(sent);
+		}
+
+		if (hashing != null) {
+			out.flush();
+			digest = hashing.hash();
+		}
+	}
+
+	/**
+	 * Get the SHA256 digest of the range which is computed when sending.
+	 *
+	 * @return The digest, null if not computed or not sent yet.
+	 */
+	ByteString getDigest() {
+		return digest;
+	}
+}
@@ -1,5 +1,6 @@
 package org.elastos.hive.vault.files;
 
+import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.*;
@@ -7,9 +8,23 @@ import retrofit2.http.*;
 interface FilesAPI {
 	String API_UPLOAD = "/api/v2/vault/files/";
 
+	@Streaming
 	@GET("/api/v2/vault/files/{path}")
 	Call<ResponseBody> download(@Path("path") String path);
 
+	@Streaming
+	@GET("/api/v2/vault/files/{path}")
+	Call<ResponseBody> downloadRange(@Path("path") String path, @Header("Range") String range);
+
+	@PUT("/api/v2/vault/files/{path}")
+	Call<Void> upload(@Path("path") String path, @Query("public") Boolean isPublic, @Body RequestBody body);
+
+	@PUT("/api/v2/vault/files/{path}")
+	Call<Void> uploadPart(@Path("path") String path,
+						  @Query("public") Boolean isPublic,
+						  @Header("Content-Range") String contentRange,
+						  @Body RequestBody body);
+
 	@GET("/api/v2/vault/files/{path}?comp=children")
 	Call<ChildrenInfo> listChildren(@Path("path") String path);
 
@@ -1,20 +1,59 @@
 package org.elastos.hive.vault.files;
 
 import java.io.*;
-import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.InvalidParameterException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+import com.google.common.io.ByteStreams;
+import okhttp3.ResponseBody;
+import okio.ByteString;
+import okio.HashingSource;
+import okio.Okio;
+import org.elastos.hive.connection.AsyncCalls;
+import org.elastos.hive.connection.HashVerifier;
+import org.elastos.hive.connection.HashingInputStream;
+import org.elastos.hive.connection.HttpClientConfig;
+import org.elastos.hive.connection.ErrorTranslator;
 import org.elastos.hive.connection.NodeRPCConnection;
 import org.elastos.hive.connection.NodeRPCException;
 import org.elastos.hive.connection.UploadStream;
 import org.elastos.hive.connection.UploadWriter;
 import org.elastos.hive.exception.*;
+import org.elastos.hive.service.UploadProgress;
+import retrofit2.Response;
 
 /**
  * The wrapper class is to access the files module of the hive node.
  */
 public class FilesController {
+	private static final int MAX_PART_THREADS = 64;
+
+	// INFO: Shared by the parts of all the transfers, the part tasks never wait for the other tasks.
+	private static final ExecutorService partExecutor = createPartExecutor();
+
+	private static final ErrorTranslator RANGE_ERRORS = new ErrorTranslator(ErrorTranslator.COMMON)
+			.map(NodeRPCException.RANGE_NOT_SATISFIABLE, e -> new InvalidParameterException(e.getMessage()));
+
 	private NodeRPCConnection connection;
 	private FilesAPI filesAPI;
 
@@ -39,8 +78,10 @@ public class FilesController {
 	public UploadStream getUploadStream(String path, boolean isPublic) throws HiveException {
 		try {
 			String params = isPublic ? "?public=true" : "";
-			HttpURLConnection urlConnection = connection.openConnection(FilesAPI.API_UPLOAD + path + params);
-			return new UploadStream(urlConnection, urlConnection.getOutputStream());
+			UploadStream upload = connection.openUploadStream(FilesAPI.API_UPLOAD + path + params);
+			if (connection.getHttpClientConfig().isVerifyHash())
+				upload.setHashVerifier(hash -> verifyHash(path, ByteString.decodeHex(hash)));
+			return upload;
 		} catch (NodeRPCException e) {
 			// INFO: The error code and message can be found on stream closing.
 			throw new ServerUnknownException(e);
@@ -60,8 +101,10 @@ public class FilesController {
 	public UploadWriter getUploadWriter(String path, boolean isPublic) throws HiveException {
 		try {
 			String params = isPublic ? "?public=true" : "";
-			HttpURLConnection urlConnection = connection.openConnection(FilesAPI.API_UPLOAD + path + params);
-			return new UploadWriter(urlConnection, urlConnection.getOutputStream());
+			UploadWriter upload = connection.openUploadWriter(FilesAPI.API_UPLOAD + path + params);
+			if (connection.getHttpClientConfig().isVerifyHash())
+				upload.setHashVerifier(hash -> verifyHash(path, ByteString.decodeHex(hash)));
+			return upload;
 		} catch (NodeRPCException e) {
 			// INFO: The error code and message can be found on stream closing.
 			throw new ServerUnknownException(e);
@@ -70,60 +113,621 @@ public class FilesController {
 		}
 	}
 
+	/**
+	 * Upload the pending parts of the multipart uploading concurrently.
+	 *
+	 * <p>The parts are read from the byte ranges of the channel and uploaded on a bounded executor.
+	 * 		The failed parts are marked and can be uploaded again by calling this method with the same uploading.</p>
+	 *
+	 * <p>When all parts are uploaded, the hash of the remote file is checked with the local file,
+	 * 		as the node which ignores the Content-Range header overwrites the file by every part.</p>
+	 *
+	 * @param upload The multipart uploading.
+	 * @param channel The channel of the local file, which is not closed by this method.
+	 * @param progress The progress of the parts, can be null.
+	 * @return The multipart uploading.
+	 * @throws HashMismatchException The uploaded parts do not make the local file, all parts are marked as failed.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public MultipartUpload uploadParts(MultipartUpload upload, FileChannel channel, UploadProgress progress) throws HiveException {
+		try {
+			if (channel.size() != upload.getSize())
+				throw new InvalidParameterException("The size of the local file does not match the uploading");
+		} catch (IOException e) {
+			throw new HiveException("Failed to get the size of the local file: " + e.getMessage(), e);
+		}
+
+		List<UploadPart> parts = upload.getPendingParts();
+		if (parts.isEmpty())
+			return upload;
+
+		HttpClientConfig config = connection.getHttpClientConfig();
+		try {
+			runParts(parts.stream().map(part -> (Callable<Void>) () -> {
+				uploadPart(upload, part, channel, config.getUploadChunkSize(), progress);
+				return null;
+			}).collect(Collectors.toList()));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HiveException("Interrupted when uploading the parts", e);
+		}
+
+		if (upload.isCompleted() && upload.getParts().size() > 1)
+			verifyParts(upload, channel, config.getUploadChunkSize());
+		return upload;
+	}
+
+	private void verifyParts(MultipartUpload upload, FileChannel channel, int bufferSize) throws HiveException {
+		ByteString digest;
+		try {
+			digest = digest(channel, upload.getSize(), bufferSize);
+		} catch (IOException e) {
+			throw new HiveException("Failed to read the local file: " + e.getMessage(), e);
+		}
+
+		String hash = getHash(upload.getPath());
+		if (matchesHash(hash, digest))
+			return;
+
+		HashMismatchException e = new HashMismatchException(String.format(
+				"The uploaded parts of the file %s do not match the local file, the Content-Range may be not supported",
+				upload.getPath()));
+		for (UploadPart part : upload.getParts()) {
+			part.setError(e);
+			part.setState(UploadPart.State.FAILED);
+		}
+		throw e;
+	}
+
+	private static ByteString digest(FileChannel channel, long size, int bufferSize) throws IOException {
+		MessageDigest md;
+		try {
+			md = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+		for (long position = 0; position < size; ) {
+			buffer.clear();
+			int count = channel.read(buffer, position);
+			if (count == -1)
+				throw new EOFException("The local file is shorter than the uploading.");
+			buffer.flip();
+			md.update(buffer);
+			position += count;
+		}
+		return ByteString.of(md.digest());
+	}
+
+	/**
+	 * Upload the pending parts of the multipart uploading from the local file.
+	 *
+	 * @param upload The multipart uploading.
+	 * @param file The local file.
+	 * @param progress The progress of the parts, can be null.
+	 * @return The multipart uploading.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public MultipartUpload uploadParts(MultipartUpload upload, Path file, UploadProgress progress) throws HiveException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return uploadParts(upload, channel, progress);
+		} catch (IOException e) {
+			throw new HiveException("Failed to open the local file: " + e.getMessage(), e);
+		}
+	}
+
+	private void uploadPart(MultipartUpload upload, UploadPart part, FileChannel channel,
+							int bufferSize, UploadProgress progress) {
+		part.setState(UploadPart.State.UPLOADING);
+		part.setUploaded(0);
+		part.setError(null);
+		notifyProgress(progress, part);
+
+		try {
+			FileRangeBody body = new FileRangeBody(channel, part.getOffset(), part.getLength(), bufferSize, sent -> {
+				part.setUploaded(sent);
+				notifyProgress(progress, part);
+			});
+			filesAPI.uploadPart(upload.getPath(), upload.isPublic() ? true : null,
+					part.getContentRange(upload.getSize()), body).execute();
+			part.setState(UploadPart.State.COMPLETED);
+		} catch (NodeRPCException e) {
+			part.setError(toPartError(e));
+			part.setState(UploadPart.State.FAILED);
+		} catch (IOException e) {
+			part.setError(new NetworkException(e));
+			part.setState(UploadPart.State.FAILED);
+		} catch (RuntimeException e) {
+			part.setError(e);
+			part.setState(UploadPart.State.FAILED);
+		}
+		notifyProgress(progress, part);
+	}
+
+	/**
+	 * Run the part tasks on the shared executor, at most the part parallelism of them at the same time.
+	 *
+	 * @param tasks The part tasks.
+	 * @return The results of the tasks in order.
+	 * @throws InterruptedException Interrupted when waiting for the tasks, the running ones are cancelled.
+	 */
+	private <V> List<CompletableFuture<V>> runParts(List<Callable<V>> tasks) throws InterruptedException {
+		List<CompletableFuture<V>> results = new ArrayList<>(tasks.size());
+		for (int i = 0; i < tasks.size(); i++)
+			results.add(new CompletableFuture<>());
+
+		int parallelism = Math.max(1, connection.getHttpClientConfig().getPartParallelism());
+		AtomicInteger next = new AtomicInteger();
+		List<Future<?>> workers = new ArrayList<>();
+		for (int i = 0; i < Math.min(tasks.size(), parallelism); i++) {
+			workers.add(partExecutor.submit(() -> {
+				int index;
+				while (!Thread.currentThread().isInterrupted() && (index = next.getAndIncrement()) < tasks.size()) {
+					try {
+						results.get(index).complete(tasks.get(index).call());
+					} catch (Exception e) {
+						results.get(index).completeExceptionally(e);
+					}
+				}
+			}));
+		}
+
+		try {
+			for (Future<?> worker : workers)
+				worker.get();
+		} catch (InterruptedException e) {
+			workers.forEach(worker -> worker.cancel(true));
+			throw e;
+		} catch (ExecutionException e) {
+			// INFO: The errors of the tasks are kept by the results.
+		}
+		return results;
+	}
+
+	private static ExecutorService createPartExecutor() {
+		AtomicInteger index = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_PART_THREADS, MAX_PART_THREADS,
+				60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "hive-part-" + index.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static boolean matchesHash(String hash, ByteString digest) {
+		return hash != null && (hash.equalsIgnoreCase(digest.hex()) || hash.equals(digest.base64()));
+	}
+
+	private static void notifyProgress(UploadProgress progress, UploadPart part) {
+		if (progress != null)
+			progress.onProgress(part, part.getUploaded());
+	}
+
+	private static void throwPartError(Throwable cause) throws HiveException {
+		if (cause instanceof NodeRPCException) {
+			Exception e = toPartError((NodeRPCException) cause);
+			if (e instanceof HiveException)
+				throw (HiveException) e;
+			throw (RuntimeException) e;
+		} else if (cause instanceof IOException) {
+			throw new NetworkException((IOException) cause);
+		} else if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		throw new HiveException(cause);
+	}
+
+	private static Exception toPartError(NodeRPCException e) {
+		return ErrorTranslator.COMMON.toException(e);
+	}
+
 	/**
 	 * Get the input stream for downloading the content of the file.
 	 *
+	 * <p>The content is checked with the hash of the remote file at the end of the stream if the verifying is enabled,
+	 * 		see {@link #getHashingDownloadStream(String)}.</p>
+	 *
 	 * @param path The download file path.
 	 * @return The input stream.
 	 * @throws HiveException The error comes from the hive node.
 	 */
 	public InputStream getDownloadStream(String path) throws HiveException {
+		if (!connection.getHttpClientConfig().isVerifyHash())
+			return openDownload(path);
+		return getHashingDownloadStream(path);
+	}
+
+	/**
+	 * Get the input stream for downloading the content of the file, which provides the digest of the content.
+	 *
+	 * <p>The stream computes the digest when reading. If the verifying is enabled by {@link HttpClientConfig},
+	 * 		it gets the hash of the remote file at the end of the stream and checks the digest with it.</p>
+	 *
+	 * @param path The download file path.
+	 * @return The input stream, {@link HashingInputStream#getLocalHash()} is the digest after the end of the stream.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public HashingInputStream getHashingDownloadStream(String path) throws HiveException {
+		// INFO: The hash is got after the content is read, so no request before the first byte.
+		HashVerifier verifier = connection.getHttpClientConfig().isVerifyHash()
+				? localHash -> verifyDownloadHash(path, ByteString.decodeHex(localHash)) : null;
+
+		return new HashingInputStream(openDownload(path), verifier);
+	}
+
+	private InputStream openDownload(String path) throws HiveException {
 		try {
 			return filesAPI.download(path).execute().body().byteStream();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
 	}
 
+	private void verifyDownloadHash(String path, ByteString digest) throws HiveException {
+		String hash = getHash(path);
+		if (matchesHash(hash, digest))
+			return;
+
+		throw new HashMismatchException(String.format("The hash of the file %s does not match, local: %s, remote: %s,"
+				+ " the file may be changed when downloading", path, digest.hex(), hash));
+	}
+
 	/**
-	 * Get the download reader for downloading the content of the file.
+	 * Get the input stream for downloading the window of the file content.
 	 *
 	 * @param path The download file path.
-	 * @return The reader.
+	 * @param offset The offset of the first byte to download.
+	 * @param length The count of the bytes to download, -1 means to the end of the file.
+	 * @return The input stream.
 	 * @throws HiveException The error comes from the hive node.
 	 */
-	public Reader getDownloadReader(String path) throws HiveException {
+	public InputStream getDownloadStream(String path, long offset, long length) throws HiveException {
+		if (offset < 0 || length < -1)
+			throw new InvalidParameterException("Invalid offset or length");
+
 		try {
-			return new InputStreamReader(filesAPI.download(path).execute().body().byteStream());
+			return openRange(path, offset, length);
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
+			throw RANGE_ERRORS.translate(e);
+		} catch (IOException e) {
+			throw new NetworkException(e);
+		}
+	}
+
+	/**
+	 * Resume the interrupted downloading, the content after the end of the local file
+	 * 		is downloaded and appended to the local file.
+	 *
+	 * <p>The local file is taken as complete when it has the same size as the remote file.</p>
+	 *
+	 * @param path The download file path.
+	 * @param channel The channel of the local file, which is not closed by this method.
+	 * @return The size of the local file after downloading.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public long resumeDownload(String path, FileChannel channel) throws HiveException {
+		long offset;
+		try {
+			offset = channel.size();
+		} catch (IOException e) {
+			throw new HiveException("Failed to get the size of the local file: " + e.getMessage(), e);
+		}
+
+		try (InputStream in = openRange(path, offset, -1)) {
+			return offset + copyTo(in, channel, offset);
+		} catch (NodeRPCException e) {
+			if (e.getCode() != NodeRPCException.RANGE_NOT_SATISFIABLE)
+				throw ErrorTranslator.COMMON.translate(e);
+		} catch (IOException e) {
+			throw new NetworkException(e);
+		}
+
+		// INFO: The offset is not before the end of the remote file, which is complete only if the sizes match.
+		long size = getProperty(path).getSize();
+		if (offset != size)
+			throw new HiveException(String.format("The local file (%d bytes) does not match the remote file %s (%d bytes)",
+					offset, path, size));
+		return offset;
+	}
+
+	/**
+	 * Download the file by the byte ranges concurrently, every range is written to
+	 * 		the local file at its own position.
+	 *
+	 * <p>The file is downloaded by the response of the first range only if the node does not support
+	 * 		the range requests and returns the whole file.</p>
+	 *
+	 * @param path The download file path.
+	 * @param channel The channel of the local file, which is not closed by this method.
+	 * @param partCount The count of the ranges.
+	 * @return The size of the file.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public long downloadParts(String path, FileChannel channel, int partCount) throws HiveException {
+		if (partCount <= 0)
+			throw new InvalidParameterException("Invalid part count");
+
+		long size = getProperty(path).getSize();
+		long partSize = Math.max(1, (size + partCount - 1) / partCount);
+
+		Response<ResponseBody> first = null;
+		if (size > 0) {
+			try {
+				first = requestRange(path, 0, Math.min(partSize, size));
+				if (first.code() != 206)
+					return downloadWhole(first, channel, size);
+			} catch (NodeRPCException e) {
+				throw RANGE_ERRORS.translate(e);
+			} catch (IOException e) {
+				throw new NetworkException(e);
+			}
+		}
+
+		List<Callable<Long>> tasks = new ArrayList<>(partCount);
+		for (long offset = 0; offset < size; offset += partSize) {
+			long start = offset;
+			long length = Math.min(partSize, size - offset);
+			// INFO: The first range is downloaded by the response which detects the range support.
+			Response<ResponseBody> response = start == 0 ? first : null;
+			tasks.add(() -> {
+				try (InputStream in = response != null ? toRangeStream(response, start, length)
+						: openRange(path, start, length)) {
+					if (copyTo(in, channel, start) != length)
+						throw new EOFException("The downloaded range is shorter than requested.");
+					return length;
+				}
+			});
+		}
+
+		try {
+			for (CompletableFuture<Long> future : runParts(tasks)) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					throwPartError(e.getCause());
+				}
 			}
+			channel.truncate(size);
+			return size;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HiveException("Interrupted when downloading the parts", e);
+		} catch (IOException e) {
+			throw new HiveException("Failed to truncate the local file: " + e.getMessage(), e);
+		} finally {
+			// INFO: Not consumed when the first task is not run.
+			if (first != null)
+				first.body().close();
+		}
+	}
+
+	private long downloadWhole(Response<ResponseBody> response, FileChannel channel, long size) throws HiveException {
+		try (InputStream in = response.body().byteStream()) {
+			if (copyTo(in, channel, 0) != size)
+				throw new EOFException("The downloaded file is shorter than its size.");
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
+
+		try {
+			channel.truncate(size);
+			return size;
+		} catch (IOException e) {
+			throw new HiveException("Failed to truncate the local file: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Resume the interrupted downloading to the local file, the file is created if not exists.
+	 *
+	 * @param path The download file path.
+	 * @param file The local file.
+	 * @return The size of the local file after downloading.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public long resumeDownload(String path, Path file) throws HiveException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			return resumeDownload(path, channel);
+		} catch (IOException e) {
+			throw new HiveException("Failed to open the local file: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Download the file by the byte ranges concurrently to the local file, the file is created if not exists.
+	 *
+	 * @param path The download file path.
+	 * @param file The local file.
+	 * @param partCount The count of the ranges.
+	 * @return The size of the file.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public long downloadParts(String path, Path file, int partCount) throws HiveException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			return downloadParts(path, channel, partCount);
+		} catch (IOException e) {
+			throw new HiveException("Failed to open the local file: " + e.getMessage(), e);
+		}
+	}
+
+	private InputStream openRange(String path, long offset, long length) throws IOException {
+		if (length == 0)
+			return new ByteArrayInputStream(new byte[0]);
+
+		return toRangeStream(requestRange(path, offset, length), offset, length);
+	}
+
+	private Response<ResponseBody> requestRange(String path, long offset, long length) throws IOException {
+		String range = length == -1 ? String.format("bytes=%d-", offset)
+				: String.format("bytes=%d-%d", offset, offset + length - 1);
+		return filesAPI.downloadRange(path, range).execute();
+	}
+
+	private static InputStream toRangeStream(Response<ResponseBody> response, long offset, long length) throws IOException {
+		InputStream in = response.body().byteStream();
+		try {
+			if (response.code() != 206) {
+				// INFO: The node ignored the range header and returned the whole file.
+				ByteStreams.skipFully(in, offset);
+			} else {
+				String contentRange = response.headers().get("Content-Range");
+				if (contentRange != null && !contentRange.startsWith("bytes " + offset + "-"))
+					throw new IOException("Unexpected content range: " + contentRange);
+			}
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+		return length == -1 ? in : ByteStreams.limit(in, length);
+	}
+
+	private long copyTo(InputStream in, FileChannel channel, long position) throws IOException {
+		return copyTo(Channels.newChannel(in), channel, position);
+	}
+
+	private long copyTo(ReadableByteChannel source, FileChannel channel, long position) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(connection.getHttpClientConfig().getUploadChunkSize());
+		long written = 0;
+		while (source.read(buffer) != -1) {
+			buffer.flip();
+			while (buffer.hasRemaining())
+				written += channel.write(buffer, position + written);
+			buffer.clear();
+		}
+		return written;
+	}
+
+	/**
+	 * Download the file to the local file and verify it by the hash code of the remote file.
+	 *
+	 * <p>The content is moved from the connection to the file channel by a direct buffer,
+	 * 		and the SHA256 digest is computed on the way. The local file is deleted if it
+	 * 		does not match the remote file.</p>
+	 *
+	 * @param path The download file path.
+	 * @param file The local file, it is created or truncated.
+	 * @return The size of the file.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public long downloadTo(String path, Path file) throws HiveException {
+		ByteString digest = download(path, file);
+		try {
+			verifyHash(path, digest);
+		} catch (HiveException | RuntimeException e) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException ex) {
+				// ignore
+			}
+			throw e;
+		}
+
+		try {
+			return Files.size(file);
+		} catch (IOException e) {
+			throw new HiveException("Failed to get the size of the local file: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Get the input stream of the file from the local cache when the hash of the remote file matches
+	 * 		the cached one. Otherwise the file is downloaded to the cache first.
+	 *
+	 * @param path The download file path.
+	 * @param cache The local file cache.
+	 * @return The input stream.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public InputStream getCachedDownloadStream(String path, FileCache cache) throws HiveException {
+		String hash = getHash(path);
+		InputStream in = cache.open(hash);
+		if (in != null)
+			return in;
+
+		Path tempFile = null;
+		try {
+			tempFile = cache.createTempFile();
+			ByteString digest = download(path, tempFile);
+			if (!matchesHash(hash, digest))
+				throw new HashMismatchException(String.format("The file %s was changed when downloading", path));
+
+			in = cache.commit(hash, tempFile);
+			tempFile = null;
+			return in;
+		} catch (IOException e) {
+			throw new HiveException("Failed to cache the file: " + e.getMessage(), e);
+		} finally {
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	private ByteString download(String path, Path file) throws HiveException {
+		try (ResponseBody body = filesAPI.download(path).execute().body();
+			 FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+					 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			HashingSource source = HashingSource.sha256(body.source());
+			copyTo(Okio.buffer(source), channel, 0);
+			return source.hash();
+		} catch (NodeRPCException e) {
+			throw ErrorTranslator.COMMON.translate(e);
+		} catch (IOException e) {
+			throw new NetworkException(e);
+		}
+	}
+
+	/**
+	 * Upload the local file and verify it by the hash code of the remote file.
+	 *
+	 * <p>The content is transferred from the file channel to the connection directly,
+	 * 		and the SHA256 digest is computed on the way.</p>
+	 *
+	 * @param path The uploading file path.
+	 * @param file The local file.
+	 * @param isPublic The uploading file is for public.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public void uploadFrom(String path, Path file, boolean isPublic) throws HiveException {
+		FileRangeBody body;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			body = new FileRangeBody(channel, 0, channel.size(),
+					connection.getHttpClientConfig().getUploadChunkSize(), sent -> {}, true);
+			filesAPI.upload(path, isPublic ? true : null, body).execute();
+		} catch (NodeRPCException e) {
+			throw ErrorTranslator.COMMON.translate(e);
+		} catch (IOException e) {
+			throw new NetworkException(e);
+		}
+
+		verifyHash(path, body.getDigest());
+	}
+
+	private void verifyHash(String path, ByteString digest) throws HiveException {
+		String hash = getHash(path);
+		if (!matchesHash(hash, digest))
+			throw new HashMismatchException(String.format("The hash of the file %s does not match, local: %s, remote: %s",
+					path, digest.hex(), hash));
+	}
+
+	/**
+	 * Get the download reader for downloading the content of the file.
+	 *
+	 * @param path The download file path.
+	 * @return The reader.
+	 * @throws HiveException The error comes from the hive node.
+	 */
+	public Reader getDownloadReader(String path) throws HiveException {
+		return new InputStreamReader(getDownloadStream(path));
 	}
 
 	/**
@@ -137,18 +741,7 @@ public class FilesController {
 		try {
 			return filesAPI.listChildren(path).execute().body().getValue();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -165,18 +758,7 @@ public class FilesController {
 		try {
 			return filesAPI.getMetadata(path).execute().body();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -193,18 +775,7 @@ public class FilesController {
 		try {
 			return filesAPI.getHash(path).execute().body().getHash();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -221,18 +792,7 @@ public class FilesController {
 		try {
 			filesAPI.copy(srcPath, destPath).execute();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -249,18 +809,7 @@ public class FilesController {
 		try {
 			filesAPI.move(srcPath, destPath).execute();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -276,20 +825,45 @@ public class FilesController {
 		try {
 			filesAPI.delete(path).execute();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
 	}
+
+	/**
+	 * List the files on the remote folder without blocking the calling thread, see {@link #listChildren(String)}.
+	 *
+	 * @param path The path of the folder.
+	 * @return The future of the file list.
+	 */
+	public CompletableFuture<List<FileInfo>> listChildrenAsync(String path) {
+		return AsyncCalls.enqueue(filesAPI.listChildren(path), ChildrenInfo::getValue,
+				ErrorTranslator.COMMON, connection.getExecutor());
+	}
+
+	public CompletableFuture<FileInfo> getPropertyAsync(String path) {
+		return AsyncCalls.enqueue(filesAPI.getMetadata(path), info -> info,
+				ErrorTranslator.COMMON, connection.getExecutor());
+	}
+
+	public CompletableFuture<String> getHashAsync(String path) {
+		return AsyncCalls.enqueue(filesAPI.getHash(path), HashInfo::getHash,
+				ErrorTranslator.COMMON, connection.getExecutor());
+	}
+
+	public CompletableFuture<Void> copyFileAsync(String srcPath, String destPath) {
+		return AsyncCalls.enqueue(filesAPI.copy(srcPath, destPath), result -> null,
+				ErrorTranslator.COMMON, connection.getExecutor());
+	}
+
+	public CompletableFuture<Void> moveFileAsync(String srcPath, String destPath) {
+		return AsyncCalls.enqueue(filesAPI.move(srcPath, destPath), result -> null,
+				ErrorTranslator.COMMON, connection.getExecutor());
+	}
+
+	public CompletableFuture<Void> deleteAsync(String path) {
+		return AsyncCalls.enqueue(filesAPI.delete(path), result -> null,
+				ErrorTranslator.COMMON, connection.getExecutor());
+	}
 }
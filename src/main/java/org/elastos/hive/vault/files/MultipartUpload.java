@@ -0,0 +1,104 @@
+package org.elastos.hive.vault.files;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The uploading of a local file which is split into the byte ranges,
+ * 		the ranges are uploaded concurrently as the parts of the remote file.
+ *
+ * <p>The failed parts are kept on this object and can be uploaded again by the same object.</p>
+ *
+ * <pre>
+ *     MultipartUpload upload = filesService.uploadParts("hive/big.bin", localPath, 8, null).get();
+ *     while (!upload.isCompleted())
+ *         upload = filesService.uploadParts(upload, localPath, null).get();
+ * </pre>
+ */
+public class MultipartUpload {
+	private final String path;
+	private final boolean isPublic;
+	private final long size;
+	private final List<UploadPart> parts;
+
+	/**
+	 * Create the uploading of the local file.
+	 *
+	 * @param path The path of the remote file.
+	 * @param size The size of the local file.
+	 * @param partCount The count of the parts, the last part is smaller if the size can not be divided exactly.
+	 */
+	public MultipartUpload(String path, long size, int partCount) {
+		this(path, false, size, partCount);
+	}
+
+	/**
+	 * Create the uploading of the local file.
+	 *
+	 * @param path The path of the remote file.
+	 * @param isPublic The uploading file is for public.
+	 * @param size The size of the local file.
+	 * @param partCount The count of the parts, the last part is smaller if the size can not be divided exactly.
+	 */
+	public MultipartUpload(String path, boolean isPublic, long size, int partCount) {
+		if (path == null)
+			throw new IllegalArgumentException("Empty path parameter");
+		if (size < 0 || partCount <= 0)
+			throw new IllegalArgumentException("Invalid size or part count");
+
+		this.path = path;
+		this.isPublic = isPublic;
+		this.size = size;
+
+		List<UploadPart> parts = new ArrayList<>(partCount);
+		long partSize = Math.max(1, (size + partCount - 1) / partCount);
+		for (long offset = 0; offset < size; offset += partSize)
+			parts.add(new UploadPart(parts.size(), offset, Math.min(partSize, size - offset)));
+		if (parts.isEmpty())
+			parts.add(new UploadPart(0, 0, 0));
+		this.parts = Collections.unmodifiableList(parts);
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public boolean isPublic() {
+		return isPublic;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public List<UploadPart> getParts() {
+		return parts;
+	}
+
+	/**
+	 * Get the parts which are not uploaded yet, includes the failed ones.
+	 *
+	 * @return The parts.
+	 */
+	public List<UploadPart> getPendingParts() {
+		return parts.stream()
+				.filter(p -> p.getState() != UploadPart.State.COMPLETED)
+				.collect(Collectors.toList());
+	}
+
+	public List<UploadPart> getFailedParts() {
+		return parts.stream()
+				.filter(p -> p.getState() == UploadPart.State.FAILED)
+				.collect(Collectors.toList());
+	}
+
+	public long getUploaded() {
+		return parts.stream().mapToLong(UploadPart::getUploaded).sum();
+	}
+
+	public boolean isCompleted() {
+		return parts.stream().allMatch(p -> p.getState() == UploadPart.State.COMPLETED);
+	}
+}
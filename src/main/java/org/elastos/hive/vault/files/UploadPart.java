@@ -0,0 +1,88 @@
+package org.elastos.hive.vault.files;
+
+/**
+ * The byte range of the local file which is uploaded as a part of the {@link MultipartUpload}.
+ */
+public class UploadPart {
+	/**
+	 * The state of the part.
+	 */
+	public enum State {
+		PENDING,
+		UPLOADING,
+		COMPLETED,
+		FAILED
+	}
+
+	private final int index;
+	private final long offset;
+	private final long length;
+	private volatile State state;
+	private volatile long uploaded;
+	private volatile Exception error;
+
+	UploadPart(int index, long offset, long length) {
+		this.index = index;
+		this.offset = offset;
+		this.length = length;
+		this.state = State.PENDING;
+	}
+
+	void setState(State state) {
+		this.state = state;
+	}
+
+	void setUploaded(long uploaded) {
+		this.uploaded = uploaded;
+	}
+
+	void setError(Exception error) {
+		this.error = error;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * Get the uploaded bytes of the part, which restarts from zero when the part is uploaded again.
+	 *
+	 * @return The uploaded bytes.
+	 */
+	public long getUploaded() {
+		return uploaded;
+	}
+
+	/**
+	 * Get the error of the last failure.
+	 *
+	 * @return The error, null if the part did not fail.
+	 */
+	public Exception getError() {
+		return error;
+	}
+
+	/**
+	 * Get the value of the Content-Range header for the part.
+	 *
+	 * @param size The size of the whole file.
+	 * @return The header value.
+	 */
+	String getContentRange(long size) {
+		if (length == 0)
+			return null;
+		return String.format("bytes %d-%d/%d", offset, offset + length - 1, size);
+	}
+}
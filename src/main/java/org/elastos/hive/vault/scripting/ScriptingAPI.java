@@ -26,6 +26,7 @@ interface ScriptingAPI {
 									@Path("targetAppDid") String targetAppDid,
 									@Path("params") String params);
 
+	@Streaming
 	@GET("/api/v2/vault/scripting/stream/{transactionId}")
 	Call<ResponseBody> downloadFile(@Path("transactionId") String transactionId);
 
@@ -1,15 +1,18 @@
 package org.elastos.hive.vault.scripting;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import okhttp3.ResponseBody;
 import org.elastos.hive.AppContext;
+import org.elastos.hive.ProviderResolver;
 import org.elastos.hive.ScriptRunner;
 import org.elastos.hive.exception.*;
 import retrofit2.Response;
 
+import org.elastos.hive.connection.AsyncCalls;
+import org.elastos.hive.connection.ErrorTranslator;
+import org.elastos.hive.connection.JsonCodec;
 import org.elastos.hive.connection.NodeRPCConnection;
 import org.elastos.hive.connection.NodeRPCException;
 import org.elastos.hive.connection.UploadStream;
@@ -23,16 +26,22 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.lang.ref.WeakReference;
-import java.net.HttpURLConnection;
 import java.security.InvalidParameterException;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The wrapper class to access the scripting APIs of the hive node.
  */
 public class ScriptingController {
+	private static final ErrorTranslator REGISTER_ERRORS = new ErrorTranslator()
+			.map(NodeRPCException.UNAUTHORIZED, UnauthorizedException::new)
+			.map(NodeRPCException.FORBIDDEN, VaultForbiddenException::new)
+			.map(NodeRPCException.BAD_REQUEST, e -> new InvalidParameterException(e.getMessage()));
+	private static final ErrorTranslator SCRIPT_ERRORS = new ErrorTranslator(ErrorTranslator.COMMON)
+			.map(NodeRPCException.NOT_FOUND, ScriptNotFoundException::new);
+
 	private WeakReference<NodeRPCConnection> connection;
 	private ScriptingAPI scriptingAPI;
 
@@ -70,16 +79,7 @@ public class ScriptingController {
 							.execute().body();
 
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw REGISTER_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -99,18 +99,7 @@ public class ScriptingController {
 			return scriptingAPI.getScripts(name, skip, limit).execute().body().getScripts();
 
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new ScriptNotFoundException(e.getMessage());
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw SCRIPT_ERRORS.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -133,47 +122,17 @@ public class ScriptingController {
 							String targetAppDid,
 							Class<T> resultType) throws HiveException {
 		try {
-			Map<String, Object> map = new ObjectMapper()
-							.convertValue(params, new TypeReference<Map<String, Object>>() {});
-			String json = scriptingAPI.runScript(name, new RunScriptParams()
+			ResponseBody body = scriptingAPI.runScript(name, new RunScriptParams()
 							.setContext(new Context()
 							.setTargetDid(targetDid)
 							.setTargetAppDid(targetAppDid))
-							.setParams(map))
-							.execute().body().string();
-
-			Object obj = null;
-			try {
-				if(resultType.isAssignableFrom(String.class)) {
-					obj = json;
-				} else if(resultType.isAssignableFrom(byte[].class)) {
-					obj = json.getBytes();
-				} else if(resultType.isAssignableFrom(JsonNode.class)) {
-					obj = new ObjectMapper().readTree(json);
-				} else if(resultType.isAssignableFrom(Reader.class)) {
-					obj = new StringReader(json);
-				} else {
-					obj = new ObjectMapper().readValue(json, resultType);
-				}
-			} catch (Exception e) {
-				throw new IllegalArgumentException("Unsupported result Type class.");
-			}
+							.setParams(JsonCodec.toMap(params)))
+							.execute().body();
 
-			return resultType.cast(obj);
+			return toResult(body, resultType);
 
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -197,44 +156,93 @@ public class ScriptingController {
 							   String targetAppDid,
 							   Class<T> resultType) throws HiveException {
 		try {
-			String json =  scriptingAPI.runScriptUrl(name, targetDid, targetAppDid, params)
-								.execute().body().string();
-
-			Object obj = null;
-			try {
-				if(resultType.isAssignableFrom(String.class)) {
-					obj = json;
-				} else if(resultType.isAssignableFrom(byte[].class)) {
-					obj = json.getBytes();
-				} else if(resultType.isAssignableFrom(JsonNode.class)) {
-					obj = new ObjectMapper().readTree(json);
-				} else if(resultType.isAssignableFrom(Reader.class)) {
-					obj = new StringReader(json);
-				} else {
-					obj = new ObjectMapper().readValue(json, resultType);
-				}
-			} catch (Exception e) {
-				throw new RuntimeException("unsupported result type for call script.");
-			}
-			return resultType.cast(obj);
+			ResponseBody body = scriptingAPI.runScriptUrl(name, targetDid, targetAppDid, params)
+								.execute().body();
+
+			return toResult(body, resultType);
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
 	}
 
+	/**
+	 * Run the registered script without blocking the calling thread,
+	 * 		see {@link #callScript(String, JsonNode, String, String, Class)}.
+	 *
+	 * @param name The name of the script.
+	 * @param params The parameters to run the script.
+	 * @param targetDid The owner of the script.
+	 * @param targetAppDid The application DID owns the script.
+	 * @param resultType Supported type: String, byte[], JsonNode, Reader, other Json relating types.
+	 * @param <T> Same as result type.
+	 * @return The future of the result.
+	 */
+	public <T> CompletableFuture<T> callScriptAsync(String name, JsonNode params,
+													String targetDid,
+													String targetAppDid,
+													Class<T> resultType) {
+		return AsyncCalls.enqueue(scriptingAPI.runScript(name, new RunScriptParams()
+						.setContext(new Context()
+						.setTargetDid(targetDid)
+						.setTargetAppDid(targetAppDid))
+						.setParams(JsonCodec.toMap(params))),
+				body -> toResult(body, resultType),
+				ErrorTranslator.COMMON, getExecutor());
+	}
+
+	/**
+	 * Call the script by the URL parameters without blocking the calling thread,
+	 * 		see {@link #callScriptUrl(String, String, String, String, Class)}.
+	 *
+	 * @param name The name of the script.
+	 * @param params The parameters to run the script.
+	 * @param targetDid The owner of the script.
+	 * @param targetAppDid The application DID owns the script.
+	 * @param resultType Supported type: String, byte[], JsonNode, Reader, other Json relating types.
+	 * @param <T> Same as result type.
+	 * @return The future of the result.
+	 */
+	public <T> CompletableFuture<T> callScriptUrlAsync(String name, String params,
+													   String targetDid,
+													   String targetAppDid,
+													   Class<T> resultType) {
+		return AsyncCalls.enqueue(scriptingAPI.runScriptUrl(name, targetDid, targetAppDid, params),
+				body -> toResult(body, resultType),
+				ErrorTranslator.COMMON, getExecutor());
+	}
+
+	/**
+	 * Convert the response body of the script to the result type, the body is closed.
+	 *
+	 * <p>The JSON types are decoded from the stream by the shared codec without the intermediate string.</p>
+	 */
+	static <T> T toResult(ResponseBody body, Class<T> resultType) throws IOException {
+		try (ResponseBody b = body) {
+			Object obj;
+			if(resultType.isAssignableFrom(String.class)) {
+				obj = b.string();
+			} else if(resultType.isAssignableFrom(byte[].class)) {
+				obj = b.string().getBytes();
+			} else if(resultType.isAssignableFrom(JsonNode.class)) {
+				obj = JsonCodec.readTree(b.byteStream());
+			} else if(resultType.isAssignableFrom(Reader.class)) {
+				obj = new StringReader(b.string());
+			} else {
+				obj = JsonCodec.readerFor(resultType).readValue(b.byteStream());
+			}
+			return resultType.cast(obj);
+		} catch (JsonProcessingException | ClassCastException e) {
+			throw new IllegalArgumentException("Unsupported result Type class.");
+		}
+	}
+
+	private Executor getExecutor() {
+		NodeRPCConnection conn = connection.get();
+		return conn != null ? conn.getExecutor() : AppContext.getDefaultExecutor();
+	}
+
 	/**
 	 * Upload file really by transaction ID.
 	 *
@@ -246,9 +254,8 @@ public class ScriptingController {
 	 */
 	public <T> T uploadFile(String transactionId, Class<T> resultType) throws HiveException {
 		try {
-			HttpURLConnection conn = connection.get().openConnection(
-										ScriptingAPI.API_SCRIPT_UPLOAD + "/" + transactionId);
-			return getRequestStream(conn, resultType);
+			return getRequestStream(connection.get(),
+									ScriptingAPI.API_SCRIPT_UPLOAD + "/" + transactionId, resultType);
 
 		} catch (NodeRPCException e) {
 			// INFO: The error code and message can be found on stream closing.
@@ -271,30 +278,18 @@ public class ScriptingController {
 		try {
 			return getResponseStream(scriptingAPI.downloadFile(transactionId).execute(), resultType);
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
 	}
 
-	private <T> T getRequestStream(HttpURLConnection connection, Class<T> resultType) throws IOException {
-		OutputStream outputStream = connection.getOutputStream();
+	private <T> T getRequestStream(NodeRPCConnection connection, String urlPath, Class<T> resultType) throws IOException {
 		if (resultType.isAssignableFrom(OutputStream.class)) {
-			UploadStream uploader = new UploadStream(connection, outputStream);
+			UploadStream uploader = connection.openUploadStream(urlPath);
 			return resultType.cast(uploader);
 		} else if (resultType.isAssignableFrom(OutputStreamWriter.class)) {
-			OutputStreamWriter writer = new UploadWriter(connection, outputStream);
+			OutputStreamWriter writer = connection.openUploadWriter(urlPath);
 			return resultType.cast(writer);
 		} else {
 			return null;
@@ -319,15 +314,16 @@ public class ScriptingController {
 		HiveUrlInfo info = new HiveUrlInfo(hiveUrl);
 		String targetUrl = null;
 
-		// Get the provider address for targetDid.
+		// Get the provider address for targetDid, which is cached by the provider resolver.
+		// INFO: Resolve on the calling thread, which is a thread of the executor already.
 		try {
-			targetUrl = AppContext.getProviderAddress(info.getTargetDid(), null, true).get();
-		} catch (InterruptedException|ExecutionException e) {
+			targetUrl = ProviderResolver.getInstance().resolve(info.getTargetDid(), false);
+		} catch (NetworkException | RuntimeException e) {
 			throw new NetworkException("Failed to resolve targetDid on the hive url.");
 		}
 
-		// Prepare the new scripting service for targetDid with current user's appContext.
-		ScriptRunner runner = new ScriptRunner(context, targetUrl);
+		// Reuse the scripting service for targetDid with current user's appContext.
+		ScriptRunner runner = context.getScriptRunner(targetUrl);
 		ScriptingController controller = new ScriptingController(runner, false);
 
 		JsonNode result = controller.callScriptUrl(info.getScriptName(), info.getParams(),
@@ -379,18 +375,7 @@ public class ScriptingController {
 		try {
 			scriptingAPI.unregisterScript(name).execute();
 		} catch (NodeRPCException e) {
-			switch (e.getCode()) {
-				case NodeRPCException.UNAUTHORIZED:
-					throw new UnauthorizedException(e);
-				case NodeRPCException.FORBIDDEN:
-					throw new VaultForbiddenException(e);
-				case NodeRPCException.BAD_REQUEST:
-					throw new InvalidParameterException(e.getMessage());
-				case NodeRPCException.NOT_FOUND:
-					throw new NotFoundException(e);
-				default:
-					throw new ServerUnknownException(e);
-			}
+			throw ErrorTranslator.COMMON.translate(e);
 		} catch (IOException e) {
 			throw new NetworkException(e);
 		}
@@ -0,0 +1,159 @@
+package org.elastos.hive;
+
+import com.sun.net.httpserver.HttpExchange;
+import okhttp3.Dispatcher;
+import org.elastos.hive.connection.HttpClientRegistry;
+import org.elastos.hive.connection.NodeRPCConnection;
+import org.elastos.hive.exception.AlreadyExistsException;
+import org.elastos.hive.exception.NetworkException;
+import org.elastos.hive.exception.NotFoundException;
+import org.elastos.hive.exception.ServerUnknownException;
+import org.elastos.hive.vault.database.Collection;
+import org.elastos.hive.vault.database.DatabaseController;
+import org.elastos.hive.vault.files.FilesController;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Run the asynchronous APIs against a local stand-in node, the results and the errors complete the futures.
+ */
+class AsyncCallsTest {
+	private static final String HASH = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+	private static StandInNode node;
+	private static ExecutorService completionExecutor;
+	private static Executor countingExecutor;
+	private static DatabaseController database;
+	private static FilesController files;
+
+	private static final AtomicInteger completions = new AtomicInteger();
+	private static volatile CountDownLatch slowResponse;
+
+	@BeforeAll public static void startNode() throws IOException {
+		node = StandInNode.start()
+				.handle("/api/v2/vault/db/collections", AsyncCallsTest::handleCollections)
+				.handle("/api/v2/vault/db/invalid", exchange ->
+						StandInNode.send(exchange, 400, "{\"error\":{\"message\":\"Invalid collection name.\"}}"))
+				.handle("/api/v2/vault/files/", AsyncCallsTest::handleFile);
+
+		completionExecutor = Executors.newSingleThreadExecutor();
+		countingExecutor = command -> {
+			completions.incrementAndGet();
+			completionExecutor.execute(command);
+		};
+		NodeRPCConnection connection = StandInNode.connect(node.getAddress(), countingExecutor);
+		database = new DatabaseController(connection);
+		files = new FilesController(connection);
+	}
+
+	@AfterAll public static void stopNode() {
+		node.stop();
+		completionExecutor.shutdownNow();
+	}
+
+	@BeforeEach void reset() {
+		completions.set(0);
+	}
+
+	@Test void testSuccess() throws Exception {
+		database.createCollectionAsync("works").get(5, TimeUnit.SECONDS);
+		List<Collection> collections = database.getCollectionsAsync().get(5, TimeUnit.SECONDS);
+		Assertions.assertEquals(1, collections.size());
+		Assertions.assertEquals("works", collections.get(0).getName());
+		Assertions.assertEquals(HASH, files.getHashAsync("hive/hello.txt").get(5, TimeUnit.SECONDS));
+
+		// The futures are completed on the executor of the connection.
+		Assertions.assertEquals(3, completions.get());
+	}
+
+	@Test void testErrorTranslated() {
+		// The creating of the collection maps ALREADY_EXISTS other than the common errors.
+		assertCause(AlreadyExistsException.class, database.createCollectionAsync("existing"));
+		assertCause(ServerUnknownException.class, database.createCollectionAsync("missing"));
+
+		assertCause(NotFoundException.class, files.getHashAsync("hive/missing.txt"));
+		assertCause(ServerUnknownException.class, files.getHashAsync("hive/broken.txt"));
+
+		// The same error as the synchronous API.
+		assertCause(ServerUnknownException.class, database.deleteCollectionAsync("invalid"));
+		Assertions.assertThrows(ServerUnknownException.class, () -> database.deleteCollection("invalid"));
+		Assertions.assertEquals(5, completions.get());
+	}
+
+	@Test void testNetworkError() throws IOException {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+
+		// Nothing listens on the port any more.
+		FilesController unreachable = new FilesController(
+				StandInNode.connect("http://127.0.0.1:" + port, countingExecutor));
+		assertCause(NetworkException.class, unreachable.getHashAsync("hive/hello.txt"));
+	}
+
+	@Test void testCancel() throws Exception {
+		slowResponse = new CountDownLatch(1);
+		try {
+			CompletableFuture<String> future = files.getHashAsync("hive/slow.txt");
+			Dispatcher dispatcher = HttpClientRegistry.getInstance().getClient(node.getAddress()).dispatcher();
+			waitFor(() -> dispatcher.runningCallsCount() == 1);
+
+			Assertions.assertTrue(future.cancel(true));
+			// The request is canceled without waiting for the response.
+			waitFor(() -> dispatcher.runningCallsCount() == 0);
+			Assertions.assertThrows(CancellationException.class, future::join);
+		} finally {
+			slowResponse.countDown();
+		}
+	}
+
+	private static void assertCause(Class<? extends Throwable> expected, CompletableFuture<?> future) {
+		ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+		Assertions.assertEquals(expected, e.getCause().getClass());
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		Assertions.assertTrue(condition.getAsBoolean());
+	}
+
+	private static void handleCollections(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		if ("GET".equals(exchange.getRequestMethod())) {
+			StandInNode.send(exchange, 200, "{\"collections\":[{\"name\":\"works\"}]}");
+		} else if (path.endsWith("/existing")) {
+			StandInNode.send(exchange, 455, "{\"error\":{\"message\":\"The collection already exists.\"}}");
+		} else if (path.endsWith("/missing")) {
+			StandInNode.send(exchange, 404, "{\"error\":{\"message\":\"The vault does not exist.\"}}");
+		} else {
+			StandInNode.send(exchange, 200, String.format("{\"name\":\"%s\"}", path.substring(path.lastIndexOf('/') + 1)));
+		}
+	}
+
+	private static void handleFile(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		if (path.endsWith("/missing.txt")) {
+			StandInNode.send(exchange, 404, "{\"error\":{\"message\":\"The file does not exist.\"}}");
+		} else if (path.endsWith("/broken.txt")) {
+			StandInNode.send(exchange, 500, "<html>Internal Server Error</html>");
+		} else {
+			if (path.endsWith("/slow.txt")) {
+				try {
+					slowResponse.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			StandInNode.send(exchange, 200, String.format("{\"name\":\"%s\",\"algorithm\":\"SHA256\",\"hash\":\"%s\"}", path, HASH));
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package org.elastos.hive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import org.elastos.hive.vault.database.BulkInsert;
+import org.elastos.hive.vault.database.DatabaseController;
+import org.elastos.hive.vault.database.InsertBatch;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Insert the documents by batches to a local stand-in node which fails the insertings when it is down.
+ */
+class BulkInsertTest {
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private static StandInNode node;
+	private static DatabaseController controller;
+
+	private static volatile boolean down;
+	private static final AtomicInteger inserted = new AtomicInteger();
+
+	@BeforeAll public static void startNode() throws IOException {
+		node = StandInNode.start().handle("/api/v2/vault/db/collection/", BulkInsertTest::handleInsert);
+		controller = new DatabaseController(node.connect());
+	}
+
+	@AfterAll public static void stopNode() {
+		node.stop();
+	}
+
+	@Test void testStopReadingWhenFailed() throws Exception {
+		AtomicInteger read = new AtomicInteger();
+		Iterator<JsonNode> documents = new Iterator<JsonNode>() {
+			@Override
+			public boolean hasNext() {
+				return read.get() < 1000;
+			}
+
+			@Override
+			public JsonNode next() {
+				ObjectNode doc = JsonNodeFactory.instance.objectNode();
+				doc.put("index", read.getAndIncrement());
+				return doc;
+			}
+		};
+
+		down = true;
+		BulkInsert insert = controller.insertMany(new BulkInsert("works", null).setMaxBatchCount(10), documents);
+		Assertions.assertFalse(insert.isCompleted());
+		// The batches in flight and the one being read at most.
+		Assertions.assertTrue(read.get() <= 10 * 6, "read " + read.get());
+		Assertions.assertEquals(read.get(), insert.getBatches().stream().mapToInt(InsertBatch::getCount).sum());
+
+		down = false;
+		insert = controller.insertMany(insert, documents);
+		Assertions.assertTrue(insert.isCompleted());
+		Assertions.assertEquals(1000, read.get());
+		Assertions.assertEquals(1000, insert.getInsertedIds().size());
+		Assertions.assertEquals(1000, inserted.get());
+	}
+
+	private static void handleInsert(HttpExchange exchange) throws IOException {
+		JsonNode request;
+		try (InputStream in = exchange.getRequestBody()) {
+			request = mapper.readTree(in);
+		}
+
+		if (down) {
+			exchange.sendResponseHeaders(503, -1);
+			exchange.close();
+			return;
+		}
+
+		ObjectNode result = JsonNodeFactory.instance.objectNode();
+		result.put("acknowledged", true);
+		ArrayNode ids = result.putArray("inserted_ids");
+		for (int i = 0; i < request.get("document").size(); i++)
+			ids.add("id" + inserted.incrementAndGet());
+
+		StandInNode.send(exchange, 200, mapper.writeValueAsBytes(result));
+	}
+}
@@ -13,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -110,6 +111,41 @@ class DatabaseServiceTest {
 		});
 	}
 
+	@Test @Order(3) void testInsertManyByBatches() {
+		Assertions.assertDoesNotThrow(()->{
+			List<JsonNode> nodes = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				ObjectNode doc = JsonNodeFactory.instance.objectNode();
+				doc.put("author", "john doe7");
+				doc.put("title", "Eve for Dummies7 " + i);
+				nodes.add(doc);
+			}
+
+			BulkInsert insert = databaseService.insertMany(
+					new BulkInsert(COLLECTION_NAME, null).setMaxBatchCount(3), nodes.iterator()).get();
+			Assertions.assertTrue(insert.isCompleted());
+			Assertions.assertEquals(4, insert.getBatches().size());
+			Assertions.assertEquals(nodes.size(), insert.getInsertedIds().size());
+		});
+	}
+
+	@Test @Order(3) void testInsertByBuffer() {
+		Assertions.assertDoesNotThrow(()->{
+			List<CompletableFuture<InsertResult>> results = new ArrayList<>();
+			try (InsertBuffer buffer = databaseService.newInsertBuffer(COLLECTION_NAME, null)) {
+				for (int i = 0; i < 10; i++) {
+					ObjectNode doc = JsonNodeFactory.instance.objectNode();
+					doc.put("author", "john doe5");
+					doc.put("title", "Eve for Dummies5 " + i);
+					results.add(buffer.insertOne(doc));
+				}
+			}
+
+			for (CompletableFuture<InsertResult> result : results)
+				Assertions.assertEquals(1, result.get().getInsertedIds().size());
+		});
+	}
+
 	@Test @Order(3) void testInsertMany4NotFoundException() {
 		List<JsonNode> nodes = new ArrayList<>();
 
@@ -199,6 +235,26 @@ class DatabaseServiceTest {
 		});
 	}
 
+	@Test @Order(6) void testQueryWithHandler() {
+		Assertions.assertDoesNotThrow(()->{
+			ObjectNode query = JsonNodeFactory.instance.objectNode();
+			query.put("author", "john doe1");
+			List<JsonNode> docs = new ArrayList<>();
+			databaseService.query(COLLECTION_NAME, query, null, docs::add).get();
+			Assertions.assertEquals(databaseService.query(COLLECTION_NAME, query, null).get().size(), docs.size());
+		});
+	}
+
+	@Test @Order(6) void testQueryCursor() {
+		Assertions.assertDoesNotThrow(()->{
+			QueryOptions options = new QueryOptions().setBatchSize(1);
+			try (DocumentCursor cursor = databaseService.queryCursor(COLLECTION_NAME, null, options)) {
+				Assertions.assertEquals(databaseService.query(COLLECTION_NAME, null, null).get().size(),
+						cursor.stream().count());
+			}
+		});
+	}
+
 	@Test @Order(7) void testCountDoc() {
 		Assertions.assertDoesNotThrow(()->{
 			ObjectNode filter = JsonNodeFactory.instance.objectNode();
@@ -325,7 +381,53 @@ class DatabaseServiceTest {
 		Assertions.assertEquals(e.getCause().getClass(), NotFoundException.class);
 	}
 
-	@Test @Order(12) void testDeleteCollection() {
+	@Test @Order(11) void testBulkWrite() {
+		Assertions.assertDoesNotThrow(()->{
+			ObjectNode doc = JsonNodeFactory.instance.objectNode();
+			doc.put("author", "john doe6");
+			doc.put("title", "Eve for Dummies6");
+
+			ObjectNode filter = JsonNodeFactory.instance.objectNode();
+			filter.put("author", "john doe6");
+			ObjectNode update = JsonNodeFactory.instance.objectNode();
+			update.set("$set", JsonNodeFactory.instance.objectNode().put("words_count", 100));
+
+			BulkWriteResult result = databaseService.bulkWrite(COLLECTION_NAME, Arrays.asList(
+					WriteOp.insertOne(doc),
+					WriteOp.insertOne(doc.deepCopy()),
+					WriteOp.updateMany(filter, update, null),
+					WriteOp.deleteMany(filter)), true).get();
+			Assertions.assertTrue(result.isCompleted());
+			Assertions.assertNotNull(result.getResults().get(1).getInsertedId());
+			Assertions.assertNotNull(result.getResults().get(2).getUpdateResult());
+		});
+	}
+
+	@Test @Order(12) void testBulkWriteOne() {
+		Assertions.assertDoesNotThrow(()->{
+			ObjectNode doc = JsonNodeFactory.instance.objectNode();
+			doc.put("author", "john doe8");
+			doc.put("title", "Eve for Dummies8");
+
+			ObjectNode filter = JsonNodeFactory.instance.objectNode();
+			filter.put("author", "john doe8");
+			ObjectNode update = JsonNodeFactory.instance.objectNode();
+			update.set("$set", JsonNodeFactory.instance.objectNode().put("words_count", 100));
+
+			BulkWriteResult result = databaseService.bulkWrite(COLLECTION_NAME, Arrays.asList(
+					WriteOp.insertOne(doc),
+					WriteOp.insertOne(doc.deepCopy()),
+					WriteOp.updateOne(filter, update, null),
+					WriteOp.deleteOne(filter)), true).get();
+			Assertions.assertTrue(result.isCompleted());
+			Assertions.assertEquals(1, result.getResults().get(2).getUpdateResult().getModifiedCount());
+			Assertions.assertEquals(1L, databaseService.countDocuments(COLLECTION_NAME, filter, null).get());
+
+			databaseService.deleteMany(COLLECTION_NAME, filter).get();
+		});
+	}
+
+	@Test @Order(13) void testDeleteCollection() {
 		Assertions.assertDoesNotThrow(()->
 				databaseService.deleteCollection(COLLECTION_NAME).get());
 	}
@@ -0,0 +1,111 @@
+package org.elastos.hive;
+
+import com.sun.net.httpserver.HttpExchange;
+import okio.ByteString;
+import org.elastos.hive.connection.HashingInputStream;
+import org.elastos.hive.connection.HttpClientConfig;
+import org.elastos.hive.connection.HttpClientRegistry;
+import org.elastos.hive.exception.HashMismatchException;
+import org.elastos.hive.vault.files.FilesController;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Download the streams from a local stand-in node and check them with the hash of the remote file,
+ * 		which is got at the end of the stream.
+ */
+class DownloadStreamTest {
+	private static final String REMOTE_PATH = "hive/stream.txt";
+	private static final byte[] CONTENT = "The content of the file".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] OTHER_CONTENT = "The other content of the file".getBytes(StandardCharsets.UTF_8);
+
+	private static StandInNode node;
+	private static FilesController controller;
+
+	// The downloaded content, the hash of the remote file and the count of the hash requests.
+	private static volatile byte[] content;
+	private static volatile String remoteHash;
+	private static final AtomicInteger hashRequests = new AtomicInteger();
+
+	@BeforeAll public static void startNode() throws IOException {
+		node = StandInNode.start().handle("/api/v2/vault/files/", DownloadStreamTest::handleFile);
+		controller = new FilesController(node.connect());
+	}
+
+	@AfterAll public static void stopNode() {
+		node.stop();
+		HttpClientRegistry.getInstance().setConfig(new HttpClientConfig());
+	}
+
+	@BeforeEach void reset() {
+		hashRequests.set(0);
+		HttpClientRegistry.getInstance().setConfig(new HttpClientConfig().setVerifyHash(true));
+	}
+
+	@Test void testVerified() throws Exception {
+		serve(CONTENT, CONTENT);
+		try (HashingInputStream in = controller.getHashingDownloadStream(REMOTE_PATH)) {
+			// The hash is not got before the content is read.
+			Assertions.assertEquals(CONTENT[0], in.read());
+			Assertions.assertEquals(0, hashRequests.get());
+
+			readAll(in);
+			Assertions.assertEquals(sha256(CONTENT), in.getLocalHash());
+			Assertions.assertEquals(1, hashRequests.get());
+		}
+	}
+
+	@Test void testMismatch() throws Exception {
+		serve(OTHER_CONTENT, CONTENT);
+		try (InputStream in = controller.getDownloadStream(REMOTE_PATH)) {
+			IOException e = Assertions.assertThrows(IOException.class, () -> readAll(in));
+			Assertions.assertTrue(e.getCause() instanceof HashMismatchException);
+		}
+		Assertions.assertEquals(1, hashRequests.get());
+	}
+
+	@Test void testNotVerified() throws Exception {
+		HttpClientRegistry.getInstance().setConfig(new HttpClientConfig());
+		serve(OTHER_CONTENT, CONTENT);
+		try (InputStream in = controller.getDownloadStream(REMOTE_PATH)) {
+			Assertions.assertArrayEquals(OTHER_CONTENT, readAll(in));
+		}
+		Assertions.assertEquals(0, hashRequests.get());
+	}
+
+	private static void serve(byte[] downloading, byte[] remote) {
+		content = downloading;
+		remoteHash = sha256(remote);
+	}
+
+	private static String sha256(byte[] bytes) {
+		return ByteString.of(bytes).sha256().hex();
+	}
+
+	private static void handleFile(HttpExchange exchange) throws IOException {
+		byte[] body;
+		if ("comp=hash".equals(exchange.getRequestURI().getQuery())) {
+			hashRequests.incrementAndGet();
+			body = String.format("{\"name\":\"%s\",\"algorithm\":\"SHA256\",\"hash\":\"%s\"}",
+					REMOTE_PATH, remoteHash).getBytes(StandardCharsets.UTF_8);
+		} else {
+			body = content;
+		}
+
+		StandInNode.send(exchange, 200, body);
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int count;
+		while ((count = in.read(buffer)) != -1)
+			out.write(buffer, 0, count);
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,170 @@
+package org.elastos.hive;
+
+import com.sun.net.httpserver.HttpExchange;
+import okio.ByteString;
+import org.elastos.hive.exception.HashMismatchException;
+import org.elastos.hive.vault.files.FileCache;
+import org.elastos.hive.vault.files.FilesController;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Cache the files under a temporary directory, and download them from a local stand-in node.
+ */
+class FileCacheTest {
+	private static final String REMOTE_PATH = "hive/cached.txt";
+	private static final byte[] CONTENT = "The content of the cached file".getBytes(StandardCharsets.UTF_8);
+
+	private static StandInNode node;
+	private static FilesController controller;
+	private static volatile String remoteHash;
+	private static final AtomicInteger downloads = new AtomicInteger();
+
+	@TempDir Path directory;
+
+	@BeforeAll public static void startNode() throws IOException {
+		node = StandInNode.start().handle("/api/v2/vault/files/", FileCacheTest::handleFile);
+		controller = new FilesController(node.connect());
+	}
+
+	@AfterAll public static void stopNode() {
+		node.stop();
+	}
+
+	@BeforeEach void reset() {
+		remoteHash = ByteString.of(CONTENT).sha256().hex();
+		downloads.set(0);
+	}
+
+	@Test void testSharedByDirectory() throws IOException {
+		FileCache cache = FileCache.open(directory, 1024);
+		Assertions.assertSame(cache, FileCache.open(directory.resolve("sub").resolve(".."), 2048));
+		Assertions.assertEquals(1024, cache.getMaxSize());
+	}
+
+	@Test void testCommitAtomically() throws IOException {
+		FileCache cache = FileCache.open(directory, 1024);
+		Path tempFile = cache.createTempFile();
+		Files.write(tempFile, CONTENT);
+		Assertions.assertNull(cache.open("hash"));
+
+		try (InputStream in = cache.commit("hash", tempFile)) {
+			Assertions.assertArrayEquals(CONTENT, readAll(in));
+		}
+		Assertions.assertFalse(Files.exists(tempFile));
+		Assertions.assertEquals(CONTENT.length, cache.getSize());
+		try (InputStream in = cache.open("hash")) {
+			Assertions.assertArrayEquals(CONTENT, readAll(in));
+		}
+	}
+
+	@Test void testEviction() throws IOException {
+		FileCache cache = FileCache.open(directory, 100);
+		put(cache, "a", 40);
+		put(cache, "b", 40);
+		cache.open("a").close();
+		put(cache, "c", 40);
+
+		// The least recently used one is evicted.
+		Assertions.assertEquals(1, cache.getEvictionCount());
+		Assertions.assertEquals(80, cache.getSize());
+		Assertions.assertNull(cache.open("b"));
+		cache.open("a").close();
+		cache.open("c").close();
+		Assertions.assertEquals(2, countFiles());
+	}
+
+	@Test void testHitMissCount() throws IOException {
+		FileCache cache = FileCache.open(directory, 100);
+		Assertions.assertNull(cache.open("a"));
+		put(cache, "a", 10);
+		cache.open("a").close();
+		cache.open("a").close();
+
+		Assertions.assertEquals(2, cache.getHitCount());
+		Assertions.assertEquals(1, cache.getMissCount());
+	}
+
+	@Test void testTempFiles() throws IOException {
+		String pid = ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+		Path own = Files.createFile(directory.resolve("download-" + pid + "-1.tmp"));
+		Path other = Files.createFile(directory.resolve("download-" + pid + "0-1.tmp"));
+		Path stale = Files.createFile(directory.resolve("download-" + pid + "0-2.tmp"));
+		Files.setLastModifiedTime(stale, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2)));
+
+		FileCache cache = FileCache.open(directory, 100);
+		Assertions.assertFalse(Files.exists(own));
+		Assertions.assertTrue(Files.exists(other));
+		Assertions.assertFalse(Files.exists(stale));
+		Assertions.assertEquals(0, cache.getSize());
+	}
+
+	@Test void testCachedDownload() throws Exception {
+		FileCache cache = FileCache.open(directory, 1024);
+		try (InputStream in = controller.getCachedDownloadStream(REMOTE_PATH, cache)) {
+			Assertions.assertArrayEquals(CONTENT, readAll(in));
+		}
+		try (InputStream in = controller.getCachedDownloadStream(REMOTE_PATH, cache)) {
+			Assertions.assertArrayEquals(CONTENT, readAll(in));
+		}
+
+		Assertions.assertEquals(1, downloads.get());
+		Assertions.assertEquals(1, cache.getHitCount());
+		Assertions.assertEquals(1, cache.getMissCount());
+	}
+
+	@Test void testHashMismatch() throws IOException {
+		FileCache cache = FileCache.open(directory, 1024);
+		remoteHash = ByteString.encodeUtf8("other").sha256().hex();
+
+		Assertions.assertThrows(HashMismatchException.class, () -> controller.getCachedDownloadStream(REMOTE_PATH, cache));
+		Assertions.assertEquals(0, cache.getSize());
+		Assertions.assertEquals(0, countFiles());
+	}
+
+	private static void put(FileCache cache, String hash, int length) throws IOException {
+		Path tempFile = cache.createTempFile();
+		Files.write(tempFile, new byte[length]);
+		cache.commit(hash, tempFile).close();
+	}
+
+	private long countFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+
+	private static void handleFile(HttpExchange exchange) throws IOException {
+		byte[] body;
+		if ("comp=hash".equals(exchange.getRequestURI().getQuery())) {
+			body = String.format("{\"name\":\"%s\",\"algorithm\":\"SHA256\",\"hash\":\"%s\"}", REMOTE_PATH, remoteHash)
+					.getBytes(StandardCharsets.UTF_8);
+		} else {
+			downloads.incrementAndGet();
+			body = CONTENT;
+		}
+
+		StandInNode.send(exchange, 200, body);
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int count;
+		while ((count = in.read(buffer)) != -1)
+			out.write(buffer, 0, count);
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,189 @@
+package org.elastos.hive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import org.elastos.hive.exception.ServerUnknownException;
+import org.elastos.hive.vault.database.DatabaseController;
+import org.elastos.hive.vault.database.InsertBuffer;
+import org.elastos.hive.vault.database.InsertResult;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Insert the single documents by the buffer to a local stand-in node, the futures are completed on one executor thread.
+ *
+ * <p>The name of the collection selects the behavior of the node: "failing" fails the requests,
+ * 		"blocking" holds the requests until released.</p>
+ */
+class InsertBufferTest {
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private static StandInNode node;
+	private static ExecutorService executor;
+	private static DatabaseController controller;
+
+	private static final AtomicInteger inserted = new AtomicInteger();
+	private static final Queue<Integer> batchCounts = new ConcurrentLinkedQueue<>();
+	private static volatile CountDownLatch blocking = new CountDownLatch(0);
+
+	@BeforeAll public static void startNode() throws IOException {
+		node = StandInNode.start().handle("/api/v2/vault/db/collection/", InsertBufferTest::handleInsert);
+		executor = Executors.newSingleThreadExecutor();
+		controller = new DatabaseController(StandInNode.connect(node.getAddress(), executor));
+	}
+
+	@AfterAll public static void stopNode() {
+		node.stop();
+		executor.shutdownNow();
+	}
+
+	@BeforeEach void reset() {
+		inserted.set(0);
+		batchCounts.clear();
+	}
+
+	@Test void testCloseOnExecutor() throws Exception {
+		List<CompletableFuture<InsertResult>> results = new ArrayList<>();
+		// The only executor thread closes the buffer, which must not wait for itself.
+		CompletableFuture.runAsync(() -> {
+			try (InsertBuffer buffer = controller.newInsertBuffer("works", null).setMaxBatchCount(10)) {
+				for (int i = 0; i < 25; i++)
+					results.add(buffer.insertOne(newDocument(i)));
+			}
+		}, executor).get(10, TimeUnit.SECONDS);
+
+		for (CompletableFuture<InsertResult> result : results)
+			Assertions.assertEquals(1, result.get(10, TimeUnit.SECONDS).getInsertedIds().size());
+		Assertions.assertEquals(25, inserted.get());
+	}
+
+	@Test void testCloseCompletesFutures() {
+		// The executor is busy, so the closing thread completes the futures.
+		CountDownLatch busy = new CountDownLatch(1);
+		executor.execute(() -> await(busy));
+		try {
+			List<CompletableFuture<InsertResult>> results = new ArrayList<>();
+			try (InsertBuffer buffer = controller.newInsertBuffer("works", null).setMaxBatchCount(10)) {
+				for (int i = 0; i < 25; i++)
+					results.add(buffer.insertOne(newDocument(i)));
+			}
+
+			for (CompletableFuture<InsertResult> result : results)
+				Assertions.assertTrue(result.isDone());
+		} finally {
+			busy.countDown();
+		}
+	}
+
+	@Test void testBatchCountTrigger() throws Exception {
+		try (InsertBuffer buffer = controller.newInsertBuffer("works", null)
+				.setMaxBatchCount(10).setMaxDelay(TimeUnit.MINUTES.toMillis(1))) {
+			List<CompletableFuture<InsertResult>> results = new ArrayList<>();
+			for (int i = 0; i < 10; i++)
+				results.add(buffer.insertOne(newDocument(i)));
+
+			// Inserted without the flushing.
+			CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+			Assertions.assertArrayEquals(new Integer[]{10}, batchCounts.toArray());
+		}
+	}
+
+	@Test void testDelayTrigger() throws Exception {
+		try (InsertBuffer buffer = controller.newInsertBuffer("works", null)
+				.setMaxBatchCount(100).setMaxDelay(50)) {
+			List<CompletableFuture<InsertResult>> results = new ArrayList<>();
+			for (int i = 0; i < 3; i++)
+				results.add(buffer.insertOne(newDocument(i)));
+
+			CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+			Assertions.assertArrayEquals(new Integer[]{3}, batchCounts.toArray());
+		}
+	}
+
+	@Test void testWaitForSpace() throws Exception {
+		blocking = new CountDownLatch(1);
+		ExecutorService caller = Executors.newSingleThreadExecutor();
+		try (InsertBuffer buffer = controller.newInsertBuffer("blocking", null)
+				.setMaxBatchCount(5).setMaxPendingCount(5)) {
+			for (int i = 0; i < 5; i++)
+				buffer.insertOne(newDocument(i));
+
+			// The buffer is full until the inserting batch is finished.
+			Future<CompletableFuture<InsertResult>> waiting = caller.submit(() -> buffer.insertOne(newDocument(5)));
+			Assertions.assertThrows(TimeoutException.class, () -> waiting.get(300, TimeUnit.MILLISECONDS));
+
+			blocking.countDown();
+			Assertions.assertEquals(1, waiting.get(10, TimeUnit.SECONDS)
+					.get(10, TimeUnit.SECONDS).getInsertedIds().size());
+		} finally {
+			blocking.countDown();
+			caller.shutdownNow();
+		}
+	}
+
+	@Test void testBatchFailed() {
+		List<CompletableFuture<InsertResult>> results = new ArrayList<>();
+		try (InsertBuffer buffer = controller.newInsertBuffer("failing", null).setMaxBatchCount(4)) {
+			for (int i = 0; i < 6; i++)
+				results.add(buffer.insertOne(newDocument(i)));
+		}
+
+		// Every document of the failed batches fails.
+		for (CompletableFuture<InsertResult> result : results) {
+			ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+					() -> result.get(10, TimeUnit.SECONDS));
+			Assertions.assertTrue(e.getCause() instanceof ServerUnknownException);
+		}
+		Assertions.assertEquals(0, inserted.get());
+	}
+
+	private static ObjectNode newDocument(int index) {
+		ObjectNode doc = JsonNodeFactory.instance.objectNode();
+		doc.put("index", index);
+		return doc;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void handleInsert(HttpExchange exchange) throws IOException {
+		JsonNode request;
+		try (InputStream in = exchange.getRequestBody()) {
+			request = mapper.readTree(in);
+		}
+
+		String path = exchange.getRequestURI().getPath();
+		if (path.endsWith("/failing")) {
+			StandInNode.send(exchange, 503, new byte[0]);
+			return;
+		}
+		if (path.endsWith("/blocking"))
+			await(blocking);
+
+		int count = request.get("document").size();
+		batchCounts.add(count);
+
+		ObjectNode result = JsonNodeFactory.instance.objectNode();
+		result.put("acknowledged", true);
+		ArrayNode ids = result.putArray("inserted_ids");
+		for (int i = 0; i < count; i++)
+			ids.add("id" + inserted.incrementAndGet());
+		StandInNode.send(exchange, 200, mapper.writeValueAsBytes(result));
+	}
+}
@@ -0,0 +1,163 @@
+package org.elastos.hive;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Replay, compact and lock the journal storage under a temporary directory.
+ */
+class JournalStorageTest {
+	private static final String USER_DID = "did:elastos:iUser";
+	private static final String SERVICE_DID = "did:elastos:iService";
+
+	@TempDir Path rootPath;
+
+	@Test void testReplay() {
+		JournalStorage storage = open();
+		storage.storeAccessToken(SERVICE_DID, "token1");
+		storage.storeAccessToken(SERVICE_DID, "token2");
+		storage.storeBackupCredential(SERVICE_DID, "credential");
+		storage.storeAccessTokenByAddress("http://localhost", "token3");
+		storage.clearAccessTokenByAddress("http://localhost");
+		storage.close();
+
+		storage = open();
+		Assertions.assertEquals("token2", storage.loadAccessToken(SERVICE_DID));
+		Assertions.assertEquals("credential", storage.loadBackupCredential(SERVICE_DID));
+		Assertions.assertNull(storage.loadAccessTokenByAddress("http://localhost"));
+		storage.close();
+	}
+
+	@Test void testSkipTruncatedRecord() throws IOException {
+		JournalStorage storage = open();
+		storage.storeAccessToken(SERVICE_DID, "token");
+		storage.close();
+
+		Files.write(journal(), "{\"k\":\"iUser/tokens/iOther\",\"v\":\"tru".getBytes(StandardCharsets.UTF_8),
+				StandardOpenOption.APPEND);
+
+		storage = open();
+		Assertions.assertEquals("token", storage.loadAccessToken(SERVICE_DID));
+		Assertions.assertNull(storage.loadAccessToken("did:elastos:iOther"));
+		storage.storeBackupCredential(SERVICE_DID, "credential");
+		storage.close();
+
+		// The invalid record is dropped by the compaction, so the new records are readable.
+		storage = open();
+		Assertions.assertEquals("token", storage.loadAccessToken(SERVICE_DID));
+		Assertions.assertEquals("credential", storage.loadBackupCredential(SERVICE_DID));
+		storage.close();
+	}
+
+	@Test void testCompaction() throws IOException {
+		JournalStorage storage = open();
+		for (int i = 0; i < 2000; i++)
+			storage.storeAccessToken(SERVICE_DID, "token" + i);
+		storage.storeBackupCredential(SERVICE_DID, "credential");
+		storage.flush();
+
+		// The token, the credential and the mark of the importing.
+		Assertions.assertEquals(3, Files.readAllLines(journal()).size());
+		storage.close();
+
+		storage = open();
+		Assertions.assertEquals("token1999", storage.loadAccessToken(SERVICE_DID));
+		storage.close();
+	}
+
+	@Test void testImportFileStorage() {
+		FileStorage files = new FileStorage(rootPath.toString(), USER_DID);
+		files.storeAccessToken(SERVICE_DID, "token");
+		files.storeBackupCredential(SERVICE_DID, "credential");
+		files.storeAccessTokenByAddress("http://localhost", "token2");
+
+		JournalStorage storage = open();
+		Assertions.assertEquals("token", storage.loadAccessToken(SERVICE_DID));
+		Assertions.assertEquals("credential", storage.loadBackupCredential(SERVICE_DID));
+		Assertions.assertEquals("token2", storage.loadAccessTokenByAddress("http://localhost"));
+		storage.close();
+	}
+
+	@Test void testConcurrentWriters() throws Exception {
+		JournalStorage storage = open();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			int thread = t;
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 500; i++)
+					storage.storeAccessToken("did:elastos:iService" + thread + "-" + (i % 50), "token" + i);
+			}));
+		}
+		for (Future<?> future : futures)
+			future.get();
+		executor.shutdown();
+		storage.close();
+
+		JournalStorage reopened = open();
+		for (int t = 0; t < 8; t++) {
+			for (int i = 450; i < 500; i++)
+				Assertions.assertEquals("token" + i, reopened.loadAccessToken("did:elastos:iService" + t + "-" + (i % 50)));
+		}
+		reopened.close();
+	}
+
+	@Test void testSharedByUsers() throws IOException {
+		JournalStorage storage = open();
+		DataStorage other = JournalStorage.open(rootPath.toString(), "did:elastos:iOtherUser");
+		Assertions.assertTrue(other instanceof JournalStorage);
+
+		storage.storeAccessToken(SERVICE_DID, "token");
+		other.storeAccessToken(SERVICE_DID, "other token");
+		Assertions.assertEquals("token", storage.loadAccessToken(SERVICE_DID));
+		Assertions.assertEquals("other token", other.loadAccessToken(SERVICE_DID));
+		storage.close();
+
+		// One journal and one lock under the root path for all users.
+		try (Stream<Path> files = Files.list(rootPath)) {
+			Assertions.assertEquals(2, files.count());
+		}
+
+		storage = open();
+		Assertions.assertEquals("token", storage.loadAccessToken(SERVICE_DID));
+		Assertions.assertEquals("other token",
+				JournalStorage.open(rootPath.toString(), "did:elastos:iOtherUser").loadAccessToken(SERVICE_DID));
+		storage.close();
+	}
+
+	@Test void testLockedByOtherProcess() throws IOException {
+		// The lock of the other process, which excludes the channels of this process too.
+		try (FileChannel channel = FileChannel.open(rootPath.resolve("storage.lock"),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			 FileLock lock = channel.lock()) {
+			Assertions.assertTrue(lock.isValid());
+			DataStorage storage = JournalStorage.open(rootPath.toString(), USER_DID);
+			Assertions.assertTrue(storage instanceof FileStorage);
+		}
+	}
+
+	private JournalStorage open() {
+		DataStorage storage = JournalStorage.open(rootPath.toString(), USER_DID);
+		Assertions.assertTrue(storage instanceof JournalStorage);
+		return (JournalStorage) storage;
+	}
+
+	private Path journal() {
+		return rootPath.resolve("storage.journal");
+	}
+}
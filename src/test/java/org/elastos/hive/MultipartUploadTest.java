@@ -0,0 +1,159 @@
+package org.elastos.hive;
+
+import com.sun.net.httpserver.HttpExchange;
+import okio.ByteString;
+import org.elastos.hive.exception.HashMismatchException;
+import org.elastos.hive.exception.ServerUnknownException;
+import org.elastos.hive.vault.files.FilesController;
+import org.elastos.hive.vault.files.MultipartUpload;
+import org.elastos.hive.vault.files.UploadPart;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Upload the parts to a local stand-in node which reassembles the file by the Content-Range headers.
+ */
+class MultipartUploadTest {
+	private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+	private static final String REMOTE_PATH = "hive/multipart.bin";
+
+	private static StandInNode node;
+	private static FilesController controller;
+
+	private static final Map<String, byte[]> files = new ConcurrentHashMap<>();
+	private static final Set<Long> failingOffsets = ConcurrentHashMap.newKeySet();
+	private static final AtomicInteger requests = new AtomicInteger();
+	private static volatile boolean ignoringRange;
+
+	private Path localFile;
+	private byte[] content;
+
+	@BeforeAll public static void startNode() throws IOException {
+		node = StandInNode.start().handle("/api/v2/vault/files/", MultipartUploadTest::handlePart);
+		controller = new FilesController(node.connect());
+	}
+
+	@AfterAll public static void stopNode() {
+		node.stop();
+	}
+
+	@BeforeEach void createLocalFile() throws IOException {
+		content = new byte[5 * 1024 * 1024 + 123];
+		new Random(7).nextBytes(content);
+		localFile = Files.createTempFile("multipart", ".bin");
+		Files.write(localFile, content);
+
+		files.clear();
+		failingOffsets.clear();
+		requests.set(0);
+		ignoringRange = false;
+	}
+
+	@AfterEach void deleteLocalFile() throws IOException {
+		Files.deleteIfExists(localFile);
+	}
+
+	@Test void testUploadParts() {
+		AtomicInteger progressCalls = new AtomicInteger();
+		MultipartUpload upload = new MultipartUpload(REMOTE_PATH, content.length, 7);
+
+		Assertions.assertDoesNotThrow(() -> controller.uploadParts(upload, localFile,
+				(part, uploaded) -> progressCalls.incrementAndGet()));
+
+		Assertions.assertTrue(upload.isCompleted());
+		Assertions.assertEquals(7, upload.getParts().size());
+		Assertions.assertEquals(content.length, upload.getUploaded());
+		Assertions.assertTrue(progressCalls.get() >= 7 * 2);
+		Assertions.assertArrayEquals(content, files.get(REMOTE_PATH));
+	}
+
+	@Test void testResumeFailedParts() {
+		MultipartUpload upload = new MultipartUpload(REMOTE_PATH, content.length, 4);
+		UploadPart failing = upload.getParts().get(2);
+		failingOffsets.add(failing.getOffset());
+
+		Assertions.assertDoesNotThrow(() -> controller.uploadParts(upload, localFile, null));
+		Assertions.assertFalse(upload.isCompleted());
+		Assertions.assertEquals(1, upload.getFailedParts().size());
+		Assertions.assertEquals(failing, upload.getFailedParts().get(0));
+		Assertions.assertTrue(failing.getError() instanceof ServerUnknownException);
+		Assertions.assertEquals(4, requests.get());
+
+		Assertions.assertDoesNotThrow(() -> controller.uploadParts(upload, localFile, null));
+		Assertions.assertTrue(upload.isCompleted());
+		Assertions.assertEquals(5, requests.get());
+		Assertions.assertArrayEquals(content, files.get(REMOTE_PATH));
+	}
+
+	@Test void testRangeIgnored() {
+		ignoringRange = true;
+		MultipartUpload upload = new MultipartUpload(REMOTE_PATH, content.length, 3);
+
+		Assertions.assertThrows(HashMismatchException.class, () -> controller.uploadParts(upload, localFile, null));
+		Assertions.assertFalse(upload.isCompleted());
+		Assertions.assertEquals(3, upload.getFailedParts().size());
+		Assertions.assertTrue(upload.getFailedParts().get(0).getError() instanceof HashMismatchException);
+	}
+
+	private static void handlePart(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath().substring("/api/v2/vault/files/".length());
+		if ("comp=hash".equals(exchange.getRequestURI().getQuery())) {
+			byte[] file = files.getOrDefault(path, new byte[0]);
+			StandInNode.send(exchange, 200, String.format("{\"name\":\"%s\",\"algorithm\":\"SHA256\",\"hash\":\"%s\"}",
+					path, ByteString.of(file).sha256().hex()));
+			return;
+		}
+
+		requests.incrementAndGet();
+
+		byte[] body = readAll(exchange.getRequestBody());
+		Matcher range = CONTENT_RANGE.matcher(exchange.getRequestHeaders().getFirst("Content-Range"));
+		if (!"PUT".equals(exchange.getRequestMethod()) || !range.matches()) {
+			exchange.sendResponseHeaders(400, -1);
+			exchange.close();
+			return;
+		}
+
+		long offset = Long.parseLong(range.group(1));
+		if (failingOffsets.remove(offset)) {
+			exchange.sendResponseHeaders(500, -1);
+			exchange.close();
+			return;
+		}
+
+		if (ignoringRange) {
+			// The node which takes every part as the whole file.
+			files.put(path, body);
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+			return;
+		}
+
+		byte[] file = files.computeIfAbsent(path, p -> new byte[Integer.parseInt(range.group(3))]);
+		System.arraycopy(body, 0, file, (int) offset, body.length);
+
+		exchange.sendResponseHeaders(200, -1);
+		exchange.close();
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[64 * 1024];
+		int count;
+		while ((count = in.read(buffer)) != -1)
+			out.write(buffer, 0, count);
+		return out.toByteArray();
+	}
+}
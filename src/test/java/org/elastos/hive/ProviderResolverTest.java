@@ -0,0 +1,127 @@
+package org.elastos.hive;
+
+import org.elastos.hive.exception.DIDNotPublishedException;
+import org.elastos.hive.exception.NetworkException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolve the provider addresses by a stand-in chain lookup.
+ */
+class ProviderResolverTest {
+	private static final String DID = "did:elastos:iUser";
+	private static final String ADDRESS = "https://hive.example.com";
+
+	private final Map<String, AtomicInteger> lookups = new ConcurrentHashMap<>();
+
+	@Test void testTtl() throws Exception {
+		ProviderResolver resolver = new ProviderResolver((did, isForce) -> {
+			count(did, isForce);
+			return ADDRESS;
+		}).setTtl(100, TimeUnit.MILLISECONDS);
+
+		Assertions.assertEquals(ADDRESS, resolver.resolve(DID, false));
+		Assertions.assertEquals(ADDRESS, resolver.resolve(DID, false));
+		Assertions.assertEquals(1, lookups(DID, false));
+		Assertions.assertEquals(1, resolver.getHitCount());
+
+		Thread.sleep(150);
+		Assertions.assertEquals(ADDRESS, resolver.resolve(DID, false));
+		Assertions.assertEquals(2, lookups(DID, false));
+
+		Assertions.assertEquals(ADDRESS, resolver.resolve(DID, true));
+		Assertions.assertEquals(1, lookups(DID, true));
+	}
+
+	@Test void testNegativeCache() {
+		ProviderResolver resolver = new ProviderResolver((did, isForce) -> {
+			count(did, isForce);
+			throw new DIDNotPublishedException("Not published " + did);
+		});
+
+		DIDNotPublishedException first = Assertions.assertThrows(DIDNotPublishedException.class,
+				() -> resolver.resolve(DID, false));
+		DIDNotPublishedException second = Assertions.assertThrows(DIDNotPublishedException.class,
+				() -> resolver.resolve(DID, false));
+		Assertions.assertEquals(1, lookups(DID, false));
+		Assertions.assertNotSame(first, second);
+		Assertions.assertEquals(first.getMessage(), second.getMessage());
+
+		ProviderAddresses addresses = resolver.resolveAll(Arrays.asList(DID));
+		Assertions.assertTrue(addresses.getErrors().get(DID) instanceof DIDNotPublishedException);
+		Assertions.assertNotSame(first, addresses.getErrors().get(DID));
+		Assertions.assertEquals(1, lookups(DID, false));
+	}
+
+	@Test void testNetworkErrorNotCached() {
+		ProviderResolver resolver = new ProviderResolver((did, isForce) -> {
+			count(did, isForce);
+			throw new NetworkException("Resolving DID failed");
+		});
+
+		Assertions.assertThrows(NetworkException.class, () -> resolver.resolve(DID, false));
+		Assertions.assertThrows(NetworkException.class, () -> resolver.resolve(DID, false));
+		Assertions.assertEquals(2, lookups(DID, false));
+	}
+
+	@Test void testSingleFlight() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		ProviderResolver resolver = new ProviderResolver((did, isForce) -> {
+			count(did, isForce);
+			await(release);
+			return ADDRESS + (isForce ? "/forced" : "");
+		});
+
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			List<Future<String>> futures = new ArrayList<>();
+			for (int i = 0; i < 10; i++)
+				futures.add(executor.submit(() -> resolver.resolve(DID, false)));
+			waitForLookups(DID, false, 1);
+
+			// The forced resolving does not join the non-forced one.
+			Future<String> forced = executor.submit(() -> resolver.resolve(DID, true));
+			waitForLookups(DID, true, 1);
+
+			release.countDown();
+			for (Future<String> future : futures)
+				Assertions.assertEquals(ADDRESS, future.get(5, TimeUnit.SECONDS));
+			Assertions.assertEquals(ADDRESS + "/forced", forced.get(5, TimeUnit.SECONDS));
+			Assertions.assertEquals(1, lookups(DID, false));
+			Assertions.assertEquals(1, lookups(DID, true));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void count(String did, boolean isForce) {
+		lookups.computeIfAbsent(did + isForce, k -> new AtomicInteger()).incrementAndGet();
+	}
+
+	private int lookups(String did, boolean isForce) {
+		AtomicInteger count = lookups.get(did + isForce);
+		return count != null ? count.get() : 0;
+	}
+
+	private void waitForLookups(String did, boolean isForce, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (lookups(did, isForce) < count && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		Assertions.assertEquals(count, lookups(did, isForce));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package org.elastos.hive;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.elastos.hive.exception.HiveException;
+import org.elastos.hive.vault.files.FilesController;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Download the byte ranges from a local stand-in node, which may ignore the Range headers.
+ */
+class RangeDownloadTest {
+	private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+	private static final String REMOTE_PATH = "hive/range.bin";
+
+	private static StandInNode node;
+	private static FilesController controller;
+
+	private static final byte[] content = new byte[3 * 1024 * 1024 + 17];
+	private static final AtomicLong sentBytes = new AtomicLong();
+	private static volatile boolean ignoringRange;
+
+	private Path localFile;
+
+	@BeforeAll public static void startNode() throws IOException {
+		new Random(11).nextBytes(content);
+
+		node = StandInNode.start().handle("/api/v2/vault/files/", RangeDownloadTest::handleFile);
+		controller = new FilesController(node.connect());
+	}
+
+	@AfterAll public static void stopNode() {
+		node.stop();
+	}
+
+	@BeforeEach void createLocalFile() throws IOException {
+		localFile = Files.createTempFile("range", ".bin");
+		sentBytes.set(0);
+		ignoringRange = false;
+	}
+
+	@AfterEach void deleteLocalFile() throws IOException {
+		Files.deleteIfExists(localFile);
+	}
+
+	@Test void testDownloadParts() throws Exception {
+		Assertions.assertEquals(content.length, controller.downloadParts(REMOTE_PATH, localFile, 5));
+		Assertions.assertArrayEquals(content, Files.readAllBytes(localFile));
+		Assertions.assertEquals(content.length, sentBytes.get());
+	}
+
+	@Test void testDownloadPartsRangeIgnored() throws Exception {
+		ignoringRange = true;
+		Assertions.assertEquals(content.length, controller.downloadParts(REMOTE_PATH, localFile, 5));
+		Assertions.assertArrayEquals(content, Files.readAllBytes(localFile));
+		// The whole file is downloaded once only.
+		Assertions.assertEquals(content.length, sentBytes.get());
+	}
+
+	@Test void testResumeDownload() throws Exception {
+		Files.write(localFile, Arrays.copyOf(content, 1000));
+		Assertions.assertEquals(content.length, controller.resumeDownload(REMOTE_PATH, localFile));
+		Assertions.assertArrayEquals(content, Files.readAllBytes(localFile));
+		Assertions.assertEquals(content.length - 1000, sentBytes.get());
+	}
+
+	@Test void testResumeCompleted() throws Exception {
+		Files.write(localFile, content);
+		Assertions.assertEquals(content.length, controller.resumeDownload(REMOTE_PATH, localFile));
+		Assertions.assertEquals(0, sentBytes.get());
+	}
+
+	@Test void testResumeLargerFile() throws IOException {
+		Files.write(localFile, Arrays.copyOf(content, content.length + 10));
+		Assertions.assertThrows(HiveException.class, () -> controller.resumeDownload(REMOTE_PATH, localFile));
+	}
+
+	private static void handleFile(HttpExchange exchange) throws IOException {
+		if ("comp=metadata".equals(exchange.getRequestURI().getQuery())) {
+			StandInNode.send(exchange, 200,
+					String.format("{\"name\":\"%s\",\"is_file\":true,\"size\":%d}", REMOTE_PATH, content.length));
+			return;
+		}
+
+		String range = exchange.getRequestHeaders().getFirst("Range");
+		Matcher matcher = range != null ? RANGE.matcher(range) : null;
+		if (ignoringRange || matcher == null || !matcher.matches()) {
+			send(exchange, 200, 0, content.length);
+			return;
+		}
+
+		int start = Integer.parseInt(matcher.group(1));
+		int end = matcher.group(2).isEmpty() ? content.length - 1 : Math.min(Integer.parseInt(matcher.group(2)), content.length - 1);
+		if (start >= content.length) {
+			exchange.getResponseHeaders().set("Content-Range", "bytes */" + content.length);
+			exchange.sendResponseHeaders(416, -1);
+			exchange.close();
+			return;
+		}
+
+		exchange.getResponseHeaders().set("Content-Range", String.format("bytes %d-%d/%d", start, end, content.length));
+		send(exchange, 206, start, end - start + 1);
+	}
+
+	private static void send(HttpExchange exchange, int code, int offset, int length) throws IOException {
+		exchange.sendResponseHeaders(code, length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			// Count the bytes which are sent before the client closes the connection.
+			for (int position = offset; position < offset + length; position += 8192) {
+				int count = Math.min(8192, offset + length - position);
+				out.write(content, position, count);
+				sentBytes.addAndGet(count);
+			}
+		} catch (IOException e) {
+			// The client stops reading the whole file.
+		}
+	}
+}
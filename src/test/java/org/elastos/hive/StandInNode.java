@@ -0,0 +1,127 @@
+package org.elastos.hive;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.elastos.hive.connection.NodeRPCConnection;
+import org.elastos.hive.connection.auth.AccessToken;
+import org.elastos.hive.connection.auth.StubAccessToken;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The local HTTP server which stands in for the hive node in the tests, the handlers are the APIs of the test.
+ *
+ * <pre>
+ *     node = StandInNode.start().handle("/api/v2/vault/files/", FilesTest::handleFile);
+ *     controller = new FilesController(node.connect());
+ *     ...
+ *     node.stop();
+ * </pre>
+ */
+public class StandInNode {
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final String address;
+
+	private StandInNode() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		executor = Executors.newCachedThreadPool();
+		server.setExecutor(executor);
+		server.start();
+		address = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * Start the node on a free local port.
+	 *
+	 * @return The node.
+	 * @throws IOException Failed to listen.
+	 */
+	public static StandInNode start() throws IOException {
+		return new StandInNode();
+	}
+
+	/**
+	 * Handle the requests under the path.
+	 *
+	 * @param path The path prefix of the API.
+	 * @param handler The handler.
+	 * @return This node.
+	 */
+	public StandInNode handle(String path, HttpHandler handler) {
+		server.createContext(path, handler);
+		return this;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	/**
+	 * Create the connection to this node with the fixed access token, which the node does not check.
+	 *
+	 * @return The connection.
+	 */
+	public NodeRPCConnection connect() {
+		return connect(address, null);
+	}
+
+	/**
+	 * Create the connection to the address with the fixed access token.
+	 *
+	 * @param address The provider address, which may be of no node.
+	 * @param executor The executor of the connection, null for the default one.
+	 * @return The connection.
+	 */
+	public static NodeRPCConnection connect(String address, Executor executor) {
+		return new NodeRPCConnection() {
+			@Override
+			protected String getProviderAddress() {
+				return address;
+			}
+
+			@Override
+			protected AccessToken getAccessToken() {
+				return new StubAccessToken("token");
+			}
+
+			@Override
+			public Executor getExecutor() {
+				return executor != null ? executor : super.getExecutor();
+			}
+		};
+	}
+
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Send the response, the client may have closed the connection.
+	 *
+	 * @param exchange The exchange.
+	 * @param code The HTTP code.
+	 * @param body The body, empty for no body.
+	 * @throws IOException Failed to send the headers.
+	 */
+	public static void send(HttpExchange exchange, int code, byte[] body) throws IOException {
+		exchange.sendResponseHeaders(code, body.length > 0 ? body.length : -1);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		} catch (IOException e) {
+			// The client stops reading.
+		}
+	}
+
+	public static void send(HttpExchange exchange, int code, String body) throws IOException {
+		send(exchange, code, body.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,75 @@
+package org.elastos.hive.connection;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.elastos.hive.exception.*;
+import org.junit.jupiter.api.*;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Parse the error responses and translate them by the tables of the node APIs.
+ */
+class ErrorTranslatorTest {
+	private static final ErrorTranslator BACKUP_ERRORS = new ErrorTranslator(ErrorTranslator.COMMON)
+			.map(NodeRPCException.BAD_REQUEST, NodeRPCException.IC_BACKUP_IS_IN_PROCESSING, BackupIsInProcessingException::new)
+			.map(NodeRPCException.INSUFFICIENT_STORAGE, InsufficientStorageException::new);
+
+	@Test void testTranslate() {
+		Assertions.assertThrows(UnauthorizedException.class,
+				() -> ErrorTranslator.COMMON.translate(new NodeRPCException(401, -1, "unauthorized")));
+		Assertions.assertThrows(InvalidParameterException.class,
+				() -> ErrorTranslator.COMMON.translate(new NodeRPCException(400, -1, "invalid")));
+		Assertions.assertThrows(NotFoundException.class,
+				() -> ErrorTranslator.COMMON.translate(new NodeRPCException(404, -1, "not found")));
+
+		Assertions.assertTrue(ErrorTranslator.COMMON.translate(new NodeRPCException(500, -1, "")) instanceof ServerUnknownException);
+		Assertions.assertTrue(ErrorTranslator.COMMON.translate(new NodeRPCException(302, -1, "")) instanceof ServerUnknownException);
+	}
+
+	@Test void testInternalCode() {
+		Assertions.assertThrows(BackupIsInProcessingException.class,
+				() -> BACKUP_ERRORS.translate(new NodeRPCException(400, NodeRPCException.IC_BACKUP_IS_IN_PROCESSING, "")));
+		Assertions.assertThrows(InvalidParameterException.class,
+				() -> BACKUP_ERRORS.translate(new NodeRPCException(400, NodeRPCException.IC_INVALID_PARAMETER, "")));
+		Assertions.assertThrows(InsufficientStorageException.class,
+				() -> BACKUP_ERRORS.translate(new NodeRPCException(507, -1, "")));
+
+		// The derived table does not change the base one.
+		Assertions.assertThrows(InvalidParameterException.class,
+				() -> ErrorTranslator.COMMON.translate(new NodeRPCException(400, NodeRPCException.IC_BACKUP_IS_IN_PROCESSING, "")));
+		Assertions.assertTrue(ErrorTranslator.COMMON.translate(new NodeRPCException(507, -1, "")) instanceof ServerUnknownException);
+	}
+
+	@Test void testParse() {
+		NodeRPCException e = ErrorParser.parse(newResponse(400,
+				"{\"error\": {\"code\": 400, \"message\": \"in processing\", \"internal_code\": 2}}"));
+		Assertions.assertEquals(400, e.getCode());
+		Assertions.assertEquals(NodeRPCException.IC_BACKUP_IS_IN_PROCESSING, e.getInternalCode());
+		Assertions.assertEquals("in processing", e.getMessage());
+
+		e = ErrorParser.parse(newResponse(404, "{\"_status\": \"ERR\", \"error\": {\"message\": \"not found\"}}"));
+		Assertions.assertEquals(-1, e.getInternalCode());
+		Assertions.assertEquals("not found", e.getMessage());
+
+		e = ErrorParser.parse(newResponse(502, "<html>Bad Gateway</html>"));
+		Assertions.assertEquals(502, e.getCode());
+		Assertions.assertEquals("<html>Bad Gateway</html>", e.getMessage());
+
+		e = ErrorParser.parse(newResponse(503, ""));
+		Assertions.assertEquals("Service Unavailable", e.getMessage());
+	}
+
+	private static Response newResponse(int code, String body) {
+		return new Response.Builder()
+				.request(new Request.Builder().url("http://localhost/").build())
+				.protocol(Protocol.HTTP_1_1)
+				.code(code)
+				.message(code == 503 ? "Service Unavailable" : "Error")
+				.body(ResponseBody.create(MediaType.parse("application/json"), body))
+				.build();
+	}
+}
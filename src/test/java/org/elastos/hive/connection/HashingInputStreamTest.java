@@ -0,0 +1,71 @@
+package org.elastos.hive.connection;
+
+import okio.ByteString;
+import org.elastos.hive.exception.HashMismatchException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compute the digest of the stream content and check it by the verifier at the end of the stream.
+ */
+class HashingInputStreamTest {
+	private static final byte[] CONTENT = "The content of the downloaded file".getBytes(StandardCharsets.UTF_8);
+	private static final String HASH = ByteString.of(CONTENT).sha256().hex();
+
+	@Test void testVerifyAtEnd() throws IOException {
+		List<String> verified = new ArrayList<>();
+		HashingInputStream in = new HashingInputStream(new ByteArrayInputStream(CONTENT), verified::add);
+
+		Assertions.assertEquals(CONTENT[0], in.read());
+		Assertions.assertEquals(10, in.read(new byte[10], 0, 10));
+		Assertions.assertTrue(verified.isEmpty());
+		Assertions.assertNull(in.getLocalHash());
+
+		drain(in);
+		Assertions.assertEquals(-1, in.read());
+		// Verified once only.
+		Assertions.assertEquals(1, verified.size());
+		Assertions.assertEquals(HASH, verified.get(0));
+		Assertions.assertEquals(HASH, in.getLocalHash());
+	}
+
+	@Test void testSkipHashed() throws IOException {
+		HashingInputStream in = new HashingInputStream(new ByteArrayInputStream(CONTENT), null);
+		Assertions.assertEquals(5, in.skip(5));
+		Assertions.assertEquals(CONTENT[5], in.read());
+		Assertions.assertEquals(CONTENT.length - 6, in.skip(Long.MAX_VALUE));
+		Assertions.assertEquals(-1, in.read());
+		Assertions.assertEquals(HASH, in.getLocalHash());
+	}
+
+	@Test void testMismatch() {
+		HashingInputStream in = new HashingInputStream(new ByteArrayInputStream(CONTENT), localHash -> {
+			throw new HashMismatchException("The hash does not match, local: " + localHash);
+		});
+
+		IOException e = Assertions.assertThrows(IOException.class, () -> drain(in));
+		Assertions.assertTrue(e.getCause() instanceof HashMismatchException);
+		Assertions.assertEquals(HASH, in.getLocalHash());
+	}
+
+	@Test void testMarkNotSupported() {
+		HashingInputStream in = new HashingInputStream(new ByteArrayInputStream(CONTENT), null);
+		Assertions.assertFalse(in.markSupported());
+		Assertions.assertThrows(IOException.class, in::reset);
+	}
+
+	private static void drain(InputStream in) throws IOException {
+		byte[] buffer = new byte[7];
+		int count;
+		do {
+			count = in.read(buffer);
+		} while (count != -1);
+	}
+}
@@ -0,0 +1,103 @@
+package org.elastos.hive.connection;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.elastos.hive.StandInNode;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload the streams to a local stand-in node while the other requests are sent.
+ */
+class UploadStreamTest {
+	private static final String UPLOAD_PATH = "/api/v2/vault/files/hive/stream.txt";
+
+	private static StandInNode node;
+	private static String address;
+	private static NodeRPCConnection connection;
+
+	@BeforeAll public static void startNode() throws IOException {
+		node = StandInNode.start()
+				.handle("/api/v2/vault/files/", UploadStreamTest::handleUpload)
+				.handle("/api/v2/about/version", UploadStreamTest::handleVersion);
+		address = node.getAddress();
+		connection = node.connect();
+	}
+
+	@AfterAll public static void stopNode() {
+		node.stop();
+	}
+
+	@Test void testOpenStreamsDoNotBlockRequests() throws Exception {
+		int streams = HttpClientRegistry.getInstance().getConfig().getMaxRequestsPerHost() + 4;
+		List<UploadStream> uploads = new ArrayList<>();
+		for (int i = 0; i < streams; i++) {
+			UploadStream upload = connection.openUploadStream(UPLOAD_PATH);
+			upload.write(("content" + i).getBytes(StandardCharsets.UTF_8));
+			upload.flush();
+			uploads.add(upload);
+		}
+
+		// The request by the shared dispatcher is not queued behind the open streams.
+		CompletableFuture<Integer> code = new CompletableFuture<>();
+		HttpClientRegistry.getInstance().getClient(address)
+				.newCall(new Request.Builder().url(address + "/api/v2/about/version").build())
+				.enqueue(new Callback() {
+					@Override
+					public void onFailure(Call call, IOException e) {
+						code.completeExceptionally(e);
+					}
+
+					@Override
+					public void onResponse(Call call, Response response) {
+						response.close();
+						code.complete(response.code());
+					}
+				});
+		Assertions.assertEquals(200, code.get(10, TimeUnit.SECONDS));
+
+		for (int i = 0; i < streams; i++) {
+			uploads.get(i).close();
+			Assertions.assertEquals(("content" + i).length() + "", uploads.get(i).getCid());
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	@Test void testDeprecatedConnection() throws IOException {
+		HttpURLConnection urlConnection = connection.openConnection(UPLOAD_PATH);
+		UploadStream upload = new UploadStream(urlConnection, urlConnection.getOutputStream());
+		upload.write("content".getBytes(StandardCharsets.UTF_8));
+		upload.close();
+
+		Assertions.assertEquals("7", upload.getCid());
+		Assertions.assertNull(upload.getLocalHash());
+	}
+
+	private static void handleUpload(HttpExchange exchange) throws IOException {
+		long length = 0;
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] buffer = new byte[4096];
+			int count;
+			while ((count = in.read(buffer)) != -1)
+				length += count;
+		}
+
+		// The length of the uploaded content as the cid.
+		StandInNode.send(exchange, 200, String.format("{\"cid\":\"%d\"}", length));
+	}
+
+	private static void handleVersion(HttpExchange exchange) throws IOException {
+		StandInNode.send(exchange, 200, new byte[0]);
+	}
+}
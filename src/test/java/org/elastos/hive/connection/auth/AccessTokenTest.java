@@ -0,0 +1,294 @@
+package org.elastos.hive.connection.auth;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.elastos.hive.DataStorage;
+import org.elastos.hive.ServiceEndpoint;
+import org.elastos.hive.StandInNode;
+import org.elastos.hive.connection.NodeRPCException;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetch the access tokens of the simulated users concurrently from a local stub auth server.
+ */
+class AccessTokenTest {
+	private static final int USERS = 200;
+	private static final int CALLERS_PER_USER = 5;
+	private static final int SIGN_IN_DELAY = 200;
+
+	private static StandInNode node;
+	private static String address;
+	private static final Map<String, AtomicInteger> signIns = new ConcurrentHashMap<>();
+	private static final Map<String, CountDownLatch> blockedUsers = new ConcurrentHashMap<>();
+	private static final Map<String, Integer> failingUsers = new ConcurrentHashMap<>();
+	private static volatile CountDownLatch callersReady = new CountDownLatch(0);
+
+	@BeforeAll public static void startServer() throws IOException {
+		node = StandInNode.start().handle("/signin", AccessTokenTest::handleSignIn);
+		address = node.getAddress();
+	}
+
+	@AfterAll public static void stopServer() {
+		node.stop();
+	}
+
+	@BeforeEach void reset() {
+		signIns.clear();
+		blockedUsers.clear();
+		failingUsers.clear();
+	}
+
+	@Test void testConcurrentUsers() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(USERS * CALLERS_PER_USER);
+		CountDownLatch start = new CountDownLatch(1);
+		// The sign-ins are held until all the callers are fetching.
+		callersReady = new CountDownLatch(USERS * CALLERS_PER_USER);
+		List<Future<String>> results = new ArrayList<>();
+
+		for (int i = 0; i < USERS; i++) {
+			String userDid = "did:elastos:user" + i;
+			// Two endpoints of the same user share the storage key.
+			AccessToken[] tokens = {newAccessToken(userDid), newAccessToken(userDid)};
+			for (int j = 0; j < CALLERS_PER_USER; j++) {
+				AccessToken token = tokens[j % tokens.length];
+				results.add(executor.submit(() -> {
+					start.await();
+					callersReady.countDown();
+					return token.fetch();
+				}));
+			}
+		}
+
+		long begin = System.currentTimeMillis();
+		start.countDown();
+		for (int i = 0; i < results.size(); i++)
+			Assertions.assertEquals("token-did:elastos:user" + (i / CALLERS_PER_USER),
+					results.get(i).get(30, TimeUnit.SECONDS));
+		long elapsed = System.currentTimeMillis() - begin;
+		executor.shutdown();
+
+		Assertions.assertEquals(USERS, signIns.size());
+		signIns.values().forEach(count -> Assertions.assertEquals(1, count.get()));
+		// Serialized sign-ins need USERS * SIGN_IN_DELAY milliseconds.
+		Assertions.assertTrue(elapsed < USERS * SIGN_IN_DELAY / 4, "Took " + elapsed + " ms");
+	}
+
+	@Test void testBlockedUserNotBlockOthers() throws Exception {
+		CountDownLatch blocked = new CountDownLatch(1);
+		blockedUsers.put("did:elastos:slow", blocked);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			Future<String> slow = executor.submit(() -> newAccessToken("did:elastos:slow").fetch());
+			while (!signIns.containsKey("did:elastos:slow"))
+				Thread.sleep(10);
+
+			List<Future<String>> others = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				AccessToken token = newAccessToken("did:elastos:other" + i);
+				others.add(executor.submit(token::fetch));
+			}
+			for (Future<String> other : others)
+				Assertions.assertNotNull(other.get(10, TimeUnit.SECONDS));
+			Assertions.assertFalse(slow.isDone());
+
+			blocked.countDown();
+			Assertions.assertEquals("token-did:elastos:slow", slow.get(10, TimeUnit.SECONDS));
+		} finally {
+			blocked.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test void testErrorSharedByWaiters() throws Exception {
+		failingUsers.put("did:elastos:failing", 500);
+		AccessToken token = newAccessToken("did:elastos:failing");
+
+		ExecutorService executor = Executors.newFixedThreadPool(CALLERS_PER_USER);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS_PER_USER; i++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return token.fetch();
+			}));
+		}
+		start.countDown();
+		for (Future<String> result : results) {
+			ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+			Assertions.assertTrue(e.getCause() instanceof NodeRPCException);
+		}
+		executor.shutdown();
+		Assertions.assertEquals(1, signIns.get("did:elastos:failing").get());
+
+		// The failure is not kept, the next fetching signs in again.
+		failingUsers.clear();
+		Assertions.assertEquals("token-did:elastos:failing", token.fetch());
+		Assertions.assertEquals(2, signIns.get("did:elastos:failing").get());
+	}
+
+	@Test void testRefreshBeforeExpiration() throws Exception {
+		String userDid = "did:elastos:refreshing";
+		// The token is never restored from the storage, then each refreshing signs in.
+		AccessToken token = newAccessToken(userDid, new MemoryStorage() {
+			@Override
+			public void storeAccessToken(String serviceDid, String accessToken) {
+			}
+		}, 2000);
+		Assertions.assertEquals("token-" + userDid, token.fetch());
+		Assertions.assertEquals(1, signIns.get(userDid).get());
+
+		// The token is renewed in the background, the fetching never waits for the signing in.
+		long deadline = System.currentTimeMillis() + 5000;
+		while (signIns.get(userDid).get() < 2 && System.currentTimeMillis() < deadline) {
+			long begin = System.currentTimeMillis();
+			Assertions.assertEquals("token-" + userDid, token.fetch());
+			Assertions.assertTrue(System.currentTimeMillis() - begin < SIGN_IN_DELAY / 2);
+			Thread.sleep(20);
+		}
+		Assertions.assertEquals(2, signIns.get(userDid).get());
+	}
+
+	private static AccessToken newAccessToken(String userDid) {
+		return newAccessToken(userDid, new MemoryStorage(), 0);
+	}
+
+	/**
+	 * Create the access token, the tokens expire after the lifetime when it is positive.
+	 */
+	private static AccessToken newAccessToken(String userDid, DataStorage storage, long lifetime) {
+		ServiceEndpoint endpoint = new ServiceEndpoint(null, address) {
+			@Override
+			public String getUserDid() {
+				return userDid;
+			}
+		};
+		return new AccessToken(endpoint, storage, new BridgeHandler() {
+			@Override
+			public void flush(String value) {
+			}
+
+			@Override
+			public Object target() {
+				return null;
+			}
+		}, new StubFetcher(userDid)) {
+			@Override
+			ParsedToken parseToken(String jwtCode) {
+				return lifetime > 0 ? new ParsedToken(jwtCode, System.currentTimeMillis() + lifetime, null, null, null)
+						: super.parseToken(jwtCode);
+			}
+		};
+	}
+
+	private static void handleSignIn(HttpExchange exchange) throws IOException {
+		String userDid = exchange.getRequestURI().getQuery().substring("user=".length());
+		signIns.computeIfAbsent(userDid, k -> new AtomicInteger()).incrementAndGet();
+
+		try {
+			callersReady.await(10, TimeUnit.SECONDS);
+			CountDownLatch blocked = blockedUsers.get(userDid);
+			if (blocked != null)
+				blocked.await();
+			else
+				Thread.sleep(SIGN_IN_DELAY);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		int code = failingUsers.getOrDefault(userDid, 200);
+		StandInNode.send(exchange, code, "token-" + userDid);
+	}
+
+	/**
+	 * Sign in by the stub auth server instead of the DID authentication of the hive node.
+	 */
+	private static class StubFetcher implements CodeFetcher {
+		private final String userDid;
+
+		StubFetcher(String userDid) {
+			this.userDid = userDid;
+		}
+
+		@Override
+		public String fetch() throws NodeRPCException {
+			try {
+				HttpURLConnection connection = (HttpURLConnection) new URL(address + "/signin?user=" + userDid).openConnection();
+				int code = connection.getResponseCode();
+				if (code != 200)
+					throw new NodeRPCException(code, -1, "Failed to sign in");
+
+				try (InputStream in = connection.getInputStream()) {
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					byte[] buffer = new byte[256];
+					int count;
+					while ((count = in.read(buffer)) != -1)
+						out.write(buffer, 0, count);
+					return new String(out.toByteArray(), StandardCharsets.UTF_8);
+				}
+			} catch (IOException e) {
+				throw new NodeRPCException(-1, -1, e.getMessage());
+			}
+		}
+
+		@Override
+		public void invalidate() {
+		}
+	}
+
+	private static class MemoryStorage implements DataStorage {
+		private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+		@Override
+		public String loadBackupCredential(String serviceDid) {
+			return null;
+		}
+
+		@Override
+		public String loadAccessToken(String serviceDid) {
+			return tokens.get(serviceDid);
+		}
+
+		@Override
+		public String loadAccessTokenByAddress(String providerAddress) {
+			return null;
+		}
+
+		@Override
+		public void storeBackupCredential(String serviceDid, String credential) {
+		}
+
+		@Override
+		public void storeAccessToken(String serviceDid, String accessToken) {
+			tokens.put(serviceDid, accessToken);
+		}
+
+		@Override
+		public void storeAccessTokenByAddress(String providerAddress, String accessToken) {
+		}
+
+		@Override
+		public void clearBackupCredential(String serviceDid) {
+		}
+
+		@Override
+		public void clearAccessToken(String serviceDid) {
+			tokens.remove(serviceDid);
+		}
+
+		@Override
+		public void clearAccessTokenByAddress(String providerAddress) {
+		}
+	}
+}
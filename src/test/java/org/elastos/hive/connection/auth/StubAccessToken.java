@@ -0,0 +1,18 @@
+package org.elastos.hive.connection.auth;
+
+/**
+ * The access token of the stand-in nodes, which returns the fixed token without signing in.
+ */
+public class StubAccessToken extends AccessToken {
+	private final String token;
+
+	public StubAccessToken(String token) {
+		super(null, null, null, null);
+		this.token = token;
+	}
+
+	@Override
+	public String fetch() {
+		return token;
+	}
+}